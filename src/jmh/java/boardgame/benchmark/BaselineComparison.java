@@ -0,0 +1,74 @@
+package boardgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares JMH results to a baseline, both in the JSON format of JMH.
+ * Every benchmark is listed with the throughput and the allocation per operation of both runs,
+ * and the benchmarks whose throughput dropped, or whose time per operation grew, by more than the tolerance
+ * are marked as regressions.
+ * Usage: {@code BaselineComparison [results] [baseline] [tolerance %]}.
+ */
+public class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private record Result(double score, boolean throughput, double allocation) {
+    }
+
+    /**
+     * Runs the comparison.
+     *
+     * @param args the results (default {@code target/jmh-result.json}), the baseline
+     *             (default {@code src/jmh/baseline.json}) and the tolerance (default 10%)
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        var results = read(Path.of(args.length > 0 ? args[0] : "target/jmh-result.json"));
+        var baseline = read(Path.of(args.length > 1 ? args[1] : "src/jmh/baseline.json"));
+        var tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        var regressions = 0;
+        System.out.printf("%-50s %14s %14s %8s %12s %12s%n",
+                "benchmark", "baseline", "current", "change", "B/op before", "B/op now");
+        for (var entry : results.entrySet()) {
+            var current = entry.getValue();
+            var before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-50s %14s %14.1f %8s %12s %12.1f%n", entry.getKey(), "-", current.score(), "new",
+                        "-", current.allocation());
+                continue;
+            }
+            var change = 100 * (current.score() - before.score()) / before.score();
+            var regression = current.throughput() ? change < -tolerance : change > tolerance;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-50s %14.1f %14.1f %+7.1f%% %12.1f %12.1f%s%n", entry.getKey(), before.score(),
+                    current.score(), change, before.allocation(), current.allocation(), regression ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regressions over %.0f%%%n", regressions, tolerance);
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        var results = new LinkedHashMap<String, Result>();
+        for (var node : new ObjectMapper().readTree(file.toFile())) {
+            var name = node.get("benchmark").asText().replaceFirst("^boardgame\\.benchmark\\.", "");
+            var params = node.get("params");
+            if (params != null) {
+                var names = new StringBuilder(name);
+                params.fields().forEachRemaining(param -> names.append(':').append(param.getValue().asText()));
+                name = names.toString();
+            }
+            var metric = node.get("primaryMetric");
+            var allocation = node.path("secondaryMetrics").path(ALLOCATION).path("score");
+            results.put(name, new Result(metric.get("score").asDouble(), "thrpt".equals(node.path("mode").asText()),
+                    allocation.isMissingNode() ? Double.NaN : allocation.asDouble()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,196 @@
+package boardgame.benchmark;
+
+import boardgame.model.BitboardState;
+import boardgame.model.BoardLayout;
+import boardgame.model.BoardState;
+import boardgame.model.LargeBoardState;
+import boardgame.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the rules engines by the size of the board: {@code bitboard} is the {@link BitboardState}
+ * of the original board, the sizes are {@link LargeBoardState}s of {@link BoardLayout#standard(int)} layouts.
+ * Every board is played for two random turns per row, then its king moves of the next player are checked,
+ * its first moves are made and taken back, which evaluates the end of the game after each, and the second
+ * move scan of the game over check is run on positions with a pending first move.
+ * The scores are per move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSizeBenchmark {
+
+    private static final int MOVES = 1024;
+    private static final int PENDING = 64;
+
+    @Param({"bitboard", "5", "8", "12", "16", "32"})
+    private String board;
+
+    private BoardState state;
+    private final int[] kingFrom = new int[MOVES];
+    private final int[] kingTo = new int[MOVES];
+    private final int[] moveFrom = new int[MOVES];
+    private final int[] moveTo = new int[MOVES];
+    private final BoardState[] pending = new BoardState[PENDING];
+
+    /**
+     * Plays the random turns and picks the moves.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        state = board.equals("bitboard") ? new BitboardState()
+                : new LargeBoardState(BoardLayout.standard(Integer.parseInt(board)));
+        var random = new SplittableRandom(42);
+        for (var turn = 0; turn < 2 * state.getBoardSize() && playTurn(random); turn++) {
+            // the random turns of the position
+        }
+        var kingMoves = kingMoves();
+        var firstMoves = new ArrayList<int[]>();
+        for (var move : kingMoves) {
+            if (state.isLegalMove(move[0], move[1])) {
+                firstMoves.add(move);
+            }
+        }
+        for (var i = 0; i < MOVES; i++) {
+            var king = kingMoves.get(random.nextInt(kingMoves.size()));
+            kingFrom[i] = king[0];
+            kingTo[i] = king[1];
+            var first = firstMoves.get(i % firstMoves.size());
+            moveFrom[i] = first[0];
+            moveTo[i] = first[1];
+        }
+        for (var i = 0; i < PENDING; i++) {
+            pending[i] = copy(state);
+            pending[i].makeMove(moveFrom[i], moveTo[i]);
+        }
+    }
+
+    private static BoardState copy(BoardState state) {
+        return switch (state) {
+            case BitboardState bitboard -> new BitboardState(bitboard);
+            case LargeBoardState large -> new LargeBoardState(large);
+        };
+    }
+
+    /**
+     * Lists the king moves of the disks of the next player, the ones leaving the board excluded.
+     */
+    private List<int[]> kingMoves() {
+        var size = state.getBoardSize();
+        var moves = new ArrayList<int[]>();
+        for (var from = 0; from < size * size; from++) {
+            if (state.isLegalToMoveFrom(new Position(from / size, from % size))) {
+                for (var rowStep = -1; rowStep <= 1; rowStep++) {
+                    for (var colStep = -1; colStep <= 1; colStep++) {
+                        var row = from / size + rowStep;
+                        var col = from % size + colStep;
+                        if ((rowStep != 0 || colStep != 0) && 0 <= row && row < size && 0 <= col && col < size) {
+                            moves.add(new int[] {from, row * size + col});
+                        }
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Plays a random full turn that does not end the game.
+     *
+     * @return {@code false} if there is no such turn
+     */
+    private boolean playTurn(SplittableRandom random) {
+        var moves = kingMoves();
+        for (var tries = 0; tries < 4 * moves.size(); tries++) {
+            var first = moves.get(random.nextInt(moves.size()));
+            if (!state.makeMove(first[0], first[1])) {
+                continue;
+            }
+            if (!state.isGameOver()) {
+                for (var second : kingMoves()) {
+                    if (state.makeMove(second[0], second[1])) {
+                        if (!state.isGameOver()) {
+                            return true;
+                        }
+                        state.unmakeMove();
+                    }
+                }
+            }
+            state.unmakeMove();
+        }
+        return false;
+    }
+
+    /**
+     * Checks king moves of the disks of the next player, to empty and to occupied squares.
+     *
+     * @return the number of legal moves
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public int isLegalMove() {
+        var legal = 0;
+        for (var i = 0; i < MOVES; i++) {
+            if (state.isLegalMove(kingFrom[i], kingTo[i])) {
+                legal++;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Makes a legal first move, which updates the status of the game, and takes it back.
+     *
+     * @return the number of moves ending the game
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public int makeMove() {
+        var gameOver = 0;
+        for (var i = 0; i < MOVES; i++) {
+            state.makeMove(moveFrom[i], moveTo[i]);
+            if (state.isGameOver()) {
+                gameOver++;
+            }
+            state.unmakeMove();
+        }
+        return gameOver;
+    }
+
+    /**
+     * Runs the second move scan of the game over check on positions with a pending first move.
+     *
+     * @return the number of positions with a second move
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public int hasValidSecondMove() {
+        var valid = 0;
+        for (var i = 0; i < MOVES; i++) {
+            if (pending[i & PENDING - 1].hasValidSecondMove()) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
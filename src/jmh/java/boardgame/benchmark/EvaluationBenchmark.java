@@ -0,0 +1,67 @@
+package boardgame.benchmark;
+
+import boardgame.ai.DistanceEvaluator;
+import boardgame.ai.Evaluator;
+import boardgame.ai.WeightedEvaluator;
+import boardgame.model.BitboardState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the static evaluation at the leaves of the search, on opening, midgame and endgame positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param({"opening", "midgame", "endgame"})
+    private String position;
+
+    private BitboardState state;
+    private final Evaluator distance = new DistanceEvaluator();
+    private final Evaluator weighted = new WeightedEvaluator();
+
+    /**
+     * Sets up the position.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        state = Positions.of(position);
+    }
+
+    /**
+     * Evaluates the position by the advance of the disks only.
+     *
+     * @return the score
+     */
+    @Benchmark
+    public int distance() {
+        return distance.evaluate(state);
+    }
+
+    /**
+     * Evaluates the position by the weighted features.
+     *
+     * @return the score
+     */
+    @Benchmark
+    public int weighted() {
+        return weighted.evaluate(state);
+    }
+}
@@ -0,0 +1,156 @@
+package boardgame.benchmark;
+
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a large game archive: indexing it when it is opened, scanning every game, reading and replaying
+ * one game, finding the games of a player and appending a game. The games are random games of up to 60 turns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class GameArchiveBenchmark {
+
+    private static final int DISTINCT_GAMES = 10_000;
+    private static final int TURN_LIMIT = 60;
+    private static final int PLAYERS = 10_000;
+
+    @Param("1000000")
+    private int games;
+
+    private Path dir;
+    private Path file;
+    private GameArchive archive;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long time;
+
+    /**
+     * Fills the archive.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("archive");
+        file = dir.resolve("games.dat");
+        var played = new BitboardState[DISTINCT_GAMES];
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        for (var i = 0; i < DISTINCT_GAMES; i++) {
+            played[i] = new BitboardState();
+            for (var turn = 0; turn < TURN_LIMIT && !played[i].isGameOver(); turn++) {
+                var count = MoveGenerator.generate(played[i], turns);
+                if (count == 0) {
+                    break;
+                }
+                played[i].makeTurn(turns[random.nextInt(count)]);
+            }
+        }
+        archive = new GameArchive(file);
+        for (var i = 0; i < games; i++) {
+            archive.append(GameRecord.of(time++, player(random.nextInt(PLAYERS)), player(random.nextInt(PLAYERS)),
+                    played[i % DISTINCT_GAMES]));
+        }
+    }
+
+    private static String player(int number) {
+        return "Player " + number;
+    }
+
+    /**
+     * Deletes the archive.
+     *
+     * @throws IOException if the archive cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Closes and reopens the archive, which reads and indexes every game.
+     *
+     * @return the number of games
+     * @throws IOException if the archive cannot be read
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int open() throws IOException {
+        archive.close();
+        archive = new GameArchive(file);
+        return archive.size();
+    }
+
+    /**
+     * Reads every game.
+     *
+     * @return the number of turns of the games
+     * @throws IOException if the archive cannot be read
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan() throws IOException {
+        var turns = new long[1];
+        archive.forEach(0, archive.size(), game -> turns[0] += game.turnCount());
+        return turns[0];
+    }
+
+    /**
+     * Reads a random game and rebuilds its final position.
+     *
+     * @return the final position
+     * @throws IOException if the archive cannot be read
+     */
+    @Benchmark
+    public BitboardState replay() throws IOException {
+        var game = archive.get(random.nextInt(games));
+        return game.replay(game.turnCount());
+    }
+
+    /**
+     * Finds the games of a random player, about 200 at a million games.
+     *
+     * @return the numbers of the games
+     */
+    @Benchmark
+    public int[] gamesOfPlayer() {
+        return archive.gamesOf(player(random.nextInt(PLAYERS)));
+    }
+
+    /**
+     * Appends a game of one turn.
+     *
+     * @return the number of the game
+     * @throws IOException if the archive cannot be written
+     */
+    @Benchmark
+    public int append() throws IOException {
+        return archive.append(new GameRecord(time++, "Beni", "Gitta", null, new byte[] {0}));
+    }
+}
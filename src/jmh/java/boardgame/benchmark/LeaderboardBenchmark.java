@@ -0,0 +1,112 @@
+package boardgame.benchmark;
+
+import boardgame.rating.EloRating;
+import boardgame.rating.Leaderboard;
+import boardgame.rating.Leaderboard.Standing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the scoreboard queries on a large leaderboard: fetching one page of ranks, one page of a name
+ * search, a rating update, and, for comparison, fetching the whole leaderboard as the scoreboard did before paging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LeaderboardBenchmark {
+
+    private static final int NAME_LENGTH = 8;
+
+    @Param("1000000")
+    private int players;
+
+    @Param({"25", "100", "1000"})
+    private int pageSize;
+
+    private Leaderboard leaderboard;
+    private String[] names;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    /**
+     * Fills the leaderboard with players of random names and ratings.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        leaderboard = new Leaderboard();
+        names = new String[players];
+        for (var i = 0; i < players; i++) {
+            var name = new StringBuilder(NAME_LENGTH);
+            for (var j = 0; j < NAME_LENGTH; j++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+            names[i] = name.toString();
+            leaderboard.update(names[i], EloRating.INITIAL_RATING + random.nextInt(-500, 1500));
+        }
+    }
+
+    /**
+     * Fetches the page of a random range of ranks.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public List<Standing> rankPage() {
+        return leaderboard.page(random.nextInt(leaderboard.size() - pageSize), pageSize);
+    }
+
+    /**
+     * Fetches the first page of the players whose name starts with a random two-letter prefix,
+     * about 1500 players at a million.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public List<Standing> searchPage() {
+        return leaderboard.search(names[random.nextInt(players)].substring(0, 2), 0, pageSize);
+    }
+
+    /**
+     * Counts the players matching a random two-letter prefix, the number of pages of a search.
+     *
+     * @return the number of matching players
+     */
+    @Benchmark
+    public int countMatches() {
+        return leaderboard.countMatches(names[random.nextInt(players)].substring(0, 2));
+    }
+
+    /**
+     * Changes the rating of a random player.
+     */
+    @Benchmark
+    public void update() {
+        leaderboard.update(names[random.nextInt(players)], EloRating.INITIAL_RATING + random.nextInt(-500, 1500));
+    }
+
+    /**
+     * Fetches the whole leaderboard at once.
+     *
+     * @return the leaderboard
+     */
+    @Benchmark
+    public List<Standing> wholeLeaderboard() {
+        return leaderboard.page(0, leaderboard.size());
+    }
+}
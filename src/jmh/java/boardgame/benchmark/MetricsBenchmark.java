@@ -0,0 +1,102 @@
+package boardgame.benchmark;
+
+import boardgame.metrics.GameMetrics;
+import boardgame.metrics.MoveEvent;
+import boardgame.model.BitboardState;
+import boardgame.model.BoardGameModel;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Position;
+import boardgame.model.Turn;
+import game.TwoPhaseMoveState;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the cost of the metrics on the moves of the {@link BoardGameModel}: {@code off} collects nothing,
+ * {@code jmx} enables {@link GameMetrics}, {@code jfr} records the {@link MoveEvent}s in a Flight Recorder recording.
+ * Every first move of the turns of the midgame position is made, checked for the end of the game and taken back.
+ * The scores are for all the moves of the position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"off", "jmx", "jfr"})
+    private String metrics;
+
+    private BoardGameModel model;
+    private TwoPhaseMoveState.TwoPhaseMove<Position>[] moves;
+    private Recording recording;
+
+    /**
+     * Enables the metrics, before their classes are loaded, and picks the moves.
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        if (metrics.equals("jmx")) {
+            System.setProperty(GameMetrics.PROPERTY, "true");
+        } else if (metrics.equals("jfr")) {
+            recording = new Recording();
+            recording.enable(MoveEvent.class);
+            recording.setToDisk(false);
+            recording.setMaxSize(1 << 20);
+            recording.start();
+        }
+        var state = Positions.of("midgame");
+        model = new BoardGameModel(state);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var count = MoveGenerator.generate(state, turns);
+        moves = new TwoPhaseMoveState.TwoPhaseMove[count];
+        for (var i = 0; i < count; i++) {
+            moves[i] = new TwoPhaseMoveState.TwoPhaseMove<>(BitboardState.positionOf(Turn.firstFrom(turns[i])),
+                    BitboardState.positionOf(Turn.firstTo(turns[i])));
+        }
+    }
+
+    /**
+     * Stops the recording.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Makes every move, checks the end of the game and takes the move back.
+     *
+     * @return the number of moves ending the game
+     */
+    @Benchmark
+    public int makeMove() {
+        var gameOver = 0;
+        for (var move : moves) {
+            model.makeMove(move);
+            if (model.isGameOver()) {
+                gameOver++;
+            }
+            model.undo();
+        }
+        return gameOver;
+    }
+}
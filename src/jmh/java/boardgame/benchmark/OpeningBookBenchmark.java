@@ -0,0 +1,123 @@
+package boardgame.benchmark;
+
+import boardgame.ai.OpeningBook;
+import boardgame.ai.OpeningBookBuilder;
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the opening book lookups of the computer player and the move hint: the best turn of the starting
+ * position, of positions a few turns deep, and of a position the book does not have.
+ * The book is built from random self-play games, every turn played at least once is kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class OpeningBookBenchmark {
+
+    private static final int DEPTH = 10;
+    private static final int POSITIONS = 1024;
+
+    @Param("200000")
+    private int games;
+
+    private Path dir;
+    private OpeningBook book;
+    private final BitboardState start = new BitboardState();
+    private final BitboardState[] positions = new BitboardState[POSITIONS];
+    private BitboardState outOfBook;
+    private int next;
+
+    /**
+     * Builds the book and picks the positions.
+     *
+     * @throws IOException if the book cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("openings");
+        var file = dir.resolve("openings.bin");
+        var builder = new OpeningBookBuilder(DEPTH);
+        builder.addSelfPlay(games, new SplittableRandom(42));
+        builder.write(file, 1);
+        book = OpeningBook.open(file);
+        var random = new SplittableRandom(7);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        for (var i = 0; i < POSITIONS; i++) {
+            var state = new BitboardState();
+            var depth = 1 + random.nextInt(4);
+            for (var turn = 0; turn < depth; turn++) {
+                state.makeTurn(book.bestTurn(state));
+            }
+            positions[i] = state;
+        }
+        outOfBook = new BitboardState();
+        while (book.bestTurn(outOfBook) != BitboardState.NO_SQUARE || outOfBook.getHistorySize() == 0) {
+            outOfBook.makeTurn(turns[random.nextInt(MoveGenerator.generate(outOfBook, turns))]);
+        }
+    }
+
+    /**
+     * Deletes the book.
+     *
+     * @throws IOException if the book cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        book.close();
+        Files.deleteIfExists(dir.resolve("openings.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Chooses the turn of the starting position, which has every turn of the first player.
+     *
+     * @return the turn
+     */
+    @Benchmark
+    public int bestTurnAtStart() {
+        return book.bestTurn(start);
+    }
+
+    /**
+     * Chooses the turn of a position one to four turns deep.
+     *
+     * @return the turn
+     */
+    @Benchmark
+    public int bestTurnInBook() {
+        return book.bestTurn(positions[next++ & POSITIONS - 1]);
+    }
+
+    /**
+     * Looks up a position that is not in the book.
+     *
+     * @return {@link BitboardState#NO_SQUARE}
+     */
+    @Benchmark
+    public int bestTurnOutOfBook() {
+        return book.bestTurn(outOfBook);
+    }
+}
@@ -0,0 +1,150 @@
+package boardgame.benchmark;
+
+import boardgame.model.PlayerDataHandler.PlayerData;
+import boardgame.model.PlayerFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the player file in JSON and in Smile: the streaming reads and writes of {@link PlayerFile},
+ * and, for comparison, reading and writing the whole list with an {@link ObjectMapper} as the player file
+ * was handled before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerFileBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    private PlayerFile.Format format;
+
+    @Param("100000")
+    private int players;
+
+    private Path dir;
+    private PlayerFile file;
+    private List<PlayerData> list;
+    private ObjectMapper mapper;
+    private int rating;
+
+    /**
+     * Writes the player file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("players");
+        file = new PlayerFile(dir.resolve("players" + format.getExtension()), format);
+        list = new ArrayList<>(players);
+        for (var i = 0; i < players; i++) {
+            list.add(new PlayerData("Player " + i, 1000 + i % 1000));
+        }
+        file.write(list);
+        mapper = format == PlayerFile.Format.SMILE ? new ObjectMapper(new SmileFactory())
+                : new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Deletes the player file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.getFile());
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Reads every player, one at a time.
+     *
+     * @return the sum of the ratings
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public long streamRead() throws IOException {
+        var sum = new long[1];
+        file.forEach(player -> sum[0] += player.getEloPoint());
+        return sum[0];
+    }
+
+    /**
+     * Finds the last player of the file, the longest scan.
+     *
+     * @return the player
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public PlayerData streamFind() throws IOException {
+        return file.find("Player " + (players - 1)).orElseThrow();
+    }
+
+    /**
+     * Replaces the file with the players.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Benchmark
+    public void streamWrite() throws IOException {
+        file.write(list);
+    }
+
+    /**
+     * Changes the rating of the player in the middle of the file.
+     *
+     * @return whether the player was found
+     * @throws IOException if the file cannot be read or written
+     */
+    @Benchmark
+    public boolean streamUpdate() throws IOException {
+        return file.update("Player " + players / 2, 1000 + rating++ % 1000);
+    }
+
+    /**
+     * Reads the whole list of players with data binding.
+     *
+     * @return the players
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public List<PlayerData> databindRead() throws IOException {
+        return mapper.readValue(file.getFile().toFile(), new TypeReference<>() {});
+    }
+
+    /**
+     * Writes the whole list of players with data binding, to a byte array as the player file was written before.
+     *
+     * @return the encoded players
+     * @throws IOException if the players cannot be encoded
+     */
+    @Benchmark
+    public byte[] databindWrite() throws IOException {
+        return mapper.writeValueAsBytes(list);
+    }
+}
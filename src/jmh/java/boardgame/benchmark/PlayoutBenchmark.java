@@ -0,0 +1,70 @@
+package boardgame.benchmark;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of random playouts: uniformly random turns until the game ends or reaches the turn limit,
+ * then all moves are taken back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayoutBenchmark {
+
+    private static final int TURN_LIMIT = 200;
+
+    @Param({"opening", "midgame", "endgame"})
+    private String position;
+
+    private BitboardState state;
+    private final int[] turns = new int[MoveGenerator.MAX_TURNS];
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    /**
+     * Sets up the position.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        state = Positions.of(position);
+    }
+
+    /**
+     * Plays a random game from the position.
+     *
+     * @return the number of moves played
+     */
+    @Benchmark
+    public int playout() {
+        for (var turn = 0; turn < TURN_LIMIT && !state.isGameOver(); turn++) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                break;
+            }
+            state.makeTurn(turns[random.nextInt(count)]);
+        }
+        var moves = state.getHistorySize();
+        while (state.unmakeMove()) {
+            // back to the position of the benchmark
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,41 @@
+package boardgame.benchmark;
+
+import boardgame.model.BitboardState;
+import game.State;
+
+/**
+ * The positions of the benchmarks, all with the first player to move.
+ */
+final class Positions {
+
+    static final String OPENING = new BitboardState().toString();
+
+    static final String MIDGAME = """
+            0 2 0 2 2
+            0 3 0 3 0
+            1 2 0 2 0
+            1 3 0 3 1
+            0 1 0 1 0
+            """;
+
+    static final String ENDGAME = """
+            0 0 0 0 0
+            0 3 1 3 0
+            0 1 2 1 2
+            0 3 1 3 2
+            2 0 0 1 2
+            """;
+
+    private Positions() {
+    }
+
+    static BitboardState of(String name) {
+        var board = switch (name) {
+            case "opening" -> OPENING;
+            case "midgame" -> MIDGAME;
+            case "endgame" -> ENDGAME;
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+        return BitboardState.fromString(board, State.Player.PLAYER_1);
+    }
+}
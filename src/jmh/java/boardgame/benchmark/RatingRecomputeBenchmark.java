@@ -0,0 +1,116 @@
+package boardgame.benchmark;
+
+import boardgame.rating.EloRating;
+import boardgame.rating.GameResult;
+import boardgame.rating.GameResultLog;
+import boardgame.rating.RatingRecompute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of recomputing every rating from a large log of game results: only reading the log,
+ * the sequential and the parallel recompute. The players of the results are uniformly random.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RatingRecomputeBenchmark {
+
+    @Param("1000000")
+    private int results;
+
+    @Param({"300", "100000"})
+    private int players;
+
+    private Path dir;
+    private GameResultLog log;
+    private final EloRating elo = new EloRating();
+
+    /**
+     * Fills the log.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("results");
+        log = new GameResultLog(dir.resolve("results.log"));
+        var random = new SplittableRandom(42);
+        var batch = new ArrayList<GameResult>();
+        for (var i = 0; i < results; i++) {
+            batch.add(new GameResult(i, "Player " + random.nextInt(players), "Player " + random.nextInt(players)));
+            if (batch.size() == 10_000) {
+                log.append(batch, false);
+                batch.clear();
+            }
+        }
+        log.append(batch, false);
+    }
+
+    /**
+     * Deletes the log.
+     *
+     * @throws IOException if the log cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(log.getFile());
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Reads every result without rating it.
+     *
+     * @return the number of results
+     * @throws IOException if the log cannot be read
+     */
+    @Benchmark
+    public long read() throws IOException {
+        return log.forEach(result -> {
+        });
+    }
+
+    /**
+     * Recomputes the ratings in one pass.
+     *
+     * @return the ratings
+     * @throws IOException if the log cannot be read
+     */
+    @Benchmark
+    public Map<String, Integer> sequential() throws IOException {
+        return RatingRecompute.sequential(log, elo);
+    }
+
+    /**
+     * Recomputes the ratings in parallel.
+     *
+     * @return the ratings
+     * @throws IOException if the log cannot be read
+     */
+    @Benchmark
+    public Map<String, Integer> parallel() throws IOException {
+        return RatingRecompute.parallel(log, elo);
+    }
+}
@@ -0,0 +1,147 @@
+package boardgame.benchmark;
+
+import boardgame.model.BitboardState;
+import boardgame.model.BoardGameModel;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Position;
+import game.TwoPhaseMoveState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the rule checks on opening, midgame and endgame positions.
+ * Every benchmark works on all moves or all turns of the position, so the scores are comparable
+ * between changes of the rules engine but not between positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param({"opening", "midgame", "endgame"})
+    private String position;
+
+    private BitboardState state;
+    private BoardGameModel model;
+    private int[] turns;
+    private int turnCount;
+    private TwoPhaseMoveState.TwoPhaseMove<Position>[] kingMoves;
+
+    /**
+     * Sets up the position, its turns and the king moves of every square.
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        state = Positions.of(position);
+        model = new BoardGameModel(state);
+        turns = new int[MoveGenerator.MAX_TURNS];
+        turnCount = MoveGenerator.generate(state, turns);
+        kingMoves = new TwoPhaseMoveState.TwoPhaseMove[BitboardState.SQUARE_COUNT * BitboardState.DIRECTION_COUNT];
+        var count = 0;
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            for (var col = 0; col < BitboardState.BOARD_SIZE; col++) {
+                for (var rowStep = -1; rowStep <= 1; rowStep++) {
+                    for (var colStep = -1; colStep <= 1; colStep++) {
+                        if (rowStep != 0 || colStep != 0) {
+                            kingMoves[count++] = new TwoPhaseMoveState.TwoPhaseMove<>(new Position(row, col),
+                                    new Position(row + rowStep, col + colStep));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks every pair of squares with the bitboard rules.
+     *
+     * @return the number of legal moves
+     */
+    @Benchmark
+    public int isLegalMove() {
+        var legal = 0;
+        for (var from = 0; from < BitboardState.SQUARE_COUNT; from++) {
+            for (var to = 0; to < BitboardState.SQUARE_COUNT; to++) {
+                if (state.isLegalMove(from, to)) {
+                    legal++;
+                }
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Checks every king move of the board, including the ones leaving the board, through the {@link BoardGameModel} API used by the user interface.
+     *
+     * @return the number of legal moves
+     */
+    @Benchmark
+    public int modelIsLegalMove() {
+        var legal = 0;
+        for (var move : kingMoves) {
+            if (model.isLegalMove(move)) {
+                legal++;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Makes and takes back every full turn of the position.
+     *
+     * @param blackhole consumes the hash of the positions
+     */
+    @Benchmark
+    public void makeTurn(Blackhole blackhole) {
+        for (var i = 0; i < turnCount; i++) {
+            state.makeTurn(turns[i]);
+            blackhole.consume(state.getHash());
+            state.unmakeTurn();
+        }
+    }
+
+    /**
+     * Checks the end of the game after every full turn of the position.
+     *
+     * @return the number of turns ending the game
+     */
+    @Benchmark
+    public int isGameOver() {
+        var gameOver = 0;
+        for (var i = 0; i < turnCount; i++) {
+            state.makeTurn(turns[i]);
+            if (state.isGameOver()) {
+                gameOver++;
+            }
+            state.unmakeTurn();
+        }
+        return gameOver;
+    }
+
+    /**
+     * Lists the turns of the position.
+     *
+     * @return the number of turns
+     */
+    @Benchmark
+    public int generateTurns() {
+        return MoveGenerator.generate(state, turns);
+    }
+}
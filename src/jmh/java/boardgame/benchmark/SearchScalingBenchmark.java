@@ -0,0 +1,90 @@
+package boardgame.benchmark;
+
+import boardgame.ai.DistanceEvaluator;
+import boardgame.ai.ParallelSearch;
+import boardgame.ai.SearchResult;
+import boardgame.ai.TranspositionTable;
+import boardgame.model.BitboardState;
+import game.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Measures how {@link ParallelSearch} scales with the number of threads.
+ * Every fixed test position is searched to the same depth with 1, 2, 4, 8 and N threads,
+ * where N is the number of available processors, and the time to depth is compared to the single thread run.
+ * A single thread run before the measurements warms up the JIT compiler.
+ * Usage: {@code SearchScalingBenchmark [depth] [maxThreads]}.
+ */
+public class SearchScalingBenchmark {
+
+    private static final List<String> POSITIONS = List.of(
+            new BitboardState().toString(),
+            """
+            2 0 2 2 2
+            0 3 0 3 0
+            0 0 0 2 0
+            0 3 1 3 1
+            1 1 0 1 0
+            """,
+            """
+            0 2 0 2 2
+            0 3 0 3 0
+            1 2 0 2 0
+            1 3 0 3 1
+            0 1 0 1 0
+            """,
+            """
+            0 2 2 0 0
+            2 3 0 3 2
+            0 0 0 2 1
+            1 3 1 3 0
+            0 0 1 0 1
+            """);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the search depth (default 12) and the maximum number of threads (default all processors)
+     */
+    public static void main(String[] args) {
+        var depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        var maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        var threadCounts = new TreeSet<Integer>();
+        for (var threads = 1; threads <= Math.min(8, maxThreads); threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        run(depth, 1);
+
+        System.out.printf("%-8s %12s %14s %12s %8s%n", "threads", "time (ms)", "nodes", "nodes/s", "speedup");
+        var baseline = 0L;
+        for (var threads : threadCounts) {
+            var total = run(depth, threads);
+            var nanos = total.nanos();
+            var nodes = total.nodes();
+            if (baseline == 0) {
+                baseline = nanos;
+            }
+            System.out.printf("%-8d %12d %14d %12d %8.2f%n", threads, nanos / 1_000_000, nodes,
+                    total.nodesPerSecond(), (double) baseline / nanos);
+        }
+    }
+
+    private static SearchResult run(int depth, int threads) {
+        var nanos = 0L;
+        var nodes = 0L;
+        for (var position : POSITIONS) {
+            try (var search = new ParallelSearch(Duration.ofDays(1), depth, threads,
+                    new TranspositionTable(22), new DistanceEvaluator())) {
+                var result = search.search(BitboardState.fromString(position, State.Player.PLAYER_1));
+                nanos += result.nanos();
+                nodes += result.nodes();
+            }
+        }
+        return new SearchResult(BitboardState.NO_SQUARE, 0, depth, nodes, nanos);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * The package for the JMH benchmarks of the rules engine, the leaderboard, the evaluation, the player file,
+ * the game archive, the opening book and the rating recompute.
+ * The benchmarks are compiled and run by the {@code benchmark} profile:
+ * {@code mvn -P benchmark compile exec:exec}, which writes {@code target/jmh-result.json}
+ * with the throughput and the allocation rate of every benchmark.
+ * {@link boardgame.benchmark.BaselineComparison} compares the results to {@code src/jmh/baseline.json}.
+ * {@link boardgame.benchmark.SearchScalingBenchmark} is run by its main method, it measures how the parallel search
+ * scales with the number of threads.
+ */
+package boardgame.benchmark;
@@ -0,0 +1,237 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+
+/**
+ * Computer player using iterative deepening alpha-beta search with a transposition table.
+ * One ply of the search is a full turn of the two phase game.
+ * The search stops after the time budget of the move is spent, and plays the best turn
+ * of the last completed iteration.
+ */
+public class AlphaBetaSearch implements MoveStrategy {
+
+    /**
+     * Score of a won position, reduced by the number of plies it takes to win.
+     */
+    public static final int WIN_SCORE = 30_000;
+
+    /**
+     * Maximum search depth in full turns.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+
+    private static final int WIN_THRESHOLD = WIN_SCORE - 2 * MAX_DEPTH;
+
+    private static final int CHECK_TIME_NODES = 1023;
+
+    private final Duration timeBudget;
+    private final int maxDepth;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+
+    private final int[] turns = new int[(MAX_DEPTH + 1) * MoveGenerator.MAX_TURNS];
+
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean aborted;
+    private int rootBestTurn;
+
+    private SearchResult lastResult;
+
+    /**
+     * Creates a search with a 1 million entry transposition table and the {@link DistanceEvaluator}.
+     *
+     * @param timeBudget the time to spend on one move
+     */
+    public AlphaBetaSearch(Duration timeBudget) {
+        this(timeBudget, MAX_DEPTH, new TranspositionTable(20), new DistanceEvaluator());
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param timeBudget the time to spend on one move
+     * @param maxDepth the maximum depth of the iterative deepening, in full turns
+     * @param table the transposition table, it can be shared with other searches
+     * @param evaluator the evaluation of the positions at the end of the search
+     */
+    public AlphaBetaSearch(Duration timeBudget, int maxDepth, TranspositionTable table, Evaluator evaluator) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth out of range: " + maxDepth);
+        }
+        this.timeBudget = timeBudget;
+        this.maxDepth = maxDepth;
+        this.table = table;
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public int chooseTurn(BitboardState state) {
+        lastResult = search(state);
+        Logger.info("Computer move: {}", lastResult);
+        return lastResult.turn();
+    }
+
+    /**
+     * Get the result of the last search.
+     *
+     * @return the last result, or {@code null} if no search was made yet
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Searches the best turn by iterative deepening, until the time budget or the maximum depth is reached.
+     *
+     * @param state the state of the game, at the start of a turn
+     * @return the best turn of the last completed iteration with the statistics of the search
+     */
+    public SearchResult search(BitboardState state) {
+        aborted = false;
+        return search(state, 1);
+    }
+
+    /**
+     * Searches the best turn by iterative deepening, starting at the given depth.
+     * The search can be aborted by {@link #abort()} from another thread.
+     *
+     * @param state the state of the game, at the start of a turn
+     * @param startDepth the depth of the first iteration
+     * @return the best turn of the last completed iteration with the statistics of the search
+     */
+    SearchResult search(BitboardState state, int startDepth) {
+        var start = System.nanoTime();
+        deadline = start + timeBudget.toNanos();
+        nodes = 0;
+        stopped = false;
+        var count = MoveGenerator.generate(state, turns, 0);
+        var bestTurn = count > 0 ? turns[0] : BitboardState.NO_SQUARE;
+        var bestScore = count > 0 ? 0 : -WIN_SCORE;
+        var completedDepth = 0;
+        for (var depth = Math.min(startDepth, maxDepth); depth <= maxDepth && count > 1; depth++) {
+            var score = search(state, depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestScore = score;
+            bestTurn = rootBestTurn;
+            completedDepth = depth;
+            if (Math.abs(score) > WIN_THRESHOLD) {
+                break;
+            }
+        }
+        return new SearchResult(bestTurn, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Makes a running search stop at its next time check.
+     */
+    void abort() {
+        aborted = true;
+    }
+
+    /**
+     * Clears the abort request of the previous search.
+     */
+    void resetAbort() {
+        aborted = false;
+    }
+
+    private int search(BitboardState state, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_TIME_NODES) == 0 && (aborted || System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        var key = state.getHash();
+        var entry = table.probe(key);
+        var hashTurn = BitboardState.NO_SQUARE;
+        if (entry != 0) {
+            hashTurn = TranspositionTable.turn(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                var score = fromTable(TranspositionTable.score(entry), ply);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT -> {
+                        return score;
+                    }
+                    case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, score);
+                    default -> beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+        if (depth == 0) {
+            return evaluator.evaluate(state);
+        }
+        var offset = ply * MoveGenerator.MAX_TURNS;
+        var count = MoveGenerator.generate(state, turns, offset);
+        if (count == 0) {
+            return -(WIN_SCORE - ply);
+        }
+        orderHashTurnFirst(offset, count, hashTurn);
+        var originalAlpha = alpha;
+        var bestScore = -INFINITY;
+        var bestTurn = turns[offset];
+        var player = state.getNextPlayer();
+        for (var i = offset; i < offset + count; i++) {
+            var turn = turns[i];
+            state.makeTurn(turn);
+            int score;
+            if (state.isGameOver()) {
+                score = state.getWinner() == player ? WIN_SCORE - ply - 1 : -(WIN_SCORE - ply - 1);
+            } else {
+                score = -search(state, depth - 1, -beta, -alpha, ply + 1);
+            }
+            state.unmakeTurn();
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestTurn = turn;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        if (ply == 0) {
+            rootBestTurn = bestTurn;
+        }
+        var bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, depth, toTable(bestScore, ply), bound, bestTurn);
+        return bestScore;
+    }
+
+    private void orderHashTurnFirst(int offset, int count, int hashTurn) {
+        for (var i = offset; i < offset + count; i++) {
+            if (turns[i] == hashTurn) {
+                turns[i] = turns[offset];
+                turns[offset] = hashTurn;
+                return;
+            }
+        }
+    }
+
+    private static int toTable(int score, int ply) {
+        return score > WIN_THRESHOLD ? score + ply : score < -WIN_THRESHOLD ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score > WIN_THRESHOLD ? score - ply : score < -WIN_THRESHOLD ? score + ply : score;
+    }
+}
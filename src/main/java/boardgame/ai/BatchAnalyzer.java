@@ -0,0 +1,200 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import game.State;
+import org.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline analysis of positions: reads boards in the format of {@link BitboardState#toString()}
+ * and writes one line per board with its number, the status of the game, the number of legal turns,
+ * the best turn found by an {@link AlphaBetaSearch} of fixed depth and its score, separated by tabs,
+ * e.g. {@code 1 IN_PROGRESS 36 (4,0)->(3,0) (4,2)->(3,2) 2}. A board that cannot be read
+ * gets {@code ERROR} and the reason instead. Blank lines and lines starting with {@code #} are skipped.
+ * <p>
+ * The boards are searched by a fixed pool of worker threads on a bounded queue, while the reading thread
+ * writes the results in the order of the input. At most a few boards per worker are read ahead:
+ * when the queue is full, the reader waits for the oldest board, so the memory does not grow with the input
+ * and a slow output slows down the reading.
+ * Usage: {@code BatchAnalyzer [file, or - for the standard input] [depth] [threads] [next player]}.
+ */
+public class BatchAnalyzer {
+
+    /**
+     * The default depth of the search, in full turns.
+     */
+    public static final int DEFAULT_DEPTH = 3;
+
+    /**
+     * The number of boards read ahead per worker thread.
+     */
+    private static final int QUEUE_PER_THREAD = 4;
+
+    /**
+     * The bits of the transposition table of a worker. It is cleared before every board, so the results
+     * do not depend on the boards searched before by the same worker, and it is small to be cleared fast.
+     */
+    private static final int TABLE_BITS = 12;
+
+    private final int depth;
+    private final int threads;
+    private final State.Player nextPlayer;
+
+    /**
+     * Creates an analyzer.
+     *
+     * @param depth the depth of the search, in full turns
+     * @param threads the number of worker threads
+     * @param nextPlayer the player to move next in the boards, which their text does not tell
+     */
+    public BatchAnalyzer(int depth, int threads, State.Player nextPlayer) {
+        if (depth < 1 || depth > AlphaBetaSearch.MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth out of range: " + depth);
+        }
+        this.depth = depth;
+        this.threads = threads;
+        this.nextPlayer = nextPlayer;
+    }
+
+    /**
+     * Analyses the boards of a file or the standard input and writes the results to the standard output.
+     *
+     * @param args the file (default the standard input), the depth (default {@value #DEFAULT_DEPTH}),
+     *             the number of threads (default all processors) and the next player (default {@code PLAYER_1})
+     * @throws IOException if the input cannot be read
+     * @throws InterruptedException if the analysis is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var file = args.length > 0 ? args[0] : "-";
+        var depth = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEPTH;
+        var threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        var player = args.length > 3 ? State.Player.valueOf(args[3]) : State.Player.PLAYER_1;
+        var analyzer = new BatchAnalyzer(depth, threads, player);
+        var start = System.nanoTime();
+        long count;
+        try (var in = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file));
+             var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            count = analyzer.analyse(in, out);
+        }
+        var nanos = System.nanoTime() - start;
+        Logger.info("Analysed {} boards in {} ms ({} boards/s)", count, nanos / 1_000_000,
+                nanos == 0 ? 0 : count * 1_000_000_000L / nanos);
+    }
+
+    /**
+     * Analyses the boards of a reader.
+     *
+     * @param in the boards
+     * @param out the results, one line per board in the order of the input
+     * @return the number of boards
+     * @throws IOException if the boards cannot be read or the results cannot be written
+     * @throws InterruptedException if the analysis is interrupted
+     */
+    public long analyse(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        var capacity = threads * QUEUE_PER_THREAD;
+        var executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity));
+        var workers = ThreadLocal.withInitial(Worker::new);
+        var pending = new ArrayDeque<Future<String>>(capacity);
+        var count = 0L;
+        try {
+            var board = new StringBuilder();
+            var squares = 0;
+            for (var line = in.readLine(); line != null; line = in.readLine()) {
+                var row = line.strip();
+                if (row.isEmpty() || row.startsWith("#")) {
+                    continue;
+                }
+                board.append(row).append('\n');
+                squares += countWords(row);
+                if (squares >= BitboardState.SQUARE_COUNT) {
+                    if (pending.size() == capacity) {
+                        write(pending.poll(), out);
+                    }
+                    var number = ++count;
+                    var text = board.toString();
+                    pending.add(executor.submit(() -> workers.get().analyse(number, text)));
+                    board.setLength(0);
+                    squares = 0;
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), out);
+            }
+            if (squares > 0) {
+                out.write(++count + "\tERROR\tIncomplete board" + System.lineSeparator());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        out.flush();
+        return count;
+    }
+
+    private static int countWords(String row) {
+        var words = 0;
+        for (var i = 0; i < row.length(); i++) {
+            if (!Character.isWhitespace(row.charAt(i)) && (i == 0 || Character.isWhitespace(row.charAt(i - 1)))) {
+                words++;
+            }
+        }
+        return words;
+    }
+
+    private static void write(Future<String> result, Writer out) throws IOException, InterruptedException {
+        try {
+            out.write(result.get());
+            out.write(System.lineSeparator());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The search of a worker thread.
+     */
+    private class Worker {
+
+        private final TranspositionTable table = new TranspositionTable(TABLE_BITS);
+        private final AlphaBetaSearch search = new AlphaBetaSearch(Duration.ofDays(1), depth, table,
+                new DistanceEvaluator());
+        private final int[] turns = new int[MoveGenerator.MAX_TURNS];
+
+        String analyse(long number, String board) {
+            BitboardState state;
+            try {
+                state = BitboardState.fromString(board, nextPlayer);
+            } catch (IllegalArgumentException e) {
+                return number + "\tERROR\t" + e.getMessage().replace('\n', ' ');
+            }
+            var count = state.isGameOver() ? 0 : MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                return number + "\t" + state.getStatus() + "\t0\t-\t-";
+            }
+            table.clear();
+            var result = search.search(state);
+            return number + "\t" + state.getStatus() + "\t" + count + "\t" + Turn.toString(result.turn())
+                    + "\t" + result.score();
+        }
+    }
+}
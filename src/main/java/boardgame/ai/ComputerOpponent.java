@@ -0,0 +1,80 @@
+package boardgame.ai;
+
+import boardgame.model.BoardGameModel;
+import boardgame.model.BitboardState;
+import boardgame.model.Position;
+import game.TwoPhaseMoveState;
+
+/**
+ * Plugs a {@link MoveStrategy} into game loops driven by human moves, such as
+ * {@link game.console.TwoPhaseMoveGame}. It forwards every move to the model,
+ * and after a completed human turn it lets the strategy play the turn of the computer.
+ */
+public final class ComputerOpponent implements TwoPhaseMoveState<Position> {
+
+    private final BoardGameModel model;
+    private final MoveStrategy strategy;
+    private final Player computer;
+
+    /**
+     * Creates a computer opponent.
+     *
+     * @param model the model of the game
+     * @param strategy the strategy choosing the turns of the computer
+     * @param computer the player controlled by the computer
+     */
+    public ComputerOpponent(BoardGameModel model, MoveStrategy strategy, Player computer) {
+        this.model = model;
+        this.strategy = strategy;
+        this.computer = computer;
+        playComputerTurn();
+    }
+
+    /**
+     * Plays the turn of the computer, if it is the next player and the game is not over.
+     */
+    public void playComputerTurn() {
+        if (!model.isGameOver() && model.getNextPlayer() == computer) {
+            var turn = strategy.chooseTurn(model.copyState());
+            if (turn != BitboardState.NO_SQUARE) {
+                model.makeTurn(turn);
+            }
+        }
+    }
+
+    @Override
+    public boolean isLegalToMoveFrom(Position from) {
+        return model.isLegalToMoveFrom(from);
+    }
+
+    @Override
+    public boolean isLegalMove(TwoPhaseMove<Position> move) {
+        return model.isLegalMove(move);
+    }
+
+    @Override
+    public void makeMove(TwoPhaseMove<Position> move) {
+        model.makeMove(move);
+        playComputerTurn();
+    }
+
+    @Override
+    public Player getNextPlayer() {
+        return model.getNextPlayer();
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return model.isGameOver();
+    }
+
+    @Override
+    public Status getStatus() {
+        return model.getStatus();
+    }
+
+    @Override
+    public String toString() {
+        return model.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import game.State;
+
+/**
+ * Scores a position by how far the disks of each player have advanced towards the opponent's side.
+ */
+public class DistanceEvaluator implements Evaluator {
+
+    private static final int[] ROW_MASK = new int[BitboardState.BOARD_SIZE];
+
+    static {
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            ROW_MASK[row] = ((1 << BitboardState.BOARD_SIZE) - 1) << row * BitboardState.BOARD_SIZE;
+        }
+    }
+
+    @Override
+    public int evaluate(BitboardState state) {
+        var player = state.getNextPlayer();
+        return progress(state, player) - progress(state, player.opponent());
+    }
+
+    private static int progress(BitboardState state, State.Player player) {
+        var disks = state.getDisks(player);
+        var sum = 0;
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            var steps = player == State.Player.PLAYER_1 ? BitboardState.BOARD_SIZE - 1 - row : row;
+            sum += Integer.bitCount(disks & ROW_MASK[row]) * steps;
+        }
+        return sum * 10;
+    }
+}
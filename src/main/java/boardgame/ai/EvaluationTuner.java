@@ -0,0 +1,240 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.sim.Policy;
+import boardgame.sim.SelfPlaySimulator;
+import game.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Offline tuner of the weights of {@link WeightedEvaluator}, by the Texel method.
+ * The positions of self-play games are labelled with the result of their game from the point of view
+ * of the next player: 1 for a win, 0 for a loss and 1/2 for a game stopped at the turn limit.
+ * The evaluation is mapped to an expected result by the logistic function {@code 1 / (1 + exp(-k * score))},
+ * the scale {@code k} is fitted first, then the weights are changed one at a time by one step
+ * while the mean squared error of the expected results decreases.
+ * The games are played and the error is summed in parallel.
+ * Usage: {@code EvaluationTuner [games] [threads] [seed]}.
+ */
+public class EvaluationTuner {
+
+    /**
+     * The number of turns at the start of every game whose positions are not used.
+     */
+    private static final int SKIPPED_TURNS = 2;
+
+    /**
+     * The maximum number of passes over the weights, a pass changes every weight by at most one.
+     */
+    private static final int MAX_PASSES = 1000;
+
+    private static final int F = WeightedEvaluator.FEATURE_COUNT;
+
+    private final int[] features;
+    private final byte[] results;
+    private final int size;
+
+    /**
+     * Creates a tuner of labelled positions.
+     *
+     * @param features the features of the positions, {@link WeightedEvaluator#FEATURE_COUNT} per position
+     * @param results the results of the positions for the next player: 2 for a win, 1 for a draw, 0 for a loss
+     * @throws IllegalArgumentException if the number of features does not match the number of results
+     */
+    public EvaluationTuner(int[] features, byte[] results) {
+        if (features.length != results.length * F) {
+            throw new IllegalArgumentException("Expected " + F + " features per position");
+        }
+        this.features = features;
+        this.results = results;
+        size = results.length;
+    }
+
+    /**
+     * Runs the tuner, starting from the default weights.
+     *
+     * @param args the number of games (default 20000), the number of threads (default all processors)
+     *             and the seed (default random)
+     * @throws InterruptedException if the tuner is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        var games = args.length > 0 ? Long.parseLong(args[0]) : 20_000;
+        var threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        var tuner = selfPlay(games, threads, seed);
+        var weights = WeightedEvaluator.getDefaultWeights();
+        var scale = tuner.fitScale(weights);
+        System.out.printf("%d positions, scale %.5f, error %.6f with %s%n", tuner.size(), scale,
+                tuner.error(weights, scale), Arrays.toString(weights));
+        weights = tuner.tune(weights, scale);
+        System.out.printf("error %.6f with %s%n", tuner.error(weights, scale), Arrays.toString(weights));
+    }
+
+    /**
+     * Plays games between greedy players, see {@link Policy#GREEDY}, and labels their positions.
+     *
+     * @param games the number of games
+     * @param threads the number of worker threads
+     * @param seed the seed of the random generators
+     * @return the tuner of the positions
+     * @throws InterruptedException if the games are interrupted
+     */
+    public static EvaluationTuner selfPlay(long games, int threads, long seed) throws InterruptedException {
+        var random = new SplittableRandom(seed);
+        var parts = new ArrayList<EvaluationTuner>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<EvaluationTuner>>();
+            for (var i = 0; i < threads; i++) {
+                var workerGames = games / threads + (i < games % threads ? 1 : 0);
+                var workerRandom = random.split();
+                futures.add(executor.submit(() -> play(workerGames, workerRandom)));
+            }
+            for (var future : futures) {
+                parts.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        var size = parts.stream().mapToInt(EvaluationTuner::size).sum();
+        var features = new int[size * F];
+        var results = new byte[size];
+        var position = 0;
+        for (var part : parts) {
+            System.arraycopy(part.features, 0, features, position * F, part.size * F);
+            System.arraycopy(part.results, 0, results, position, part.size);
+            position += part.size;
+        }
+        return new EvaluationTuner(features, results);
+    }
+
+    private static EvaluationTuner play(long games, SplittableRandom random) {
+        var features = new int[1024 * F];
+        var results = new byte[1024];
+        var players = new State.Player[SelfPlaySimulator.DEFAULT_TURN_LIMIT];
+        var sample = new int[F];
+        var size = 0;
+        var initial = new BitboardState();
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        for (var game = 0L; game < games; game++) {
+            state.setPosition(initial.getDisks(State.Player.PLAYER_1), initial.getDisks(State.Player.PLAYER_2),
+                    initial.getObstacles(), State.Player.PLAYER_1);
+            var first = size;
+            State.Player winner = null;
+            for (var turn = 0; turn < SelfPlaySimulator.DEFAULT_TURN_LIMIT; turn++) {
+                var count = MoveGenerator.generate(state, turns);
+                if (count == 0) {
+                    winner = state.getNextPlayer().opponent();
+                    break;
+                }
+                if (turn >= SKIPPED_TURNS) {
+                    if (size == results.length) {
+                        results = Arrays.copyOf(results, size * 2);
+                        features = Arrays.copyOf(features, size * 2 * F);
+                    }
+                    WeightedEvaluator.features(state, sample);
+                    System.arraycopy(sample, 0, features, size * F, F);
+                    players[size - first] = state.getNextPlayer();
+                    size++;
+                }
+                state.makeTurn(Policy.GREEDY.choose(state, turns, count, random));
+                if (state.isGameOver()) {
+                    winner = state.getWinner();
+                    break;
+                }
+            }
+            for (var i = first; i < size; i++) {
+                results[i] = (byte) (winner == null ? 1 : players[i - first] == winner ? 2 : 0);
+            }
+        }
+        return new EvaluationTuner(Arrays.copyOf(features, size * F), Arrays.copyOf(results, size));
+    }
+
+    /**
+     * Get the number of positions.
+     *
+     * @return the number of labelled positions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes the mean squared error of the expected results of the positions.
+     *
+     * @param weights the weights of the features
+     * @param scale the scale of the logistic function
+     * @return the mean squared error, from {@code 0} to {@code 1}
+     */
+    public double error(int[] weights, double scale) {
+        var sum = IntStream.range(0, size).parallel().mapToDouble(i -> {
+            var score = 0;
+            for (var f = 0; f < F; f++) {
+                score += weights[f] * features[i * F + f];
+            }
+            var expected = 1 / (1 + Math.exp(-scale * score));
+            var error = results[i] / 2.0 - expected;
+            return error * error;
+        }).sum();
+        return sum / size;
+    }
+
+    /**
+     * Fits the scale of the logistic function to the results, by a ternary search of its logarithm.
+     *
+     * @param weights the weights of the features
+     * @return the scale with the least error
+     */
+    public double fitScale(int[] weights) {
+        var low = Math.log(1e-5);
+        var high = Math.log(10);
+        for (var i = 0; i < 60; i++) {
+            var a = low + (high - low) / 3;
+            var b = high - (high - low) / 3;
+            if (error(weights, Math.exp(a)) < error(weights, Math.exp(b))) {
+                high = b;
+            } else {
+                low = a;
+            }
+        }
+        return Math.exp((low + high) / 2);
+    }
+
+    /**
+     * Tunes the weights by local search: every weight is increased or decreased by one
+     * as long as it lowers the error, for at most {@value #MAX_PASSES} passes.
+     *
+     * @param weights the initial weights
+     * @param scale the scale of the logistic function, see {@link #fitScale(int[])}
+     * @return the tuned weights
+     */
+    public int[] tune(int[] weights, double scale) {
+        weights = weights.clone();
+        var best = error(weights, scale);
+        var improved = true;
+        for (var pass = 0; improved && pass < MAX_PASSES; pass++) {
+            improved = false;
+            for (var f = 0; f < F; f++) {
+                for (var step : new int[] {1, -1}) {
+                    weights[f] += step;
+                    var error = error(weights, scale);
+                    if (error < best) {
+                        best = error;
+                        improved = true;
+                        break;
+                    }
+                    weights[f] -= step;
+                }
+            }
+        }
+        return weights;
+    }
+}
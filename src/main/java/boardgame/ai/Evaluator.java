@@ -0,0 +1,18 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+
+/**
+ * Static evaluation of positions that are not over yet.
+ */
+@FunctionalInterface
+public interface Evaluator {
+
+    /**
+     * Evaluates a position.
+     *
+     * @param state the state of the game
+     * @return the score from the point of view of the next player, the higher the better
+     */
+    int evaluate(BitboardState state);
+}
@@ -0,0 +1,19 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+
+/**
+ * A computer player. It chooses a full turn for the next player of a state.
+ */
+@FunctionalInterface
+public interface MoveStrategy {
+
+    /**
+     * Chooses the turn to play. The state may be changed during the choice, but it must be restored before returning.
+     *
+     * @param state the state of the game, at the start of a turn
+     * @return the chosen turn encoded by {@link boardgame.model.Turn},
+     *         or {@link boardgame.model.BitboardState#NO_SQUARE} if the next player has no full turn
+     */
+    int chooseTurn(BitboardState state);
+}
@@ -0,0 +1,233 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.Turn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening book written by {@link OpeningBookBuilder}: the turns played in the first turns of recorded games,
+ * with the number of games and wins after each of them. The entries are keyed by the Zobrist key of the position
+ * at the start of the turn and sorted by the key and the turn, so the turns of a position are found
+ * by a binary search in the memory-mapped file.
+ */
+public class OpeningBook implements AutoCloseable {
+
+    /**
+     * The default opening book file.
+     */
+    public static final Path DEFAULT_FILE = Path.of("openings.bin");
+
+    /**
+     * A turn of the book.
+     *
+     * @param turn the turn, encoded by {@link Turn}
+     * @param games the number of games in which the turn was played
+     * @param wins the number of these games won by the player making the turn
+     */
+    public record Entry(int turn, int games, int wins) {
+
+        /**
+         * Get the share of the games won by the player making the turn.
+         *
+         * @return the share of wins, from {@code 0} to {@code 1}
+         */
+        public double winRate() {
+            return (double) wins / games;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d/%d", Turn.toString(turn), wins, games);
+        }
+    }
+
+    static final int MAGIC = 0x44474F42;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int COUNT_OFFSET = 8;
+    static final int DEPTH_OFFSET = 12;
+    static final int ENTRY_SIZE = Long.BYTES + 3 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final int size;
+    private final int depth;
+
+    private OpeningBook(FileChannel channel, ByteBuffer data) {
+        this.channel = channel;
+        this.data = data;
+        size = data.getInt(COUNT_OFFSET);
+        depth = data.getInt(DEPTH_OFFSET);
+    }
+
+    /**
+     * Opens an opening book file.
+     *
+     * @param file the file written by {@link OpeningBookBuilder}
+     * @return the opening book
+     * @throws IOException if the file cannot be read or is not an opening book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION
+                    || channel.size() != HEADER_SIZE + (long) data.getInt(COUNT_OFFSET) * ENTRY_SIZE) {
+                throw new IOException("Not an opening book file: " + file);
+            }
+            return new OpeningBook(channel, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of position and turn pairs in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of turns from the start of the games that were added to the book.
+     *
+     * @return the depth of the book
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Looks up the turns played in a position. If a first move is pending, only the turns starting with it are returned.
+     *
+     * @param state the state of the game, it is restored before returning
+     * @return the turns of the book, in the order of their encoding, empty if the position is not in the book
+     */
+    public List<Entry> lookup(BitboardState state) {
+        var entries = new ArrayList<Entry>();
+        if (state.isGameOver()) {
+            return entries;
+        }
+        var pendingFrom = state.getPendingFrom();
+        var pendingTo = state.getPendingTo();
+        var pending = state.hasPendingMove();
+        if (pending) {
+            state.unmakeMove();
+        }
+        for (var i = firstEntry(state.getHash()); i < size && key(i) == state.getHash(); i++) {
+            var turn = turn(i);
+            if (!pending || Turn.firstFrom(turn) == pendingFrom && Turn.firstTo(turn) == pendingTo) {
+                entries.add(new Entry(turn, games(i), wins(i)));
+            }
+        }
+        if (pending) {
+            state.makeMove(pendingFrom, pendingTo);
+        }
+        return entries;
+    }
+
+    /**
+     * Chooses the best turn of the book: the one with the highest share of wins, counting one more win
+     * and one more loss for every turn, so that a turn played in many games is preferred to a turn won once.
+     * If a first move is pending, the best completion is chosen.
+     *
+     * @param state the state of the game, it is restored before returning
+     * @return the best turn, or {@link BitboardState#NO_SQUARE} if the position is not in the book
+     */
+    public int bestTurn(BitboardState state) {
+        if (state.isGameOver()) {
+            return BitboardState.NO_SQUARE;
+        }
+        var pendingFrom = state.getPendingFrom();
+        var pendingTo = state.getPendingTo();
+        var pending = state.hasPendingMove();
+        if (pending) {
+            state.unmakeMove();
+        }
+        var best = -1;
+        for (var i = firstEntry(state.getHash()); i < size && key(i) == state.getHash(); i++) {
+            var turn = turn(i);
+            if (pending && (Turn.firstFrom(turn) != pendingFrom || Turn.firstTo(turn) != pendingTo)) {
+                continue;
+            }
+            if (best < 0 || isBetter(i, best)) {
+                best = i;
+            }
+        }
+        var turn = best < 0 ? BitboardState.NO_SQUARE : turn(best);
+        if (turn != BitboardState.NO_SQUARE && !isLegal(state, turn)) {
+            // two positions with the same key
+            turn = BitboardState.NO_SQUARE;
+        }
+        if (pending) {
+            state.makeMove(pendingFrom, pendingTo);
+        }
+        return turn;
+    }
+
+    private boolean isBetter(int entry, int other) {
+        var score = (wins(entry) + 1L) * (games(other) + 2L);
+        var otherScore = (wins(other) + 1L) * (games(entry) + 2L);
+        return score > otherScore || score == otherScore && games(entry) > games(other);
+    }
+
+    private static boolean isLegal(BitboardState state, int turn) {
+        var historySize = state.getHistorySize();
+        var legal = state.makeTurn(turn);
+        while (state.getHistorySize() > historySize) {
+            state.unmakeMove();
+        }
+        return legal;
+    }
+
+    /**
+     * Finds the first entry with a key that is not less than the given one.
+     */
+    private int firstEntry(long key) {
+        var low = 0;
+        var high = size;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(int entry) {
+        return data.getLong(HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    private int turn(int entry) {
+        return data.getInt(HEADER_SIZE + entry * ENTRY_SIZE + Long.BYTES);
+    }
+
+    private int games(int entry) {
+        return data.getInt(HEADER_SIZE + entry * ENTRY_SIZE + Long.BYTES + Integer.BYTES);
+    }
+
+    private int wins(int entry) {
+        return data.getInt(HEADER_SIZE + entry * ENTRY_SIZE + Long.BYTES + 2 * Integer.BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
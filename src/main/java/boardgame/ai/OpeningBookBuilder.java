@@ -0,0 +1,230 @@
+package boardgame.ai;
+
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import boardgame.sim.SelfPlaySimulator;
+import game.State;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Offline builder of the {@link OpeningBook}. It counts, for every position reached in the first turns
+ * of finished games, how many times each turn was played and how many of these games the player making it won.
+ * The games are read from a {@link GameArchive} or played by random self-play, which gives a Monte Carlo
+ * estimate of the turns instead of the choices of real players.
+ * Usage: {@code OpeningBookBuilder [archive file or number of self-play games] [book file] [depth] [minimum games]}.
+ */
+public class OpeningBookBuilder {
+
+    /**
+     * The default number of turns from the start of a game that are added to the book.
+     */
+    public static final int DEFAULT_DEPTH = 10;
+
+    /**
+     * The default number of games a turn must be played in to be written to the book.
+     */
+    public static final int DEFAULT_MIN_GAMES = 3;
+
+    private static final Path DEFAULT_ARCHIVE = Path.of("jatszmak.dat");
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private record Key(long hash, int turn) {
+    }
+
+    private final int depth;
+    private final Map<Key, int[]> counts = new HashMap<>();
+    private long games;
+
+    /**
+     * Creates a builder.
+     *
+     * @param depth the number of turns from the start of a game that are added to the book
+     */
+    public OpeningBookBuilder(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("The depth must be positive: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * Builds an opening book.
+     *
+     * @param args the game archive (default {@code jatszmak.dat}) or the number of random self-play games,
+     *             the book file (default {@code openings.bin}), the depth (default {@value #DEFAULT_DEPTH})
+     *             and the minimum number of games of a turn (default {@value #DEFAULT_MIN_GAMES})
+     * @throws IOException if the archive cannot be read or the book cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        var source = args.length > 0 ? args[0] : DEFAULT_ARCHIVE.toString();
+        var file = args.length > 1 ? Path.of(args[1]) : OpeningBook.DEFAULT_FILE;
+        var depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        var minGames = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES;
+        var builder = new OpeningBookBuilder(depth);
+        if (source.chars().allMatch(Character::isDigit)) {
+            builder.addSelfPlay(Long.parseLong(source), new SplittableRandom());
+        } else {
+            try (var archive = new GameArchive(Path.of(source))) {
+                builder.addArchive(archive);
+            }
+        }
+        var entries = builder.write(file, minGames);
+        Logger.info("Wrote {} turns of {} games to {}", entries, builder.getGames(), file);
+    }
+
+    /**
+     * Get the number of games added.
+     *
+     * @return the number of finished games added to the book
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Adds a recorded game. Games without a winner are skipped.
+     *
+     * @param game the game
+     * @throws IllegalStateException if a turn of the game is not legal
+     */
+    public void add(GameRecord game) {
+        if (game.winner() == null) {
+            return;
+        }
+        var state = new BitboardState();
+        for (var i = 0; i < Math.min(depth, game.turnCount()); i++) {
+            var turn = game.turn(state, i);
+            count(state.getHash(), turn, state.getNextPlayer() == game.winner());
+            if (!state.makeTurn(turn)) {
+                throw new IllegalStateException("Illegal turn " + i + ": " + Turn.toString(turn));
+            }
+        }
+        games++;
+    }
+
+    /**
+     * Adds every game of an archive.
+     *
+     * @param archive the archive
+     * @throws IOException if the archive cannot be read
+     */
+    public void addArchive(GameArchive archive) throws IOException {
+        archive.forEach(0, archive.size(), this::add);
+    }
+
+    /**
+     * Plays games with uniformly random turns and adds the ones finished
+     * within {@link SelfPlaySimulator#DEFAULT_TURN_LIMIT} turns.
+     *
+     * @param games the number of games to play
+     * @param random the random generator
+     */
+    public void addSelfPlay(long games, SplittableRandom random) {
+        var initial = new BitboardState();
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var hashes = new long[depth];
+        var played = new int[depth];
+        for (var game = 0L; game < games; game++) {
+            state.setPosition(initial.getDisks(State.Player.PLAYER_1), initial.getDisks(State.Player.PLAYER_2),
+                    initial.getObstacles(), State.Player.PLAYER_1);
+            var turn = 0;
+            while (turn < SelfPlaySimulator.DEFAULT_TURN_LIMIT && !state.isGameOver()) {
+                var count = MoveGenerator.generate(state, turns);
+                if (count == 0) {
+                    break;
+                }
+                var chosen = turns[random.nextInt(count)];
+                if (turn < depth) {
+                    hashes[turn] = state.getHash();
+                    played[turn] = chosen;
+                }
+                state.makeTurn(chosen);
+                turn++;
+            }
+            if (!state.isGameOver()) {
+                continue;
+            }
+            // the first player moves in the even turns
+            var firstWon = state.getWinner() == State.Player.PLAYER_1;
+            for (var i = 0; i < Math.min(depth, turn); i++) {
+                count(hashes[i], played[i], firstWon == (i % 2 == 0));
+            }
+            this.games++;
+        }
+    }
+
+    private void count(long hash, int turn, boolean won) {
+        var count = counts.computeIfAbsent(new Key(hash, turn), key -> new int[2]);
+        count[0]++;
+        if (won) {
+            count[1]++;
+        }
+    }
+
+    /**
+     * Writes the book, replacing the file. The file is written to a temporary file and renamed,
+     * so an open book is never seen half written.
+     *
+     * @param file the book file
+     * @param minGames the number of games a turn must be played in to be written
+     * @return the number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path file, int minGames) throws IOException {
+        var keys = new ArrayList<Key>();
+        for (var entry : counts.entrySet()) {
+            if (entry.getValue()[0] >= minGames) {
+                keys.add(entry.getKey());
+            }
+        }
+        keys.sort(Comparator.comparingLong(Key::hash).thenComparingInt(Key::turn));
+        if (OpeningBook.HEADER_SIZE + (long) keys.size() * OpeningBook.ENTRY_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("The opening book would be larger than 2 GB, increase the minimum number of games");
+        }
+        var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                var buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(keys.size()).putInt(depth);
+                for (var key : keys) {
+                    if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                        writeFully(channel, buffer);
+                    }
+                    var count = counts.get(key);
+                    buffer.putLong(key.hash()).putInt(key.turn()).putInt(count[0]).putInt(count[1]);
+                }
+                writeFully(channel, buffer);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return keys.size();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,30 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+
+/**
+ * Computer player that plays the best turn of the {@link OpeningBook} in the opening, and falls back to
+ * another strategy once the game leaves the book.
+ */
+public class OpeningBookStrategy implements MoveStrategy {
+
+    private final OpeningBook book;
+    private final MoveStrategy fallback;
+
+    /**
+     * Creates a strategy.
+     *
+     * @param book the opening book
+     * @param fallback the strategy of positions not in the book
+     */
+    public OpeningBookStrategy(OpeningBook book, MoveStrategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int chooseTurn(BitboardState state) {
+        var turn = book.bestTurn(state);
+        return turn != BitboardState.NO_SQUARE ? turn : fallback.chooseTurn(state);
+    }
+}
@@ -0,0 +1,130 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computer player searching on several threads (Lazy SMP).
+ * Every thread runs its own iterative deepening {@link AlphaBetaSearch} on its own copy of the state,
+ * sharing one {@link TranspositionTable}. Helper threads start at different depths, so they fill the table
+ * with results the main thread can use. The turn of the main thread is played, and the helpers are stopped
+ * as soon as it finishes.
+ */
+public class ParallelSearch implements MoveStrategy, AutoCloseable {
+
+    private final AlphaBetaSearch[] searches;
+    private final ExecutorService helpers;
+
+    private SearchResult lastResult;
+
+    /**
+     * Creates a search using every available processor and a 4 million entry transposition table.
+     *
+     * @param timeBudget the time to spend on one move
+     */
+    public ParallelSearch(Duration timeBudget) {
+        this(timeBudget, AlphaBetaSearch.MAX_DEPTH, Runtime.getRuntime().availableProcessors(),
+                new TranspositionTable(22), new DistanceEvaluator());
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param timeBudget the time to spend on one move
+     * @param maxDepth the maximum depth of the iterative deepening, in full turns
+     * @param threads the number of search threads, including the calling thread
+     * @param table the transposition table shared by the threads
+     * @param evaluator the evaluation of the positions at the end of the search
+     */
+    public ParallelSearch(Duration timeBudget, int maxDepth, int threads, TranspositionTable table,
+                          Evaluator evaluator) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        searches = new AlphaBetaSearch[threads];
+        for (var i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(timeBudget, maxDepth, table, evaluator);
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            var thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the number of search threads.
+     *
+     * @return the number of threads, including the calling thread
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    @Override
+    public int chooseTurn(BitboardState state) {
+        lastResult = search(state);
+        Logger.info("Computer move ({} threads): {}", searches.length, lastResult);
+        return lastResult.turn();
+    }
+
+    /**
+     * Get the result of the last search.
+     *
+     * @return the last result, or {@code null} if no search was made yet
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Searches the best turn on all threads, until the time budget or the maximum depth is reached.
+     *
+     * @param state the state of the game, at the start of a turn
+     * @return the best turn of the main thread, with the number of positions visited by all threads
+     */
+    public SearchResult search(BitboardState state) {
+        var start = System.nanoTime();
+        var futures = new ArrayList<Future<SearchResult>>();
+        for (var i = 1; i < searches.length; i++) {
+            var helper = searches[i];
+            var startDepth = 1 + i % 2;
+            helper.resetAbort();
+            futures.add(helpers.submit(() -> helper.search(new BitboardState(state), startDepth)));
+        }
+        searches[0].resetAbort();
+        var main = searches[0].search(new BitboardState(state), 1);
+        var nodes = main.nodes();
+        for (var i = 1; i < searches.length; i++) {
+            searches[i].abort();
+        }
+        for (var future : futures) {
+            try {
+                nodes += future.get().nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                Logger.error(e.getCause(), "Search helper failed");
+            }
+        }
+        return new SearchResult(main.turn(), main.score(), main.depth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the helper threads.
+     */
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
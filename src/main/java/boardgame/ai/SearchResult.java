@@ -0,0 +1,35 @@
+package boardgame.ai;
+
+import boardgame.model.Turn;
+
+/**
+ * The outcome of a search.
+ *
+ * @param turn the best turn found, encoded by {@link Turn}
+ * @param score the score of the turn from the point of view of the player making it
+ * @param depth the depth of the last completed iteration, in full turns
+ * @param nodes the number of positions visited
+ * @param nanos the time spent searching, in nanoseconds
+ */
+public record SearchResult(int turn, int score, int depth, long nodes, long nanos) {
+
+    /**
+     * Get the throughput of the search.
+     *
+     * @return the number of visited positions per second
+     */
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    /**
+     * Format the text of the search result.
+     *
+     * @return the best turn with the statistics of the search
+     */
+    @Override
+    public String toString() {
+        return String.format("%s score %d depth %d nodes %d (%d nodes/s)",
+                Turn.toString(turn), score, depth, nodes, nodesPerSecond());
+    }
+}
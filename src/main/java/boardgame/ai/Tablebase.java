@@ -0,0 +1,206 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tablebase of the standard board, written by {@link TablebaseSolver}.
+ * It stores the game theoretic value of every position at the start of a turn: win, loss or draw
+ * for the next player, with the number of turns until the game ends under optimal play.
+ * The file is memory-mapped, a lookup takes constant time.
+ */
+public class Tablebase implements AutoCloseable {
+
+    /**
+     * The default tablebase file.
+     */
+    public static final Path DEFAULT_FILE = Path.of("tablebase.bin");
+
+    /**
+     * The value of positions the tablebase does not cover, e.g. with a pending move.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The value of drawn positions: neither player can force a win.
+     */
+    public static final int DRAW = 0;
+
+    static final int MAGIC = 0x44475442;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int PASSES_OFFSET = 8;
+    static final int FINISHED_OFFSET = 12;
+
+    static final int MAX_DISTANCE = 127;
+    private static final int LOSS_FLAG = 128;
+
+    private final FileChannel channel;
+    private final ByteBuffer data;
+
+    private Tablebase(FileChannel channel, ByteBuffer data) {
+        this.channel = channel;
+        this.data = data;
+    }
+
+    /**
+     * Creates a tablebase over the data written by a {@link TablebaseSolver}, e.g. in a buffer on the heap.
+     */
+    Tablebase(ByteBuffer data) {
+        this(null, data);
+    }
+
+    /**
+     * Opens a tablebase file.
+     *
+     * @param file the file written by {@link TablebaseSolver}
+     * @return the tablebase
+     * @throws IOException if the file cannot be read or the solver has not finished it
+     */
+    public static Tablebase open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() != HEADER_SIZE + TablebaseIndex.SIZE) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            if (data.getInt(FINISHED_OFFSET) == 0) {
+                throw new IOException("The solver has not finished the tablebase: " + file);
+            }
+            return new Tablebase(channel, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the value of a position. A position with a pending first move is valued by its best completion.
+     *
+     * @param state the state of the game, it is restored before returning
+     * @return {@link #DRAW}, a value checked by {@link #isWin(int)} and {@link #isLoss(int)},
+     *         or {@link #UNKNOWN} if the position is not covered or the game is over
+     */
+    public int probe(BitboardState state) {
+        if (!TablebaseIndex.isCovered(state) || state.isGameOver()) {
+            return UNKNOWN;
+        }
+        if (!state.hasPendingMove()) {
+            return get(data, TablebaseIndex.indexOf(state));
+        }
+        var turn = bestTurn(state);
+        return turn == BitboardState.NO_SQUARE ? loss(1) : turnValue(state, turn, data);
+    }
+
+    /**
+     * Chooses the best turn: the fastest win, a draw, or the slowest loss.
+     * If a first move is pending, the best completion is chosen.
+     *
+     * @param state the state of the game, it is restored before returning
+     * @return the best turn, or {@link BitboardState#NO_SQUARE} if the position is not covered
+     *         or the next player has no full turn
+     */
+    public int bestTurn(BitboardState state) {
+        if (!TablebaseIndex.isCovered(state) || state.isGameOver()) {
+            return BitboardState.NO_SQUARE;
+        }
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var count = MoveGenerator.generate(state, turns);
+        var bestTurn = BitboardState.NO_SQUARE;
+        var bestRank = Integer.MIN_VALUE;
+        for (var i = 0; i < count; i++) {
+            var rank = rank(turnValue(state, turns[i], data));
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestTurn = turns[i];
+            }
+        }
+        return bestTurn;
+    }
+
+    private static int rank(int value) {
+        if (isWin(value)) {
+            return LOSS_FLAG - distance(value);
+        }
+        return isLoss(value) ? distance(value) - LOSS_FLAG : 0;
+    }
+
+    /**
+     * Check if a value is a win of the next player.
+     *
+     * @param value the value of a position
+     * @return {@code true} if the next player can force a win
+     */
+    public static boolean isWin(int value) {
+        return value > DRAW && value < LOSS_FLAG;
+    }
+
+    /**
+     * Check if a value is a loss of the next player.
+     *
+     * @param value the value of a position
+     * @return {@code true} if the opponent can force a win
+     */
+    public static boolean isLoss(int value) {
+        return value > LOSS_FLAG;
+    }
+
+    /**
+     * Get the number of turns until the game ends, under optimal play.
+     *
+     * @param value a win or a loss
+     * @return the number of turns, counting both players
+     */
+    public static int distance(int value) {
+        return value & ~LOSS_FLAG;
+    }
+
+    static int win(int distance) {
+        return distance;
+    }
+
+    static int loss(int distance) {
+        return LOSS_FLAG | distance;
+    }
+
+    static int get(ByteBuffer data, long index) {
+        return Byte.toUnsignedInt(data.get((int) (HEADER_SIZE + index)));
+    }
+
+    /**
+     * Get the value of a turn for the player making it: the outcome of the turn if it ends the game,
+     * otherwise the value of the next position from the other side.
+     */
+    static int turnValue(BitboardState state, int turn, ByteBuffer data) {
+        var player = state.getNextPlayer();
+        var historySize = state.getHistorySize();
+        state.makeTurn(turn);
+        int value;
+        if (state.isGameOver()) {
+            value = state.getWinner() == player ? win(1) : loss(1);
+        } else {
+            var next = get(data, TablebaseIndex.indexOf(state));
+            value = isWin(next) ? loss(distance(next) + 1) : isLoss(next) ? win(distance(next) + 1) : next;
+        }
+        while (state.getHistorySize() > historySize) {
+            state.unmakeMove();
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
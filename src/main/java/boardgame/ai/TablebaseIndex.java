@@ -0,0 +1,168 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import game.State;
+
+/**
+ * Maps the positions of the standard board to the entries of the {@link Tablebase}.
+ * Only positions at the start of a turn of the first player are stored: a position of the second player
+ * is mirrored to the other side of the board with the colours swapped, which is an equivalent position
+ * because the obstacles are symmetric. The red disks are ranked among the free squares, the blue disks
+ * among the free squares left, both in the combinatorial number system.
+ */
+final class TablebaseIndex {
+
+    static final int DISKS = BitboardState.BOARD_SIZE;
+
+    static final int OBSTACLES = new BitboardState().getObstacles();
+
+    static final int FREE_COUNT = BitboardState.SQUARE_COUNT - Integer.bitCount(OBSTACLES);
+
+    private static final int[][] BINOMIAL = new int[FREE_COUNT + 1][DISKS + 1];
+
+    static {
+        for (var n = 0; n <= FREE_COUNT; n++) {
+            BINOMIAL[n][0] = 1;
+            for (var k = 1; k <= Math.min(n, DISKS); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    static final int RED_COUNT = BINOMIAL[FREE_COUNT][DISKS];
+
+    static final int BLUE_COUNT = BINOMIAL[FREE_COUNT - DISKS][DISKS];
+
+    static final long SIZE = (long) RED_COUNT * BLUE_COUNT;
+
+    private static final int[] FREE_SQUARES = new int[FREE_COUNT];
+
+    static {
+        var i = 0;
+        for (var sq = 0; sq < BitboardState.SQUARE_COUNT; sq++) {
+            if ((OBSTACLES & 1 << sq) == 0) {
+                FREE_SQUARES[i++] = sq;
+            }
+        }
+    }
+
+    /**
+     * The blue disks of every blue rank, as positions among the free squares not taken by red disks.
+     */
+    private static final int[] BLUE_POSITIONS = new int[BLUE_COUNT];
+
+    static {
+        for (var rank = 0; rank < BLUE_COUNT; rank++) {
+            BLUE_POSITIONS[rank] = unrank(rank);
+        }
+    }
+
+    private TablebaseIndex() {
+    }
+
+    /**
+     * Check if a position is covered by the tablebase: standard obstacles and five disks of each colour.
+     * Only positions without a pending move have an entry, the others are resolved through their completions.
+     */
+    static boolean isCovered(BitboardState state) {
+        return state.getObstacles() == OBSTACLES
+                && Integer.bitCount(state.getDisks(State.Player.PLAYER_1)) == DISKS
+                && Integer.bitCount(state.getDisks(State.Player.PLAYER_2)) == DISKS;
+    }
+
+    /**
+     * Get the entry of a covered position without a pending move.
+     */
+    static long indexOf(BitboardState state) {
+        var red = state.getDisks(State.Player.PLAYER_1);
+        var blue = state.getDisks(State.Player.PLAYER_2);
+        return state.getNextPlayer() == State.Player.PLAYER_1 ? index(red, blue) : index(flip(blue), flip(red));
+    }
+
+    /**
+     * Get the entry of a position with the first player to move.
+     */
+    static long index(int red, int blue) {
+        return (long) rank(red, 0) * BLUE_COUNT + rank(blue, red);
+    }
+
+    private static int rank(int disks, int skipped) {
+        var rank = 0;
+        var i = 0;
+        for (var rest = disks; rest != 0; rest &= rest - 1) {
+            var square = Integer.numberOfTrailingZeros(rest);
+            var below = (1 << square) - 1;
+            var position = Integer.bitCount(~OBSTACLES & ~skipped & below);
+            rank += BINOMIAL[position][++i];
+        }
+        return rank;
+    }
+
+    /**
+     * Mirrors a mask to the other side of the board, row {@code r} becomes row {@code BOARD_SIZE - 1 - r}.
+     */
+    static int flip(int mask) {
+        var rowMask = (1 << BitboardState.BOARD_SIZE) - 1;
+        var flipped = 0;
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            var bits = mask >>> row * BitboardState.BOARD_SIZE & rowMask;
+            flipped |= bits << (BitboardState.BOARD_SIZE - 1 - row) * BitboardState.BOARD_SIZE;
+        }
+        return flipped;
+    }
+
+    /**
+     * Get the red disks of the entries {@code [redRank * BLUE_COUNT, (redRank + 1) * BLUE_COUNT)}.
+     */
+    static int redDisks(int redRank) {
+        var positions = unrank(redRank);
+        var disks = 0;
+        for (var i = 0; i < FREE_COUNT; i++) {
+            if ((positions & 1 << i) != 0) {
+                disks |= 1 << FREE_SQUARES[i];
+            }
+        }
+        return disks;
+    }
+
+    /**
+     * Get the free squares not taken by red disks, in increasing order.
+     */
+    static int[] squaresLeft(int red) {
+        var squares = new int[FREE_COUNT - DISKS];
+        var count = 0;
+        for (var square : FREE_SQUARES) {
+            if ((red & 1 << square) == 0) {
+                squares[count++] = square;
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Get the blue disks of an entry.
+     *
+     * @param blueRank the rank of the blue disks
+     * @param squaresLeft the free squares not taken by the red disks of the entry, see {@link #squaresLeft(int)}
+     */
+    static int blueDisks(int blueRank, int[] squaresLeft) {
+        var disks = 0;
+        for (var rest = BLUE_POSITIONS[blueRank]; rest != 0; rest &= rest - 1) {
+            disks |= 1 << squaresLeft[Integer.numberOfTrailingZeros(rest)];
+        }
+        return disks;
+    }
+
+    private static int unrank(int rank) {
+        var positions = 0;
+        for (var i = DISKS; i >= 1; i--) {
+            var position = i - 1;
+            while (position + 1 <= FREE_COUNT && BINOMIAL[position + 1][i] <= rank) {
+                position++;
+            }
+            rank -= BINOMIAL[position][i];
+            positions |= 1 << position;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,175 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import game.State;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Offline retrograde solver writing the {@link Tablebase}.
+ * Every placement of five red and five blue disks on the free squares is enumerated, which covers every
+ * reachable position. Pass {@code k} resolves the positions won or lost in exactly {@code k} turns:
+ * won if a turn wins at once or leads to a position lost in {@code k - 1} turns,
+ * lost if every turn loses at once or leads to a position won in at most {@code k - 1} turns.
+ * Positions still unresolved when a pass finds nothing new are draws.
+ *
+ * <p>Passes run in parallel over the red disk placements and write the memory-mapped file in place.
+ * The header records the last completed pass, and a pass only writes values of its own distance,
+ * so after a crash the solver redoes the interrupted pass and continues.
+ * The passes can also be run over some red disk placements only, in a buffer on the heap; their values are
+ * exact as long as the positions reached by their turns are solved as well.
+ */
+public class TablebaseSolver {
+
+    private final ByteBuffer data;
+
+    /**
+     * Creates a solver writing a tablebase of {@code Tablebase.HEADER_SIZE + TablebaseIndex.SIZE} bytes.
+     * The header of a new tablebase is zero.
+     */
+    TablebaseSolver(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Runs the solver.
+     *
+     * @param args the tablebase file (default {@code tablebase.bin}) and the number of threads
+     *             (default all processors)
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedException if the solver is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var file = args.length > 0 ? Path.of(args[0]) : Tablebase.DEFAULT_FILE;
+        var threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        solve(file, threads);
+    }
+
+    /**
+     * Solves the game and writes the tablebase, resuming an unfinished file.
+     *
+     * @param file the tablebase file
+     * @param threads the number of threads
+     * @throws IOException if the file cannot be written
+     * @throws InterruptedException if the solver is interrupted
+     */
+    public static void solve(Path file, int threads) throws IOException, InterruptedException {
+        var size = Tablebase.HEADER_SIZE + TablebaseIndex.SIZE;
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var resume = channel.size() == size;
+            var data = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!resume || data.getInt(0) != Tablebase.MAGIC || data.getInt(4) != Tablebase.VERSION) {
+                Logger.info("Creating tablebase {} with {} positions", file, TablebaseIndex.SIZE);
+                channel.truncate(0);
+                data = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                data.putInt(0, Tablebase.MAGIC);
+                data.putInt(4, Tablebase.VERSION);
+                data.force();
+            }
+            if (data.getInt(Tablebase.FINISHED_OFFSET) != 0) {
+                Logger.info("Tablebase {} is already finished", file);
+                return;
+            }
+            new TablebaseSolver(data).run(threads, IntStream.range(0, TablebaseIndex.RED_COUNT).toArray());
+        }
+    }
+
+    /**
+     * Runs the passes after the last completed pass of the header, until a pass resolves nothing.
+     *
+     * @param threads the number of threads
+     * @param redRanks the red disk placements solved
+     * @throws InterruptedException if the solver is interrupted
+     */
+    void run(int threads, int[] redRanks) throws InterruptedException {
+        var pool = new ForkJoinPool(threads);
+        try {
+            for (var pass = data.getInt(Tablebase.PASSES_OFFSET) + 1; pass < Tablebase.MAX_DISTANCE; pass++) {
+                var start = System.nanoTime();
+                var currentPass = pass;
+                var resolved = pool.submit(() -> IntStream.of(redRanks).parallel()
+                        .mapToLong(redRank -> solve(redRank, currentPass))
+                        .sum()).get();
+                force();
+                data.putInt(Tablebase.PASSES_OFFSET, pass);
+                force();
+                Logger.info("Pass {}: {} positions resolved in {} ms", pass, resolved,
+                        (System.nanoTime() - start) / 1_000_000);
+                if (resolved == 0) {
+                    break;
+                }
+            }
+            data.putInt(Tablebase.FINISHED_OFFSET, 1);
+            force();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void force() {
+        if (data instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    /**
+     * Runs a pass over the positions with the given red disks.
+     *
+     * @return the number of positions whose value has the distance of the pass
+     */
+    private long solve(int redRank, int pass) {
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var red = TablebaseIndex.redDisks(redRank);
+        var squaresLeft = TablebaseIndex.squaresLeft(red);
+        var resolved = 0L;
+        for (var blueRank = 0; blueRank < TablebaseIndex.BLUE_COUNT; blueRank++) {
+            var index = (long) redRank * TablebaseIndex.BLUE_COUNT + blueRank;
+            var value = Tablebase.get(data, index);
+            if (value != Tablebase.DRAW) {
+                if (Tablebase.distance(value) == pass) {
+                    resolved++;
+                }
+                continue;
+            }
+            state.setPosition(red, TablebaseIndex.blueDisks(blueRank, squaresLeft), TablebaseIndex.OBSTACLES,
+                    State.Player.PLAYER_1);
+            if (state.isGameOver()) {
+                continue;
+            }
+            value = solve(state, turns, pass);
+            if (value != Tablebase.DRAW) {
+                data.put((int) (Tablebase.HEADER_SIZE + index), (byte) value);
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private int solve(BitboardState state, int[] turns, int pass) {
+        var count = MoveGenerator.generate(state, turns);
+        var allLost = true;
+        for (var i = 0; i < count; i++) {
+            var value = Tablebase.turnValue(state, turns[i], data);
+            if (value == Tablebase.DRAW || Tablebase.distance(value) > pass) {
+                allLost = false;
+            } else if (Tablebase.isWin(value)) {
+                return Tablebase.win(pass);
+            }
+        }
+        return allLost ? Tablebase.loss(pass) : Tablebase.DRAW;
+    }
+}
@@ -0,0 +1,30 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+
+/**
+ * Computer player that plays perfectly from the {@link Tablebase}, and falls back to another strategy
+ * in positions the tablebase does not cover.
+ */
+public class TablebaseStrategy implements MoveStrategy {
+
+    private final Tablebase tablebase;
+    private final MoveStrategy fallback;
+
+    /**
+     * Creates a strategy.
+     *
+     * @param tablebase the tablebase
+     * @param fallback the strategy of positions not in the tablebase
+     */
+    public TablebaseStrategy(Tablebase tablebase, MoveStrategy fallback) {
+        this.tablebase = tablebase;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int chooseTurn(BitboardState state) {
+        var turn = tablebase.bestTurn(state);
+        return turn != BitboardState.NO_SQUARE ? turn : fallback.chooseTurn(state);
+    }
+}
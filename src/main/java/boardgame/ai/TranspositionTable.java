@@ -0,0 +1,126 @@
+package boardgame.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size, lock-free transposition table shared by searches running on any number of threads.
+ * Every entry is two {@code long}s: the packed data and the position key XOR-ed with the data.
+ * A torn entry, written by two threads at once, fails the key check on reading and counts as a miss.
+ */
+public class TranspositionTable {
+
+    /**
+     * The stored score is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * The stored score is a lower bound, the search failed high.
+     */
+    public static final int LOWER_BOUND = 1;
+
+    /**
+     * The stored score is an upper bound, the search failed low.
+     */
+    public static final int UPPER_BOUND = 2;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * Creates a table with {@code 2^bits} entries, each taking 16 bytes.
+     *
+     * @param bits the binary logarithm of the number of entries
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("Table size out of range: 2^" + bits);
+        }
+        keys = new long[1 << bits];
+        data = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the Zobrist key of the position
+     * @return the packed entry, or {@code 0} if the position is not stored
+     */
+    public long probe(long key) {
+        var index = (int) key & mask;
+        var entry = data[index];
+        return entry != 0 && (keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    /**
+     * Stores a search result. An entry of another position is always replaced,
+     * an entry of the same position only by a search of at least the same depth.
+     *
+     * @param key the Zobrist key of the position
+     * @param depth the remaining depth of the search
+     * @param score the score of the position
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param turn the best turn found, encoded by {@link boardgame.model.Turn}
+     */
+    public void store(long key, int depth, int score, int bound, int turn) {
+        var index = (int) key & mask;
+        var old = data[index];
+        if (old != 0 && (keys[index] ^ old) == key && depth(old) > depth) {
+            return;
+        }
+        var entry = (turn & 0xFFFFL) | ((score & 0xFFFFL) << 16) | ((long) depth << 32) | ((long) bound << 40)
+                | 1L << 48;
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Clears every entry.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Get the best turn of an entry.
+     *
+     * @param entry the packed entry
+     * @return the turn, encoded by {@link boardgame.model.Turn}
+     */
+    public static int turn(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * Get the score of an entry.
+     *
+     * @param entry the packed entry
+     * @return the score
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    /**
+     * Get the search depth of an entry.
+     *
+     * @param entry the packed entry
+     * @return the remaining depth of the search that stored the entry
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * Get the bound type of an entry.
+     *
+     * @param entry the packed entry
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+}
@@ -0,0 +1,170 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import game.State;
+
+import java.util.Arrays;
+
+/**
+ * Scores a position by a weighted sum of {@link Feature features}, each taken as the difference between
+ * the next player and the opponent. The features are counted on the bitboards with shifts and bit counts,
+ * the evaluation allocates nothing. The weights can be fitted to game results by {@link EvaluationTuner}.
+ */
+public class WeightedEvaluator implements Evaluator {
+
+    /**
+     * A feature of a position, counted for one player.
+     */
+    public enum Feature {
+
+        /**
+         * The number of rows the disks have advanced from the own side, summed over the disks.
+         */
+        PROGRESS,
+
+        /**
+         * The number of single steps the disks can make to empty squares.
+         */
+        MOBILITY,
+
+        /**
+         * The number of forward steps, straight or diagonal, blocked by an obstacle.
+         */
+        BLOCKED,
+
+        /**
+         * The number of directions in which at most one disk can step to an empty square. A first move
+         * in such a direction leaves no second move, and if no direction is left the player has no turn.
+         */
+        RISK
+    }
+
+    /**
+     * The number of features.
+     */
+    public static final int FEATURE_COUNT = Feature.values().length;
+
+    private static final int[] DEFAULT_WEIGHTS = {1, -2, 11, -3};
+
+    private static final int[] ROW_MASK = new int[BitboardState.BOARD_SIZE];
+
+    /**
+     * The forward directions of the players, as bit sets of direction numbers.
+     */
+    private static final int RED_FORWARD = 0b00000111;
+    private static final int BLUE_FORWARD = 0b11100000;
+
+    private static final int BYTE = 0xFF;
+
+    static {
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            ROW_MASK[row] = ((1 << BitboardState.BOARD_SIZE) - 1) << row * BitboardState.BOARD_SIZE;
+        }
+    }
+
+    private final int[] weights;
+
+    /**
+     * Creates an evaluator with the weights fitted to self-play games of the greedy policy.
+     */
+    public WeightedEvaluator() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    /**
+     * Creates an evaluator.
+     *
+     * @param weights the weights of the features, in the order of {@link Feature}
+     * @throws IllegalArgumentException if the number of weights is not {@link #FEATURE_COUNT}
+     */
+    public WeightedEvaluator(int... weights) {
+        if (weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights: " + Arrays.toString(weights));
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Get the default weights.
+     *
+     * @return a copy of the weights used by {@link #WeightedEvaluator()}
+     */
+    public static int[] getDefaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    /**
+     * Get the weights.
+     *
+     * @return a copy of the weights, in the order of {@link Feature}
+     */
+    public int[] getWeights() {
+        return weights.clone();
+    }
+
+    @Override
+    public int evaluate(BitboardState state) {
+        var player = state.getNextPlayer();
+        var empty = state.getEmptySquares();
+        var black = state.getObstacles();
+        var own = steps(state.getDisks(player), empty, black, player);
+        var other = steps(state.getDisks(player.opponent()), empty, black, player.opponent());
+        return weights[0] * (progress(state.getDisks(player), player)
+                - progress(state.getDisks(player.opponent()), player.opponent()))
+                + weights[1] * ((own & BYTE) - (other & BYTE))
+                + weights[2] * ((own >>> 8 & BYTE) - (other >>> 8 & BYTE))
+                + weights[3] * ((own >>> 16) - (other >>> 16));
+    }
+
+    /**
+     * Counts the features of a position, each as the difference between the next player and the opponent.
+     *
+     * @param state the state of the game
+     * @param features the buffer of the features, in the order of {@link Feature}
+     */
+    static void features(BitboardState state, int[] features) {
+        var player = state.getNextPlayer();
+        var empty = state.getEmptySquares();
+        var black = state.getObstacles();
+        var own = steps(state.getDisks(player), empty, black, player);
+        var other = steps(state.getDisks(player.opponent()), empty, black, player.opponent());
+        features[0] = progress(state.getDisks(player), player)
+                - progress(state.getDisks(player.opponent()), player.opponent());
+        features[1] = (own & BYTE) - (other & BYTE);
+        features[2] = (own >>> 8 & BYTE) - (other >>> 8 & BYTE);
+        features[3] = (own >>> 16) - (other >>> 16);
+    }
+
+    private static int progress(int disks, State.Player player) {
+        var sum = 0;
+        for (var row = 0; row < BitboardState.BOARD_SIZE; row++) {
+            var steps = player == State.Player.PLAYER_1 ? BitboardState.BOARD_SIZE - 1 - row : row;
+            sum += Integer.bitCount(disks & ROW_MASK[row]) * steps;
+        }
+        return sum;
+    }
+
+    /**
+     * Counts the steps of the disks of a player in one pass over the directions.
+     *
+     * @return the mobility, the blocked steps shifted by 8 bits and the risk shifted by 16 bits
+     */
+    private static int steps(int disks, int empty, int black, State.Player player) {
+        var mobility = 0;
+        var blocked = 0;
+        var risk = 0;
+        var forward = player == State.Player.PLAYER_1 ? RED_FORWARD : BLUE_FORWARD;
+        for (var direction = 0; direction < BitboardState.DIRECTION_COUNT; direction++) {
+            var targets = BitboardState.shift(disks, direction);
+            var free = Integer.bitCount(targets & empty);
+            mobility += free;
+            if (free < 2) {
+                risk++;
+            }
+            if ((forward >>> direction & 1) != 0) {
+                blocked += Integer.bitCount(targets & black);
+            }
+        }
+        return mobility | blocked << 8 | risk << 16;
+    }
+}
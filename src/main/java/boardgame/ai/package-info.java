@@ -0,0 +1,4 @@
+/**
+ * The package for the computer players of the boardgame
+ */
+package boardgame.ai;
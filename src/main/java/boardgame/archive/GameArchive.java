@@ -0,0 +1,498 @@
+package boardgame.archive;
+
+import boardgame.metrics.PersistenceEvent;
+import game.State;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only archive of finished games in one file, read through a memory mapping.
+ * A game is stored as the length of its record, the record and the CRC-32 of the record. The record is the time,
+ * the UTF-8 names of the players, the winner and one byte per turn, about 40 bytes for a game of 20 turns.
+ * The games are numbered in the order they were appended, which is also the order of their time.
+ * The index of the games by player and by time is kept in memory and rebuilt from the file when it is opened;
+ * a game torn by a crash is cut off then. Every distinct name is decoded once, the games refer to it.
+ * An append holds a {@link FileChannel#lock() file lock}, so several processes, e.g. the window and
+ * the game server, and several archive objects can share the file. An archive indexes the games appended
+ * by the others at its next append or {@link #refresh()}.
+ */
+public class GameArchive implements AutoCloseable {
+
+    /**
+     * The longest name of a player in UTF-8 bytes, its length is stored in an unsigned {@code short}.
+     */
+    public static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int CRC_SIZE = Integer.BYTES;
+    private static final int MIN_RECORD_SIZE = Long.BYTES + 2 * Short.BYTES + Byte.BYTES;
+
+    private static final State.Player[] WINNERS = {null, State.Player.PLAYER_1, State.Player.PLAYER_2};
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * The distinct names of the players, found by their UTF-8 bytes in the file, so a name is decoded only once.
+     */
+    private static final class Names {
+        private byte[][] bytes = new byte[64][];
+        private String[] names = new String[64];
+        private IntList[] games = new IntList[64];
+        private int[] table = new int[128];
+        private int size;
+        private final Map<String, IntList> idsByKey = new HashMap<>();
+
+        private int idOf(ByteBuffer buffer, int position, int length) {
+            var hash = 1;
+            for (var i = 0; i < length; i++) {
+                hash = 31 * hash + buffer.get(position + i);
+            }
+            var mask = table.length - 1;
+            for (var slot = spread(hash) & mask; ; slot = slot + 1 & mask) {
+                var id = table[slot] - 1;
+                if (id < 0) {
+                    return add(slot, buffer, position, length);
+                }
+                if (equals(bytes[id], buffer, position, length)) {
+                    return id;
+                }
+            }
+        }
+
+        /**
+         * Mixes the high bits of a hash into the low bits, names that differ only at the end would
+         * fill neighbouring slots otherwise.
+         */
+        private static int spread(int hash) {
+            var mixed = hash * 0x9e3779b9;
+            return mixed ^ mixed >>> 16;
+        }
+
+        private static boolean equals(byte[] name, ByteBuffer buffer, int position, int length) {
+            if (name.length != length) {
+                return false;
+            }
+            for (var i = 0; i < length; i++) {
+                if (name[i] != buffer.get(position + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int add(int slot, ByteBuffer buffer, int position, int length) {
+            var id = size++;
+            if (id == names.length) {
+                bytes = Arrays.copyOf(bytes, id * 2);
+                names = Arrays.copyOf(names, id * 2);
+                games = Arrays.copyOf(games, id * 2);
+            }
+            bytes[id] = new byte[length];
+            buffer.get(position, bytes[id]);
+            names[id] = new String(bytes[id], StandardCharsets.UTF_8);
+            games[id] = new IntList();
+            idsByKey.computeIfAbsent(key(names[id]), key -> new IntList()).add(id);
+            table[slot] = id + 1;
+            if (2 * size > table.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            var mask = table.length - 1;
+            for (var id = 0; id < size; id++) {
+                var hash = 1;
+                for (var b : bytes[id]) {
+                    hash = 31 * hash + b;
+                }
+                var slot = spread(hash) & mask;
+                while (table[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                table[slot] = id + 1;
+            }
+        }
+
+        private int[] gamesOf(String name) {
+            var ids = idsByKey.get(key(name));
+            if (ids == null) {
+                return new int[0];
+            }
+            if (ids.size == 1) {
+                return games[ids.values[0]].toArray();
+            }
+            // the same player written in different cases, a game between them is listed once
+            return Arrays.stream(ids.toArray()).flatMap(id -> Arrays.stream(games[id].toArray()))
+                    .sorted().distinct().toArray();
+        }
+    }
+
+    private static final ConcurrentHashMap<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ReentrantLock writeLock;
+    private final Names names = new Names();
+    private long[] offsets = new long[1024];
+    private long[] times = new long[1024];
+    private int[] players = new int[2 * 1024];
+    private int size;
+    private long end;
+    private MappedByteBuffer mapped;
+
+    /**
+     * Opens an archive, creating the file if needed, and indexes its games.
+     *
+     * @param file the archive file
+     * @throws IOException if the archive cannot be read
+     */
+    public GameArchive(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        writeLock = JVM_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new ReentrantLock());
+        try {
+            locked(() -> {
+                index();
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Runs an action holding the lock of the file, and the lock of the archive objects of this process
+     * on the same file, which cannot hold the lock of the file at the same time.
+     */
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        writeLock.lock();
+        try {
+            var lock = channel.lock();
+            try {
+                return action.run();
+            } finally {
+                lock.release();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Indexes the games after the last indexed one, cutting off a torn game at the end.
+     * Must be called holding the locks.
+     */
+    private void index() throws IOException {
+        var fileSize = channel.size();
+        if (fileSize == end) {
+            return;
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("The game archive " + file + " is larger than 2 GB");
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        var view = mapped.duplicate();
+        var crc = new CRC32();
+        while (end + LENGTH_SIZE <= fileSize) {
+            var start = (int) end + LENGTH_SIZE;
+            var length = mapped.getInt((int) end);
+            if (length < MIN_RECORD_SIZE || (long) start + length + CRC_SIZE > fileSize) {
+                break;
+            }
+            crc.reset();
+            crc.update(view.limit(start + length).position(start));
+            if ((int) crc.getValue() != mapped.getInt(start + length)) {
+                break;
+            }
+            add(end, mapped, start);
+            end = start + length + CRC_SIZE;
+        }
+        if (end < fileSize) {
+            Logger.warn("Cutting off {} bytes of a torn game at the end of {}", fileSize - end, file);
+            mapped = null;
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * Adds a game to the index.
+     *
+     * @param offset the offset of the game in the file
+     * @param data a buffer of the record of the game
+     * @param start the position of the record in the buffer
+     */
+    private void add(long offset, ByteBuffer data, int start) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+            players = Arrays.copyOf(players, size * 4);
+        }
+        offsets[size] = offset;
+        times[size] = data.getLong(start);
+        var player1Position = start + Long.BYTES;
+        var player1Length = nameLength(data, player1Position);
+        var player2Position = player1Position + Short.BYTES + player1Length;
+        var player1 = names.idOf(data, player1Position + Short.BYTES, player1Length);
+        var player2 = names.idOf(data, player2Position + Short.BYTES, nameLength(data, player2Position));
+        players[2 * size] = player1;
+        players[2 * size + 1] = player2;
+        names.games[player1].add(size);
+        if (player2 != player1) {
+            names.games[player2].add(size);
+        }
+        size++;
+    }
+
+    private static int nameLength(ByteBuffer record, int position) {
+        return Short.toUnsignedInt(record.getShort(position));
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the archive file.
+     *
+     * @return the archive file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of games.
+     *
+     * @return the number of games
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the time of the last game.
+     *
+     * @return the time in milliseconds since the epoch, or {@link Long#MIN_VALUE} if the archive is empty
+     */
+    public synchronized long getLastTime() {
+        return size == 0 ? Long.MIN_VALUE : times[size - 1];
+    }
+
+    /**
+     * Indexes the games appended by other processes or archive objects.
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    public synchronized void refresh() throws IOException {
+        locked(() -> {
+            index();
+            return null;
+        });
+    }
+
+    /**
+     * Appends a game to the end of the archive. The game is written to the file, but not flushed to the disk.
+     *
+     * @param game the game, not older than the last game of the archive
+     * @return the number of the game
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalArgumentException if the game is older than the last game, or a name of a player
+     *                                  is longer than {@value #MAX_NAME_LENGTH} bytes in UTF-8
+     */
+    public synchronized int append(GameRecord game) throws IOException {
+        checkNames(game);
+        return locked(() -> {
+            index();
+            if (size > 0 && game.time() < times[size - 1]) {
+                throw new IllegalArgumentException("The game is older than the last game of the archive");
+            }
+            return write(game);
+        });
+    }
+
+    /**
+     * Appends a game to the end of the archive, as {@link #append(GameRecord)}, but a game older than
+     * the last game, e.g. one appended by another process in the meantime, gets the time of the last game.
+     *
+     * @param game the game
+     * @return the number of the game
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalArgumentException if a name of a player is longer than {@value #MAX_NAME_LENGTH} bytes in UTF-8
+     */
+    public synchronized int appendLatest(GameRecord game) throws IOException {
+        checkNames(game);
+        return locked(() -> {
+            index();
+            if (size > 0 && game.time() < times[size - 1]) {
+                return write(new GameRecord(times[size - 1], game.player1(), game.player2(), game.winner(),
+                        game.turns()));
+            }
+            return write(game);
+        });
+    }
+
+    private static void checkNames(GameRecord game) {
+        for (var name : new String[] {game.player1(), game.player2()}) {
+            if (name.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("The name of a player is longer than " + MAX_NAME_LENGTH
+                        + " bytes in UTF-8");
+            }
+        }
+    }
+
+    /**
+     * Writes a game after the last indexed game and indexes it. Must be called holding the locks.
+     */
+    private int write(GameRecord game) throws IOException {
+        var player1 = game.player1().getBytes(StandardCharsets.UTF_8);
+        var player2 = game.player2().getBytes(StandardCharsets.UTF_8);
+        var turns = game.turns();
+        var length = MIN_RECORD_SIZE + player1.length + player2.length + turns.length;
+        if (end + LENGTH_SIZE + length + CRC_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("The game archive " + file + " is full");
+        }
+        var buffer = ByteBuffer.allocate(LENGTH_SIZE + length + CRC_SIZE)
+                .putInt(length)
+                .putLong(game.time())
+                .putShort((short) player1.length).put(player1)
+                .putShort((short) player2.length).put(player2)
+                .put((byte) (game.winner() == null ? 0 : game.winner().ordinal() + 1))
+                .put(turns);
+        var crc = new CRC32();
+        crc.update(buffer.array(), LENGTH_SIZE, length);
+        buffer.putInt((int) crc.getValue()).flip();
+        var event = PersistenceEvent.start();
+        var position = end;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        event.finishWrite(file, buffer.limit());
+        add(end, buffer, LENGTH_SIZE);
+        end = position;
+        return size - 1;
+    }
+
+    /**
+     * Reads a game.
+     *
+     * @param game the number of the game
+     * @return the game
+     * @throws IOException if the archive cannot be read
+     * @throws IndexOutOfBoundsException if there is no such game
+     */
+    public synchronized GameRecord get(int game) throws IOException {
+        var offset = (int) offsets[Objects.checkIndex(game, size)];
+        if (mapped == null || mapped.capacity() < end) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+        }
+        var start = offset + LENGTH_SIZE;
+        var player1 = players[2 * game];
+        var player2 = players[2 * game + 1];
+        var winnerPosition = start + MIN_RECORD_SIZE - Byte.BYTES + names.bytes[player1].length
+                + names.bytes[player2].length;
+        var turns = new byte[start + mapped.getInt(offset) - winnerPosition - Byte.BYTES];
+        mapped.get(winnerPosition + Byte.BYTES, turns);
+        var winner = mapped.get(winnerPosition);
+        if (winner < 0 || winner >= WINNERS.length) {
+            throw new IOException("Invalid winner in game " + game + " of " + file);
+        }
+        return new GameRecord(mapped.getLong(start), names.names[player1], names.names[player2], WINNERS[winner],
+                turns);
+    }
+
+    /**
+     * Reads the games of a range, in order.
+     *
+     * @param from the number of the first game
+     * @param to the number after the last game
+     * @param action called with every game
+     * @throws IOException if the archive cannot be read
+     */
+    public void forEach(int from, int to, Consumer<GameRecord> action) throws IOException {
+        for (var game = from; game < to; game++) {
+            action.accept(get(game));
+        }
+    }
+
+    /**
+     * Get the games of a player.
+     *
+     * @param player the name of the player, the case is ignored
+     * @return the numbers of the games, in order
+     */
+    public synchronized int[] gamesOf(String player) {
+        return names.gamesOf(player);
+    }
+
+    /**
+     * Get the first game played at or after a time. The games of a period are the games from
+     * {@code firstGameAt(start)} to {@code firstGameAt(end)}.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @return the number of the game, or {@link #size()} if every game is older
+     */
+    public synchronized int firstGameAt(long time) {
+        var index = Arrays.binarySearch(times, 0, size, time);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && times[index - 1] == time) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Flushes the appended games to the disk.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,153 @@
+package boardgame.archive;
+
+import boardgame.model.BitboardState;
+import boardgame.model.BoardGameModel;
+import boardgame.model.Turn;
+import game.State;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A game played from the starting position, with every turn encoded in one byte by {@link TurnCodec}.
+ *
+ * @param time the end of the game, in milliseconds since the epoch
+ * @param player1 the name of the first player, moving the red disks
+ * @param player2 the name of the second player, moving the blue disks
+ * @param winner the winner, or {@code null} if the game was not finished
+ * @param turns the codes of the turns
+ */
+public record GameRecord(long time, String player1, String player2, State.Player winner, byte[] turns) {
+
+    /**
+     * Creates a record, the turns are copied.
+     */
+    public GameRecord {
+        Objects.requireNonNull(player1);
+        Objects.requireNonNull(player2);
+        turns = turns.clone();
+    }
+
+    /**
+     * Records the moves made so far in a state, which must have been played from the starting position.
+     * A first move that did not end the game is not recorded without its second move.
+     *
+     * @param time the end of the game, in milliseconds since the epoch
+     * @param player1 the name of the first player
+     * @param player2 the name of the second player
+     * @param state the state of the game
+     * @return the record of the game
+     * @throws IllegalArgumentException if the moves of the state are not legal from the starting position
+     */
+    public static GameRecord of(long time, String player1, String player2, BitboardState state) {
+        var replay = new BitboardState();
+        var turns = new byte[(state.getHistorySize() + 1) / 2];
+        var count = 0;
+        for (var move = 0; move < state.getHistorySize(); ) {
+            var from = state.getMoveFrom(move);
+            var direction = BitboardState.directionOf(from, state.getMoveTo(move));
+            var last = move + 1 == state.getHistorySize();
+            if (last && !state.isGameOver()) {
+                break;
+            }
+            var second = last ? anotherDisk(replay, from) : state.getMoveFrom(move + 1);
+            var turn = Turn.of(from, second, direction);
+            turns[count++] = (byte) TurnCodec.encode(replay, turn);
+            if (!replay.makeTurn(turn)) {
+                throw new IllegalArgumentException("Illegal turn " + Turn.toString(turn));
+            }
+            move += replay.isGameOver() && replay.hasPendingMove() ? 1 : 2;
+        }
+        return new GameRecord(time, player1, player2, state.isGameOver() ? state.getWinner() : null,
+                Arrays.copyOf(turns, count));
+    }
+
+    private static int anotherDisk(BitboardState state, int disk) {
+        var others = state.getDisks(state.getNextPlayer()) & ~(1 << disk);
+        return Integer.numberOfTrailingZeros(others);
+    }
+
+    /**
+     * Get the codes of the turns.
+     *
+     * @return a copy of the codes
+     */
+    @Override
+    public byte[] turns() {
+        return turns.clone();
+    }
+
+    /**
+     * Get the number of turns.
+     *
+     * @return the number of turns
+     */
+    public int turnCount() {
+        return turns.length;
+    }
+
+    /**
+     * Get the turn played at a point of the game.
+     *
+     * @param state the position before the turn, see {@link #replay(int)}
+     * @param index the index of the turn, {@code 0} for the first turn
+     * @return the turn, encoded by {@link Turn}
+     */
+    public int turn(BitboardState state, int index) {
+        return TurnCodec.decode(state, Byte.toUnsignedInt(turns[index]));
+    }
+
+    /**
+     * Rebuilds a position of the game by playing its first turns by the rules.
+     *
+     * @param turnCount the number of turns to play, from {@code 0} to {@link #turnCount()}
+     * @return the position after the turns
+     * @throws IllegalStateException if a turn of the record is not legal
+     */
+    public BitboardState replay(int turnCount) {
+        Objects.checkIndex(turnCount, turns.length + 1);
+        var state = new BitboardState();
+        for (var i = 0; i < turnCount; i++) {
+            int turn;
+            try {
+                turn = turn(state, i);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid turn " + i, e);
+            }
+            if (!state.makeTurn(turn)) {
+                throw new IllegalStateException("Illegal turn " + i + ": " + Turn.toString(turn));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Rebuilds a position of the game as a model, e.g. to show it on the board.
+     *
+     * @param turnCount the number of turns to play, from {@code 0} to {@link #turnCount()}
+     * @return the model of the position after the turns, with the names of the players
+     * @throws IllegalStateException if a turn of the record is not legal
+     */
+    public BoardGameModel replayModel(int turnCount) {
+        var model = new BoardGameModel(replay(turnCount));
+        model.setPlayers(player1, player2);
+        return model;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameRecord other && time == other.time && player1.equals(other.player1)
+                && player2.equals(other.player2) && winner == other.winner && Arrays.equals(turns, other.turns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, player1, player2, winner, Arrays.hashCode(turns));
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord[time=" + time + ", player1=" + player1 + ", player2=" + player2 + ", winner=" + winner
+                + ", turns=" + turns.length + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package boardgame.archive;
+
+import boardgame.model.BitboardState;
+import boardgame.model.Turn;
+
+/**
+ * Encodes a turn into one byte, relative to the position it is played in.
+ * Bits 0-2 hold the index of the first disk among the five disks of the next player, in the order of
+ * their squares, bits 3-4 the index of the second disk among the other four disks, and bits 5-7 the direction.
+ * A turn ended by the first move still has a second disk, which is ignored when the turn is replayed.
+ */
+public final class TurnCodec {
+
+    private static final int FIRST_BITS = 3;
+    private static final int SECOND_BITS = 2;
+
+    private TurnCodec() {
+    }
+
+    /**
+     * Encodes a turn.
+     *
+     * @param state the position before the turn, without a pending move
+     * @param turn the turn, encoded by {@link Turn}
+     * @return the code of the turn, {@code 0} to {@code 255}
+     * @throws IllegalArgumentException if a disk of the turn is not a disk of the next player
+     */
+    public static int encode(BitboardState state, int turn) {
+        var own = state.getDisks(state.getNextPlayer());
+        var first = Turn.firstFrom(turn);
+        var second = Turn.secondFrom(turn);
+        if ((own & 1 << first) == 0 || (own & 1 << second) == 0 || first == second) {
+            throw new IllegalArgumentException("Not a turn of the next player: " + Turn.toString(turn));
+        }
+        var rest = own & ~(1 << first);
+        return Integer.bitCount(own & (1 << first) - 1)
+                | Integer.bitCount(rest & (1 << second) - 1) << FIRST_BITS
+                | Turn.direction(turn) << FIRST_BITS + SECOND_BITS;
+    }
+
+    /**
+     * Decodes a turn.
+     *
+     * @param state the position before the turn, without a pending move
+     * @param code the code of the turn
+     * @return the turn, encoded by {@link Turn}, which is not checked against the rules
+     * @throws IllegalArgumentException if the code names a disk the next player does not have
+     */
+    public static int decode(BitboardState state, int code) {
+        var own = state.getDisks(state.getNextPlayer());
+        var first = nthSquare(own, code & (1 << FIRST_BITS) - 1);
+        var second = nthSquare(own & ~(1 << first), code >>> FIRST_BITS & (1 << SECOND_BITS) - 1);
+        return Turn.of(first, second, code >>> FIRST_BITS + SECOND_BITS & BitboardState.DIRECTION_COUNT - 1);
+    }
+
+    private static int nthSquare(int squares, int n) {
+        for (var i = 0; i < n; i++) {
+            squares &= squares - 1;
+        }
+        if (squares == 0) {
+            throw new IllegalArgumentException("No disk " + n);
+        }
+        return Integer.numberOfTrailingZeros(squares);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package for the archive of the finished games and their replay.
+ */
+package boardgame.archive;
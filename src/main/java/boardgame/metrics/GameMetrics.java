@@ -0,0 +1,219 @@
+package boardgame.metrics;
+
+import org.tinylog.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the moves, the game over checks, the reads and writes of the files
+ * of the players and the games, and the scene loads, published as the MBean {@value #OBJECT_NAME}
+ * of the platform MBean server, e.g. for JConsole or {@code jcmd}.
+ * <p>
+ * The metrics are collected only if the system property {@value #PROPERTY} is {@code true}.
+ * The property is read once, so a disabled check is a constant the JIT compiler removes
+ * with the code it guards. The same measurements are also recorded as the events of this package
+ * by Java Flight Recorder when a recording enables them, independently of the property.
+ */
+public final class GameMetrics implements GameMetricsMBean {
+
+    /**
+     * The system property enabling the metrics.
+     */
+    public static final String PROPERTY = "boardgame.metrics";
+
+    /**
+     * The name of the MBean.
+     */
+    public static final String OBJECT_NAME = "boardgame:type=GameMetrics";
+
+    private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                INSTANCE.register(ManagementFactory.getPlatformMBeanServer());
+            } catch (JMException e) {
+                Logger.error(e, "Cannot register the MBean {}", OBJECT_NAME);
+            }
+        }
+    }
+
+    private final LongAdder moves = new LongAdder();
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final LongAdder gameOverChecks = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LongAdder sceneLoads = new LongAdder();
+    private final LatencyHistogram sceneLoadLatency = new LatencyHistogram();
+
+    GameMetrics() {
+    }
+
+    /**
+     * Check if the metrics are collected, see {@value #PROPERTY}.
+     *
+     * @return {@code true} if the metrics are collected
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the metrics of the program.
+     *
+     * @return the metrics, registered as an MBean if they are enabled
+     */
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Counts a check whether a game is over.
+     */
+    public static void countGameOverCheck() {
+        if (ENABLED) {
+            INSTANCE.gameOverChecks.increment();
+        }
+    }
+
+    /**
+     * Get the time of the start of a measurement.
+     *
+     * @return the value of {@link System#nanoTime()}, or {@code 0} if the metrics are not collected
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    void register(MBeanServer server) throws JMException {
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    void recordMove(long nanos) {
+        moves.increment();
+        moveLatency.record(nanos);
+    }
+
+    void recordGameFinished() {
+        gamesFinished.increment();
+    }
+
+    void recordRead(long nanos, long bytes) {
+        reads.increment();
+        bytesRead.add(bytes);
+        readLatency.record(nanos);
+    }
+
+    void recordWrite(long nanos, long bytes) {
+        writes.increment();
+        bytesWritten.add(bytes);
+        writeLatency.record(nanos);
+    }
+
+    void recordSceneLoad(long nanos) {
+        sceneLoads.increment();
+        sceneLoadLatency.record(nanos);
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getMoveLatencyP50() {
+        return moveLatency.value(0.5);
+    }
+
+    @Override
+    public long getMoveLatencyP99() {
+        return moveLatency.value(0.99);
+    }
+
+    @Override
+    public long getGameOverChecks() {
+        return gameOverChecks.sum();
+    }
+
+    @Override
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    @Override
+    public long getReads() {
+        return reads.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getReadLatencyP50() {
+        return readLatency.value(0.5);
+    }
+
+    @Override
+    public long getReadLatencyP99() {
+        return readLatency.value(0.99);
+    }
+
+    @Override
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getWriteLatencyP50() {
+        return writeLatency.value(0.5);
+    }
+
+    @Override
+    public long getWriteLatencyP99() {
+        return writeLatency.value(0.99);
+    }
+
+    @Override
+    public long getSceneLoads() {
+        return sceneLoads.sum();
+    }
+
+    @Override
+    public long getSceneLoadLatencyP50() {
+        return sceneLoadLatency.value(0.5);
+    }
+
+    @Override
+    public long getSceneLoadLatencyP99() {
+        return sceneLoadLatency.value(0.99);
+    }
+
+    @Override
+    public void reset() {
+        for (var counter : new LongAdder[] {moves, gameOverChecks, gamesFinished, reads, bytesRead, writes,
+                bytesWritten, sceneLoads}) {
+            counter.reset();
+        }
+        for (var histogram : new LatencyHistogram[] {moveLatency, readLatency, writeLatency, sceneLoadLatency}) {
+            histogram.reset();
+        }
+    }
+}
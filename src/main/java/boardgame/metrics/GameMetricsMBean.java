@@ -0,0 +1,126 @@
+package boardgame.metrics;
+
+/**
+ * The JMX interface of {@link GameMetrics}. The latencies are in nanoseconds, with a relative error under 1/16.
+ */
+public interface GameMetricsMBean {
+
+    /**
+     * Get the number of moves tried on the models of the games.
+     *
+     * @return the number of moves, the illegal ones included
+     */
+    long getMoves();
+
+    /**
+     * Get the median latency of a move, with the update of the status of the game and of the properties.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getMoveLatencyP50();
+
+    /**
+     * Get the 99th percentile of the latency of a move.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getMoveLatencyP99();
+
+    /**
+     * Get the number of checks whether a game is over, including the check after every move.
+     * The status is kept up to date by the moves, so a check is a comparison and is not timed;
+     * the search for the moves left is part of the latency of the moves.
+     *
+     * @return the number of checks
+     */
+    long getGameOverChecks();
+
+    /**
+     * Get the number of games finished on the models of the games.
+     *
+     * @return the number of games
+     */
+    long getGamesFinished();
+
+    /**
+     * Get the number of reads of the files of the players and the games.
+     *
+     * @return the number of reads
+     */
+    long getReads();
+
+    /**
+     * Get the number of bytes read from the files of the players and the games.
+     *
+     * @return the number of bytes
+     */
+    long getBytesRead();
+
+    /**
+     * Get the median latency of a read.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getReadLatencyP50();
+
+    /**
+     * Get the 99th percentile of the latency of a read.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getReadLatencyP99();
+
+    /**
+     * Get the number of writes of the files of the players and the games.
+     *
+     * @return the number of writes
+     */
+    long getWrites();
+
+    /**
+     * Get the number of bytes written to the files of the players and the games.
+     *
+     * @return the number of bytes
+     */
+    long getBytesWritten();
+
+    /**
+     * Get the median latency of a write.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getWriteLatencyP50();
+
+    /**
+     * Get the 99th percentile of the latency of a write.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getWriteLatencyP99();
+
+    /**
+     * Get the number of scenes loaded from FXML files.
+     *
+     * @return the number of scenes
+     */
+    long getSceneLoads();
+
+    /**
+     * Get the median latency of a scene load.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getSceneLoadLatencyP50();
+
+    /**
+     * Get the 99th percentile of the latency of a scene load.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getSceneLoadLatencyP99();
+
+    /**
+     * Sets all the counters and histograms to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,50 @@
+package boardgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the end of a game on the model of a game.
+ * The game is also counted by {@link GameMetrics}.
+ */
+@Name("boardgame.GameOver")
+@Label("Game Over")
+@Category("Board Game")
+@Description("The end of a game")
+public final class GameOverEvent extends Event {
+
+    @Label("Winner")
+    private String winner;
+
+    @Label("Loser")
+    private String loser;
+
+    @Label("Board Size")
+    private int boardSize;
+
+    private GameOverEvent() {
+    }
+
+    /**
+     * Records the end of a game.
+     *
+     * @param winner the name of the winner, if known
+     * @param loser the name of the loser, if known
+     * @param boardSize the number of rows and columns of the board
+     */
+    public static void record(String winner, String loser, int boardSize) {
+        if (GameMetrics.isEnabled()) {
+            GameMetrics.get().recordGameFinished();
+        }
+        var event = new GameOverEvent();
+        if (event.shouldCommit()) {
+            event.winner = winner;
+            event.loser = loser;
+            event.boardSize = boardSize;
+            event.commit();
+        }
+    }
+}
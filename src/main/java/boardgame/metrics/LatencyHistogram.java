@@ -0,0 +1,81 @@
+package boardgame.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of latencies: every power of two is split into 16 buckets, so it covers all the latencies
+ * in a few kilobytes with a relative error under 1/16. The counters can be shared by any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS);
+
+    /**
+     * Counts a value.
+     *
+     * @param value the value, negative values are counted as {@code 0}
+     */
+    public void record(long value) {
+        counts.incrementAndGet(index(Math.max(value, 0)));
+    }
+
+    /**
+     * Get the number of values counted.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        var count = 0L;
+        for (var i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get a percentile of the values.
+     *
+     * @param quantile the quantile, from {@code 0} to {@code 1}
+     * @return the lowest value of the bucket of the percentile, or {@code 0} if no value was counted
+     */
+    public long value(double quantile) {
+        var rank = Math.max(1, (long) Math.ceil(quantile * count()));
+        var seen = 0L;
+        for (var i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return lowest(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forgets the values counted.
+     */
+    public void reset() {
+        for (var i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var sub = (int) (value >>> exponent - SUB_BITS) & SUB_BUCKETS - 1;
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowest(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << exponent - SUB_BITS;
+    }
+}
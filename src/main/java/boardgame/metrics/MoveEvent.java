@@ -0,0 +1,79 @@
+package boardgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a move tried on the model of a game, lasting until the status of the game
+ * and the properties of the board are updated. The move is also counted by {@link GameMetrics}.
+ * Usage: {@code var event = MoveEvent.start(); ... event.finish(from, to, player, legal, gameOver);}.
+ */
+@Name("boardgame.Move")
+@Label("Move")
+@Category("Board Game")
+@Description("A move tried on the model of a game")
+@StackTrace(false)
+public final class MoveEvent extends Event {
+
+    @Label("From")
+    private String from;
+
+    @Label("To")
+    private String to;
+
+    @Label("Player")
+    private String player;
+
+    @Label("Legal")
+    private boolean legal;
+
+    @Label("Game Over")
+    @Description("The move ended the game")
+    private boolean gameOver;
+
+    private transient long startNanos;
+
+    private MoveEvent() {
+    }
+
+    /**
+     * Starts the measurement of a move.
+     *
+     * @return the event of the move
+     */
+    public static MoveEvent start() {
+        var event = new MoveEvent();
+        event.startNanos = GameMetrics.start();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the measurement of the move, and records it if it is enabled.
+     * The positions and the player are converted to text only if the event is recorded.
+     *
+     * @param from the position the move started from
+     * @param to the position the move arrived at
+     * @param player the player who tried the move
+     * @param legal whether the move was made
+     * @param gameOver whether the game is over after the move
+     */
+    public void finish(Object from, Object to, Object player, boolean legal, boolean gameOver) {
+        end();
+        if (GameMetrics.isEnabled()) {
+            GameMetrics.get().recordMove(System.nanoTime() - startNanos);
+        }
+        if (shouldCommit()) {
+            this.from = String.valueOf(from);
+            this.to = String.valueOf(to);
+            this.player = String.valueOf(player);
+            this.legal = legal;
+            this.gameOver = gameOver;
+            commit();
+        }
+    }
+}
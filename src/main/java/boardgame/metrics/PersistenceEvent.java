@@ -0,0 +1,86 @@
+package boardgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.file.Path;
+
+/**
+ * Flight Recorder event of a read or a write of the files of the players and the games.
+ * The reads and the writes are also counted by {@link GameMetrics}.
+ * Usage: {@code var event = PersistenceEvent.start(); ... event.finishWrite(file, bytes);}.
+ */
+@Name("boardgame.Persistence")
+@Label("Persistence")
+@Category("Board Game")
+@Description("A read or a write of the files of the players and the games")
+public final class PersistenceEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("File")
+    private String file;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    private transient long startNanos;
+
+    private PersistenceEvent() {
+    }
+
+    /**
+     * Starts the measurement of a read or a write.
+     *
+     * @return the event of the operation
+     */
+    public static PersistenceEvent start() {
+        var event = new PersistenceEvent();
+        event.startNanos = GameMetrics.start();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the measurement of a read, and records it if it is enabled.
+     *
+     * @param file the file read
+     * @param bytes the number of bytes read
+     */
+    public void finishRead(Path file, long bytes) {
+        end();
+        if (GameMetrics.isEnabled()) {
+            GameMetrics.get().recordRead(System.nanoTime() - startNanos, bytes);
+        }
+        record("read", file, bytes);
+    }
+
+    /**
+     * Ends the measurement of a write, and records it if it is enabled.
+     *
+     * @param file the file written
+     * @param bytes the number of bytes written
+     */
+    public void finishWrite(Path file, long bytes) {
+        end();
+        if (GameMetrics.isEnabled()) {
+            GameMetrics.get().recordWrite(System.nanoTime() - startNanos, bytes);
+        }
+        record("write", file, bytes);
+    }
+
+    private void record(String operation, Path file, long bytes) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.file = file.toString();
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
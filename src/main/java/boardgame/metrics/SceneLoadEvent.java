@@ -0,0 +1,55 @@
+package boardgame.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the load of a scene from an FXML file, with its controller.
+ * The loads are also counted by {@link GameMetrics}.
+ * Usage: {@code var event = SceneLoadEvent.start(); ... event.finish("/ui.fxml");}.
+ */
+@Name("boardgame.SceneLoad")
+@Label("Scene Load")
+@Category("Board Game")
+@Description("The load of a scene from an FXML file")
+public final class SceneLoadEvent extends Event {
+
+    @Label("FXML")
+    private String fxml;
+
+    private transient long startNanos;
+
+    private SceneLoadEvent() {
+    }
+
+    /**
+     * Starts the measurement of a scene load.
+     *
+     * @return the event of the load
+     */
+    public static SceneLoadEvent start() {
+        var event = new SceneLoadEvent();
+        event.startNanos = GameMetrics.start();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the measurement of the load, and records it if it is enabled.
+     *
+     * @param fxml the resource of the FXML file
+     */
+    public void finish(String fxml) {
+        end();
+        if (GameMetrics.isEnabled()) {
+            GameMetrics.get().recordSceneLoad(System.nanoTime() - startNanos);
+        }
+        if (shouldCommit()) {
+            this.fxml = fxml;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package for the metrics of the program: custom Java Flight Recorder events and a JMX MBean.
+ */
+package boardgame.metrics;
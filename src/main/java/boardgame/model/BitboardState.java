@@ -0,0 +1,712 @@
+package boardgame.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compact, JavaFX-free representation of the boardgame.
+ * The board is stored as three bit masks (red disks, blue disks and the {@link Square#BLACK} obstacles),
+ * where bit {@code row * BOARD_SIZE + col} stands for the square in the given row and column.
+ * It implements the same rules as {@link BoardGameModel}, which is an observable adapter over this class.
+ */
+public final class BitboardState implements BoardState {
+
+    /**
+     * Size of the board.
+     */
+    public static final int BOARD_SIZE = BoardGameModel.BOARD_SIZE;
+
+    /**
+     * Number of squares on the board.
+     */
+    public static final int SQUARE_COUNT = BOARD_SIZE * BOARD_SIZE;
+
+    /**
+     * Index used when there is no square, e.g. for a position outside the board.
+     */
+    public static final int NO_SQUARE = -1;
+
+    /**
+     * Number of king directions.
+     */
+    public static final int DIRECTION_COUNT = 8;
+
+    static final int BOARD_MASK = (1 << SQUARE_COUNT) - 1;
+
+    static final int FIRST_ROW_MASK = (1 << BOARD_SIZE) - 1;
+
+    static final int LAST_ROW_MASK = FIRST_ROW_MASK << (SQUARE_COUNT - BOARD_SIZE);
+
+    private static final int SQUARE_MASK = 31;
+
+    private static final int[] ROW_STEP = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COL_STEP = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    /**
+     * Index difference of a step in each direction.
+     */
+    static final int[] DELTA = new int[DIRECTION_COUNT];
+
+    /**
+     * Squares from which a step in the given direction stays on the board.
+     */
+    static final int[] SOURCE_MASK = new int[DIRECTION_COUNT];
+
+    static {
+        for (var d = 0; d < DIRECTION_COUNT; d++) {
+            DELTA[d] = ROW_STEP[d] * BOARD_SIZE + COL_STEP[d];
+            for (var sq = 0; sq < SQUARE_COUNT; sq++) {
+                var row = row(sq) + ROW_STEP[d];
+                var col = col(sq) + COL_STEP[d];
+                if (0 <= row && row < BOARD_SIZE && 0 <= col && col < BOARD_SIZE) {
+                    SOURCE_MASK[d] |= 1 << sq;
+                }
+            }
+        }
+    }
+
+    private int red;
+    private int blue;
+    private int black;
+
+    private Player nextPlayer = Player.PLAYER_1;
+
+    private int pendingFrom = NO_SQUARE;
+    private int pendingTo = NO_SQUARE;
+
+    private int redInGoal;
+    private int blueInGoal;
+
+    private Status status = Status.IN_PROGRESS;
+    private Player winner;
+
+    private long hash;
+
+    /**
+     * Moves made so far, each packed as the from and to squares (5 bits each)
+     * followed by the pending move before it, with both of its squares incremented by one.
+     */
+    private int[] history = new int[16];
+    private int historySize;
+
+    /**
+     * Creates the default starting position: blue disks in the first row, red disks in the last row
+     * and the obstacles in rows 1 and {@code BOARD_SIZE - 2}, columns 1 and 3.
+     */
+    public BitboardState() {
+        this(BoardLayout.DEFAULT);
+    }
+
+    /**
+     * Creates the starting position of a layout: blue disks in the first row, red disks in the last row
+     * and the obstacles of the layout.
+     *
+     * @param layout the layout of the board
+     * @throws IllegalArgumentException if the layout is not of {@code BOARD_SIZE} rows and columns
+     */
+    public BitboardState(BoardLayout layout) {
+        if (layout.getSize() != BOARD_SIZE) {
+            throw new IllegalArgumentException("Bitboards hold boards of size " + BOARD_SIZE + ": " + layout.getSize());
+        }
+        var obstacles = 0;
+        for (var sq = 0; sq < SQUARE_COUNT; sq++) {
+            if (layout.isObstacle(row(sq), col(sq))) {
+                obstacles |= 1 << sq;
+            }
+        }
+        setPosition(LAST_ROW_MASK, FIRST_ROW_MASK, obstacles, Player.PLAYER_1);
+    }
+
+    /**
+     * Creates a copy of another state.
+     *
+     * @param other the state to copy
+     */
+    public BitboardState(BitboardState other) {
+        red = other.red;
+        blue = other.blue;
+        black = other.black;
+        nextPlayer = other.nextPlayer;
+        pendingFrom = other.pendingFrom;
+        pendingTo = other.pendingTo;
+        redInGoal = other.redInGoal;
+        blueInGoal = other.blueInGoal;
+        status = other.status;
+        winner = other.winner;
+        hash = other.hash;
+        history = Arrays.copyOf(other.history, other.history.length);
+        historySize = other.historySize;
+    }
+
+    /**
+     * Creates a state from the text printed by {@link #toString()}: {@code BOARD_SIZE} rows of
+     * {@code BOARD_SIZE} {@link Square} ordinals, separated by whitespace.
+     *
+     * @param board the text of the board
+     * @param nextPlayer the player to move next
+     * @return the state, at the start of a turn of the next player
+     * @throws IllegalArgumentException if the text is not a valid board
+     */
+    public static BitboardState fromString(String board, Player nextPlayer) {
+        var cells = board.trim().split("\\s+");
+        if (cells.length != SQUARE_COUNT) {
+            throw new IllegalArgumentException("Expected " + SQUARE_COUNT + " squares: " + board);
+        }
+        var masks = new int[Square.values().length];
+        for (var sq = 0; sq < SQUARE_COUNT; sq++) {
+            var ordinal = cells[sq].length() == 1 ? cells[sq].charAt(0) - '0' : -1;
+            if (ordinal < 0 || ordinal >= Square.values().length) {
+                throw new IllegalArgumentException("Invalid square: " + cells[sq]);
+            }
+            masks[ordinal] |= 1 << sq;
+        }
+        var state = new BitboardState();
+        state.setPosition(masks[Square.RED.ordinal()], masks[Square.BLUE.ordinal()],
+                masks[Square.BLACK.ordinal()], nextPlayer);
+        return state;
+    }
+
+    /**
+     * Replaces the position with the given squares, at the start of a turn of the next player.
+     * The move history is cleared.
+     *
+     * @param red the mask of the red disks
+     * @param blue the mask of the blue disks
+     * @param black the mask of the obstacles
+     * @param nextPlayer the player to move next
+     */
+    public void setPosition(int red, int blue, int black, Player nextPlayer) {
+        this.red = red & BOARD_MASK;
+        this.blue = blue & BOARD_MASK & ~red;
+        this.black = black & BOARD_MASK & ~(red | blue);
+        this.nextPlayer = nextPlayer;
+        pendingFrom = NO_SQUARE;
+        pendingTo = NO_SQUARE;
+        historySize = 0;
+        redInGoal = Integer.bitCount(this.red & FIRST_ROW_MASK);
+        blueInGoal = Integer.bitCount(this.blue & LAST_ROW_MASK);
+        hash = Zobrist.hash(this);
+        updateStatus();
+    }
+
+    /**
+     * Get the index of a square.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return the index of the square
+     */
+    public static int index(int row, int col) {
+        return row * BOARD_SIZE + col;
+    }
+
+    /**
+     * Get the index of the square in a given position.
+     *
+     * @param p the position
+     * @return the index of the square, or {@link #NO_SQUARE} if the position is not on the board
+     */
+    public static int indexOf(Position p) {
+        return isOnBoard(p) ? index(p.row(), p.col()) : NO_SQUARE;
+    }
+
+    /**
+     * Get the position of a square.
+     *
+     * @param square the index of the square
+     * @return the position of the square
+     */
+    public static Position positionOf(int square) {
+        return new Position(row(square), col(square));
+    }
+
+    /**
+     * Get the row of a square.
+     *
+     * @param square the index of the square
+     * @return the row of the square
+     */
+    public static int row(int square) {
+        return square / BOARD_SIZE;
+    }
+
+    /**
+     * Get the column of a square.
+     *
+     * @param square the index of the square
+     * @return the column of the square
+     */
+    public static int col(int square) {
+        return square % BOARD_SIZE;
+    }
+
+    /**
+     * Get the size of the board.
+     *
+     * @return {@link #BOARD_SIZE}
+     */
+    @Override
+    public int getBoardSize() {
+        return BOARD_SIZE;
+    }
+
+    /**
+     * Moves every bit of a mask one step in the given direction. Bits leaving the board are dropped.
+     *
+     * @param mask the squares to move
+     * @param direction the direction of the step
+     * @return the target squares
+     */
+    public static int shift(int mask, int direction) {
+        var delta = DELTA[direction];
+        mask &= SOURCE_MASK[direction];
+        return delta > 0 ? mask << delta : mask >>> -delta;
+    }
+
+    /**
+     * Get a {@code Square} in a given position.
+     *
+     * @param p the position of the square
+     * @return a square in the given position
+     */
+    public Square getSquare(Position p) {
+        return getSquare(index(p.row(), p.col()));
+    }
+
+    /**
+     * Get a {@code Square} by its index.
+     *
+     * @param square the index of the square
+     * @return the square
+     */
+    public Square getSquare(int square) {
+        var bit = 1 << square;
+        if ((red & bit) != 0) {
+            return Square.RED;
+        }
+        if ((blue & bit) != 0) {
+            return Square.BLUE;
+        }
+        return (black & bit) != 0 ? Square.BLACK : Square.NONE;
+    }
+
+    @Override
+    public void setSquare(int square, Square s) {
+        var bit = 1 << square;
+        red &= ~bit;
+        blue &= ~bit;
+        black &= ~bit;
+        switch (s) {
+            case RED -> red |= bit;
+            case BLUE -> blue |= bit;
+            case BLACK -> black |= bit;
+            case NONE -> { }
+        }
+        redInGoal = Integer.bitCount(red & FIRST_ROW_MASK);
+        blueInGoal = Integer.bitCount(blue & LAST_ROW_MASK);
+        hash = Zobrist.hash(this);
+        updateStatus();
+    }
+
+    /**
+     * Get the empty squares of the board as a bit mask, bit {@code row * BOARD_SIZE + col} stands for a square.
+     *
+     * @return the mask of the empty squares
+     */
+    public int getEmptySquares() {
+        return ~(red | blue | black) & BOARD_MASK;
+    }
+
+    /**
+     * Get the obstacles of the board as a bit mask, bit {@code row * BOARD_SIZE + col} stands for a square.
+     *
+     * @return the mask of the {@link Square#BLACK} squares
+     */
+    public int getObstacles() {
+        return black;
+    }
+
+    /**
+     * Get the disks of a player as a bit mask, bit {@code row * BOARD_SIZE + col} stands for a square.
+     *
+     * @param p the player
+     * @return the mask of the red disks for the first player, the mask of the blue disks for the second one
+     */
+    public int getDisks(Player p) {
+        return p == Player.PLAYER_1 ? red : blue;
+    }
+
+    /**
+     * Check if the move is legal or not. It depends on:
+     * - whether it is legal to move from the current position,
+     * - whether the next position is within board limits,
+     * - whether the target position is empty,
+     * - and whether the move follows the rules of a "king" in chess (1 step in any direction).
+     *
+     * @param move a move from one position to another
+     * @return {@code true} if the move is legal, otherwise {@code false}
+     */
+    @Override
+    public boolean isLegalMove(TwoPhaseMove<Position> move) {
+        return isLegalMove(indexOf(move.from()), indexOf(move.to()));
+    }
+
+    /**
+     * Check if a move between two squares is legal or not, see {@link #isLegalMove(TwoPhaseMove)}.
+     *
+     * @param from the index of the square to move from
+     * @param to the index of the square to move to
+     * @return {@code true} if the move is legal, otherwise {@code false}
+     */
+    public boolean isLegalMove(int from, int to) {
+        return from != NO_SQUARE && to != NO_SQUARE
+                && (getDisks(nextPlayer) & 1 << from) != 0
+                && (getEmptySquares() & 1 << to) != 0
+                && isKingMove(from, to);
+    }
+
+    /**
+     * Actually performs the move, if it is legal. You can step twice with your disks.
+     * Conditions:
+     * 1) Both disks move in the same direction.
+     * 2) You must use two different disks.
+     *
+     * @param move a move from one position to another
+     */
+    @Override
+    public void makeMove(TwoPhaseMove<Position> move) {
+        makeMove(indexOf(move.from()), indexOf(move.to()));
+    }
+
+    /**
+     * Performs a move between two squares, if it is legal, see {@link #makeMove(TwoPhaseMove)}.
+     *
+     * @param from the index of the square to move from
+     * @param to the index of the square to move to
+     * @return {@code true} if the move was performed, otherwise {@code false}
+     */
+    public boolean makeMove(int from, int to) {
+        if (!isLegalMove(from, to)) {
+            return false;
+        }
+        var entry = from | to << 5 | (pendingFrom + 1) << 10 | (pendingTo + 1) << 15;
+        if (pendingTo == NO_SQUARE) {
+            moveDisk(from, to);
+            setPendingMove(from, to);
+        } else {
+            if (to - from != pendingTo - pendingFrom || from == pendingTo) {
+                return false;
+            }
+            moveDisk(from, to);
+            switchPlayer();
+            setPendingMove(NO_SQUARE, NO_SQUARE);
+        }
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+        history[historySize++] = entry;
+        updateStatus();
+        return true;
+    }
+
+    /**
+     * Takes back the last move made by {@link #makeMove(int, int)}, restoring the next player
+     * and the pending first move as well.
+     *
+     * @return {@code true} if a move was taken back, {@code false} if there is no move to take back
+     */
+    public boolean unmakeMove() {
+        if (historySize == 0) {
+            return false;
+        }
+        var entry = history[--historySize];
+        moveDisk(entry >>> 5 & SQUARE_MASK, entry & SQUARE_MASK);
+        if (pendingTo == NO_SQUARE) {
+            switchPlayer();
+        }
+        setPendingMove((entry >>> 10 & SQUARE_MASK) - 1, (entry >>> 15 & SQUARE_MASK) - 1);
+        updateStatus();
+        return true;
+    }
+
+    /**
+     * Get the number of moves that can be taken back.
+     *
+     * @return the size of the move history
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Get the square a move of the history started from.
+     *
+     * @param index the index of the move, {@code 0} for the first move made
+     * @return the index of the square
+     * @throws IndexOutOfBoundsException if there is no such move in the history
+     */
+    public int getMoveFrom(int index) {
+        return history[Objects.checkIndex(index, historySize)] & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square a move of the history arrived at.
+     *
+     * @param index the index of the move, {@code 0} for the first move made
+     * @return the index of the square
+     * @throws IndexOutOfBoundsException if there is no such move in the history
+     */
+    public int getMoveTo(int index) {
+        return history[Objects.checkIndex(index, historySize)] >>> 5 & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square the last move started from.
+     *
+     * @return the index of the square, or {@link #NO_SQUARE} if there is no move in the history
+     */
+    public int getLastMoveFrom() {
+        return historySize == 0 ? NO_SQUARE : history[historySize - 1] & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square the last move arrived at.
+     *
+     * @return the index of the square, or {@link #NO_SQUARE} if there is no move in the history
+     */
+    public int getLastMoveTo() {
+        return historySize == 0 ? NO_SQUARE : history[historySize - 1] >>> 5 & SQUARE_MASK;
+    }
+
+    /**
+     * Performs a full turn generated by {@link MoveGenerator}. If the first move of the turn
+     * is already pending, only the second move is made. If the game is over after the first move,
+     * the second one is not made.
+     *
+     * @param turn the turn, encoded by {@link Turn}
+     * @return {@code true} if the turn was performed, otherwise {@code false}
+     */
+    public boolean makeTurn(int turn) {
+        if (pendingTo == NO_SQUARE) {
+            if (!makeMove(Turn.firstFrom(turn), Turn.firstTo(turn))) {
+                return false;
+            }
+            if (isGameOver()) {
+                return true;
+            }
+        }
+        return makeMove(Turn.secondFrom(turn), Turn.secondTo(turn));
+    }
+
+    /**
+     * Takes back the moves of the last turn, or the pending first move if the turn is not complete.
+     *
+     * @return {@code true} if a move was taken back, {@code false} if there is no move to take back
+     */
+    public boolean unmakeTurn() {
+        if (!unmakeMove()) {
+            return false;
+        }
+        while (pendingTo != NO_SQUARE && unmakeMove()) {
+            // the first move of the turn is taken back as well
+        }
+        return true;
+    }
+
+    private void moveDisk(int from, int to) {
+        var bits = 1 << from | 1 << to;
+        if ((red & 1 << from) != 0) {
+            red ^= bits;
+            redInGoal += (FIRST_ROW_MASK >>> to & 1) - (FIRST_ROW_MASK >>> from & 1);
+            hash ^= Zobrist.RED[from] ^ Zobrist.RED[to];
+        } else {
+            blue ^= bits;
+            blueInGoal += (LAST_ROW_MASK >>> to & 1) - (LAST_ROW_MASK >>> from & 1);
+            hash ^= Zobrist.BLUE[from] ^ Zobrist.BLUE[to];
+        }
+    }
+
+    private void setPendingMove(int from, int to) {
+        if (pendingTo != NO_SQUARE) {
+            hash ^= Zobrist.PENDING_FROM[pendingFrom] ^ Zobrist.PENDING_TO[pendingTo];
+        }
+        pendingFrom = from;
+        pendingTo = to;
+        if (to != NO_SQUARE) {
+            hash ^= Zobrist.PENDING_FROM[from] ^ Zobrist.PENDING_TO[to];
+        }
+    }
+
+    private void switchPlayer() {
+        nextPlayer = nextPlayer.opponent();
+        hash ^= Zobrist.PLAYER_2;
+    }
+
+    private static boolean isOnBoard(Position p) {
+        return 0 <= p.row() && p.row() < BOARD_SIZE && 0 <= p.col() && p.col() < BOARD_SIZE;
+    }
+
+    private static boolean isKingMove(int from, int to) {
+        var dx = Math.abs(row(to) - row(from));
+        var dy = Math.abs(col(to) - col(from));
+        return dx + dy == 1 || dx * dy == 1;
+    }
+
+    /**
+     * Check if the position is legal to move from.
+     *
+     * @param from the position where you want to move from
+     * @return {@code true} if legal, otherwise {@code false}
+     */
+    @Override
+    public boolean isLegalToMoveFrom(Position from) {
+        var square = indexOf(from);
+        return square != NO_SQUARE && (getDisks(nextPlayer) & 1 << square) != 0;
+    }
+
+    /**
+     * Get the next player.
+     *
+     * @return who is the next player
+     */
+    @Override
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    /**
+     * Check if the first phase of a turn has been made.
+     *
+     * @return {@code true} if the player has to make the second move of the turn
+     */
+    public boolean hasPendingMove() {
+        return pendingTo != NO_SQUARE;
+    }
+
+    /**
+     * Get the square the pending first move started from.
+     *
+     * @return the index of the square, or {@link #NO_SQUARE} if there is no pending move
+     */
+    public int getPendingFrom() {
+        return pendingFrom;
+    }
+
+    /**
+     * Get the square the pending first move arrived at.
+     *
+     * @return the index of the square, or {@link #NO_SQUARE} if there is no pending move
+     */
+    public int getPendingTo() {
+        return pendingTo;
+    }
+
+    /**
+     * Check if the second move of the turn can be made: another disk of the player
+     * can step in the direction of the pending move.
+     *
+     * @return {@code true} if there is a valid second move or there is no pending move
+     */
+    public boolean hasValidSecondMove() {
+        if (pendingTo == NO_SQUARE) {
+            return true;
+        }
+        var movable = getDisks(nextPlayer) & ~(1 << pendingTo);
+        return (shift(movable, directionOf(pendingFrom, pendingTo)) & getEmptySquares()) != 0;
+    }
+
+    /**
+     * Get the direction of a king move.
+     *
+     * @param from the index of the square to move from
+     * @param to the index of the square to move to
+     * @return the direction of the move
+     */
+    public static int directionOf(int from, int to) {
+        var rowStep = row(to) - row(from);
+        var colStep = col(to) - col(from);
+        return (rowStep + 1) * 3 + colStep + 1 - (rowStep > 0 || rowStep == 0 && colStep > 0 ? 1 : 0);
+    }
+
+    /**
+     * Evaluates the game over rules after every change of the board. The number of disks in the goal rows
+     * is maintained by {@link #moveDisk(int, int)} and the second move check is a few bit operations,
+     * so this takes constant time.
+     * The game ends when all of your disks are on the opponent's side.
+     * However, if you move a disk and you are not able to move another disk in the same direction,
+     * the opponent wins the game.
+     */
+    private void updateStatus() {
+        if (!hasValidSecondMove()) {
+            winner = nextPlayer.opponent();
+        } else if (redInGoal == BOARD_SIZE || blueInGoal == BOARD_SIZE) {
+            winner = nextPlayer;
+        } else {
+            winner = null;
+            status = Status.IN_PROGRESS;
+            return;
+        }
+        status = winner == Player.PLAYER_1 ? Status.PLAYER_1_WINS : Status.PLAYER_2_WINS;
+    }
+
+    /**
+     * Checks if the game is over, see {@link #updateStatus()}.
+     *
+     * @return {@code true} if the game is over, otherwise {@code false}
+     */
+    @Override
+    public boolean isGameOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    /**
+     * Get the status of the game.
+     *
+     * @return the game status (in progress or someone has won)
+     */
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the number of disks of a player that have reached the opponent's side.
+     *
+     * @param p the player
+     * @return the number of disks in the goal row of the player
+     */
+    public int getDisksInGoal(Player p) {
+        return p == Player.PLAYER_1 ? redInGoal : blueInGoal;
+    }
+
+    /**
+     * Get the Zobrist key of the position, see {@link Zobrist}. It is maintained incrementally
+     * by every move and taken back move, so it can be used as a transposition table key.
+     *
+     * @return the 64-bit key of the position
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the winner of the game.
+     *
+     * @return the winner, or {@code null} if the game is in progress
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (var i = 0; i < BOARD_SIZE; i++) {
+            for (var j = 0; j < BOARD_SIZE; j++) {
+                sb.append(getSquare(index(i, j)).ordinal()).append(' ');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
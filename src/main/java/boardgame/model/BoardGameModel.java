@@ -1,12 +1,17 @@
 package boardgame.model;
 
+import boardgame.metrics.GameMetrics;
+import boardgame.metrics.GameOverEvent;
+import boardgame.metrics.MoveEvent;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import game.TwoPhaseMoveState;
+import org.tinylog.Logger;
 
 /**
  * This class represents the base of two phase move games.
- * The game is played on a board with a given {@code BOARD_SIZE} constant, respectively.
+ * The game is played on a board with a given {@code BOARD_SIZE} constant, respectively,
+ * or on a board of another {@link BoardLayout}.
  * On each turn, a disk must be moved to an 8-adjacent empty square.
  * There are 4 obstacle squares which are not allowed to move to.
  * The player who reaches the opponent's side with all disks wins the game.
@@ -16,38 +21,87 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
 
     public static final int BOARD_SIZE = 5;
 
-    private Player player;
+    private static final int DEFAULT_OBSTACLES = new BitboardState().getObstacles();
+
+    private final BoardState state;
 
     private ReadOnlyObjectWrapper<Player> nextPlayer = new ReadOnlyObjectWrapper<>(Player.PLAYER_1);
 
     private final ReadOnlyObjectWrapper<Square>[][] board;
 
-    private TwoPhaseMove<Position> pendingMove = null;
-
-    private int countSteps;
-
     private String player1Name;
     private String player2Name;
 
     /**
      * Constructor of the boardgame. Initialize the default state of the game.
      * It sets the colour of squares. Types of squares are in the {@link Square} Enum class.
+     * The board is the one configured by the system properties, see {@link BoardLayout#getConfigured()}.
      */
     public BoardGameModel() {
-        board = new ReadOnlyObjectWrapper[BOARD_SIZE][BOARD_SIZE];
-        for (var i = 0; i < BOARD_SIZE; i++) {
-            for (var j = 0; j < BOARD_SIZE; j++) {
-                board[i][j] = new ReadOnlyObjectWrapper<>(
-                        ((i == 1 || i == BOARD_SIZE - 2) && (j == 1 || j == 3)) ? Square.BLACK :
-                                switch(i) {
-                                    case 0 -> Square.BLUE;
-                                    case BOARD_SIZE - 1 -> Square.RED;
-                                    default -> Square.NONE;
-                                }
-                );
+        this(BoardLayout.getConfigured());
+    }
+
+    /**
+     * Creates a model of the starting position of a layout.
+     * The rules are evaluated by a {@link BitboardState} on a board of {@code BOARD_SIZE},
+     * otherwise by a {@link LargeBoardState}, the properties only mirror its squares.
+     *
+     * @param layout the layout of the board
+     */
+    public BoardGameModel(BoardLayout layout) {
+        this(layout.getSize() == BOARD_SIZE ? new BitboardState(layout) : new LargeBoardState(layout));
+    }
+
+    /**
+     * Creates a model of a position, e.g. one loaded with {@link BitboardState#fromString(String, Player)}.
+     *
+     * @param state the state of the game, it is copied
+     */
+    public BoardGameModel(BitboardState state) {
+        this((BoardState) new BitboardState(state));
+    }
+
+    private BoardGameModel(BoardState state) {
+        this.state = state;
+        nextPlayer.set(state.getNextPlayer());
+        var size = state.getBoardSize();
+        board = new ReadOnlyObjectWrapper[size][size];
+        for (var i = 0; i < size; i++) {
+            for (var j = 0; j < size; j++) {
+                board[i][j] = new ReadOnlyObjectWrapper<>(state.getSquare(i * size + j));
             }
         }
     }
+
+    /**
+     * Get the size of the board.
+     *
+     * @return the number of rows and columns
+     */
+    public int getBoardSize() {
+        return state.getBoardSize();
+    }
+
+    /**
+     * Check if the board is the one of the original game, which the computer players, the opening book
+     * and the archive of the games work on. A board of another layout of {@code BOARD_SIZE} is not,
+     * as they all start from the obstacles of {@link BoardLayout#DEFAULT}.
+     *
+     * @return {@code true} if the board has {@code BOARD_SIZE} rows and columns and the default obstacles
+     */
+    public boolean isStandardSize() {
+        return state instanceof BitboardState bitboard && bitboard.getObstacles() == DEFAULT_OBSTACLES;
+    }
+
+    private int indexOf(Position p) {
+        var size = state.getBoardSize();
+        return 0 <= p.row() && p.row() < size && 0 <= p.col() && p.col() < size
+                ? p.row() * size + p.col() : BitboardState.NO_SQUARE;
+    }
+
+    private Position positionOf(int square) {
+        return new Position(square / state.getBoardSize(), square % state.getBoardSize());
+    }
     /**
      * Get a {@code Square} in a given position.
      *
@@ -55,11 +109,11 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      * @return a square in the given position
      */
     public Square getSquare(Position p) {
-        return board[p.row()][p.col()].get();
+        return state.getSquare(p);
     }
 
-    private void setSquare(Position p, Square square) {
-        board[p.row()][p.col()].set(square);
+    private void syncSquare(Position p) {
+        board[p.row()][p.col()].set(state.getSquare(p));
     }
 
 
@@ -75,13 +129,11 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      * @return {@code true} if the move is legal, otherwise {@code false}
      */
     public boolean isLegalMove(TwoPhaseMove<Position> move) {
-        return isLegalToMoveFrom(move.from())
-                && isOnBoard(move.to())
-                && isEmpty(move.to())
-                && isKingMove(move.from(), move.to());
+        return state.isLegalMove(move);
     }
     /**
      * Actually performs the move. You can step twice with your disks.
+     * Every move is measured by a {@link MoveEvent}, and the end of the game is recorded by a {@link GameOverEvent}.
      * Conditions:
      * 1) Both disks move in the same direction.
      * 2) You must use two different disks.
@@ -90,52 +142,67 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      */
     @Override
     public void makeMove(TwoPhaseMove<Position> move) {
-        if (pendingMove == null) {
-            if (isLegalMove(move)) {
-                setSquare(move.to(), getSquare(move.from()));
-                setSquare(move.from(), Square.NONE);
-                pendingMove = move;
-                countSteps++;
-                isGameOver();
+        tryMove(move);
+    }
+
+    /**
+     * Performs the move if it is legal, see {@link #makeMove(TwoPhaseMove)}.
+     * Unlike {@link #isLegalMove(TwoPhaseMove)}, the second move of a turn is also checked to go
+     * in the direction of the first one with another disk.
+     *
+     * @param move a move from one position to another, possibly off the board
+     * @return {@code true} if the move was performed, {@code false} if it was illegal
+     */
+    public boolean tryMove(TwoPhaseMove<Position> move) {
+        var event = MoveEvent.start();
+        var player = state.getNextPlayer();
+        var legal = state.makeMove(indexOf(move.from()), indexOf(move.to()));
+        var gameOver = isGameOver();
+        if (legal) {
+            syncSquare(move.from());
+            syncSquare(move.to());
+            nextPlayer.set(state.getNextPlayer());
+            if (!state.hasValidSecondMove()) {
+                Logger.info("Game Over! You don't have any second move to continue the game");
             }
-        } else {
-
-            if (isLegalMove(move) && isSameDirection(move) && isDifferentPieces(move)) {
-                setSquare(move.to(), getSquare(move.from()));
-                setSquare(move.from(), Square.NONE);
-                countSteps++;
-
-                if(countSteps == 2) {
-                    nextPlayer.set(nextPlayer.get().opponent());
-                    pendingMove = null;
-                    countSteps = 0;
-                }
+            if (gameOver) {
+                GameOverEvent.record(getWinnerName(), getLoserName(), state.getBoardSize());
             }
         }
+        event.finish(move.from(), move.to(), player, legal, gameOver);
+        return legal;
     }
 
-    private boolean isDifferentPieces(TwoPhaseMove<Position> move) {
-        return !pendingMove.to().equals(move.from());
-    }
-
-
-    private boolean isSameDirection(TwoPhaseMove<Position> move) {
-        return pendingMove.to().row() - pendingMove.from().row() == move.to().row() - move.from().row()
-                && pendingMove.to().col() - pendingMove.from().col() == move.to().col() - move.from().col();
-    }
-
-    private boolean isEmpty(Position p) {
-        return getSquare(p) == Square.NONE;
-    }
-
-    private static boolean isOnBoard(Position p) {
-        return 0 <= p.row() && p.row() < BOARD_SIZE && 0 <= p.col() && p.col() < BOARD_SIZE;
+    /**
+     * Performs a full turn, e.g. one chosen by a computer player. If the game is over after the first move,
+     * the second one is not made.
+     *
+     * @param turn the turn, encoded by {@link Turn}
+     */
+    public void makeTurn(int turn) {
+        makeMove(new TwoPhaseMove<>(BitboardState.positionOf(Turn.firstFrom(turn)),
+                BitboardState.positionOf(Turn.firstTo(turn))));
+        if (!isGameOver()) {
+            makeMove(new TwoPhaseMove<>(BitboardState.positionOf(Turn.secondFrom(turn)),
+                    BitboardState.positionOf(Turn.secondTo(turn))));
+        }
     }
 
-    private static boolean isKingMove(Position from, Position to) {
-        var dx = Math.abs(to.row() - from.row());
-        var dy = Math.abs(to.col() - from.col());
-        return dx + dy == 1 || dx * dy == 1;
+    /**
+     * Takes back the last move, including the first move of a turn that is not complete yet.
+     *
+     * @return {@code true} if a move was taken back, {@code false} if no move was made yet
+     */
+    public boolean undo() {
+        var from = state.getLastMoveFrom();
+        var to = state.getLastMoveTo();
+        if (!state.unmakeMove()) {
+            return false;
+        }
+        syncSquare(positionOf(from));
+        syncSquare(positionOf(to));
+        nextPlayer.set(state.getNextPlayer());
+        return true;
     }
 
     /**
@@ -158,54 +225,8 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      */
     @Override
     public boolean isGameOver() {
-        int redInLastRow = 0;
-        int bluInFirstRow = 0;
-        Player currentPlayer = getNextPlayer();
-
-
-        for (var i = 0; i < BOARD_SIZE; i++) {
-            for (var j = 0; j < BOARD_SIZE; j++) {
-                Square s = board[i][j].get();
-                if (s == Square.RED && i == 0) {
-                    redInLastRow++;
-                } else if (s == Square.BLUE && i == BOARD_SIZE - 1) {
-                    bluInFirstRow++;
-                }
-            }
-        }
-        if(pendingMove != null) {
-            int dx = pendingMove.to().row() - pendingMove.from().row();
-            int dy = pendingMove.to().col() - pendingMove.from().col();
-            boolean hasValidSecondMove = false;
-            Square playerDisk = currentPlayer == Player.PLAYER_1 ? Square.RED : Square.BLUE;
-
-            for (int i = 0; i < BOARD_SIZE; i++) {
-                for (int j = 0; j < BOARD_SIZE; j++) {
-                    Position from = new Position(i, j);
-                    if (getSquare(from) == playerDisk && !from.equals(pendingMove.to())) {
-                        Position to = new Position(i + dx, j + dy);
-                        if (isOnBoard(to) && isEmpty(to) && isKingMove(from, to)) {
-                            hasValidSecondMove = true;
-                            break;
-                        }
-                    }
-                }
-            }
-            if (!hasValidSecondMove) {
-                player = getNextPlayer().opponent();
-                System.out.println("Game Over! You don't have any second move to continue the game");
-                return true;
-            }
-        }
-        if(redInLastRow == 5) {
-            player = currentPlayer;
-            return true;
-        }
-        if (bluInFirstRow == 5) {
-            player = currentPlayer;
-            return true;
-        }
-        return false;
+        GameMetrics.countGameOverCheck();
+        return state.isGameOver();
     }
 
 
@@ -216,10 +237,7 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      */
     @Override
     public Status getStatus() {
-        if(!isGameOver()) {
-            return Status.IN_PROGRESS;
-        }
-        return player == Player.PLAYER_1 ? Status.PLAYER_1_WINS : Status.PLAYER_2_WINS;
+        return state.getStatus();
     }
 
     /**
@@ -229,11 +247,32 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      * @return {@code true} if legal, otherwise {@code false}
      */
     public boolean isLegalToMoveFrom(Position from) {
-        return isOnBoard(from) && !isEmpty(from)
-                && ((nextPlayer.get() == Player.PLAYER_1 && getSquare(from) == Square.RED)
-                || (nextPlayer.get() == Player.PLAYER_2 && getSquare(from) == Square.BLUE));
+        return state.isLegalToMoveFrom(from);
+    }
+
+
+    /**
+     * Get a copy of the rules engine state, e.g. for a computer player to search on.
+     *
+     * @return a copy of the current state
+     * @throws UnsupportedOperationException if the board is not of {@code BOARD_SIZE}, see {@link #isStandardSize()}
+     */
+    public BitboardState copyState() {
+        if (!(state instanceof BitboardState bitboard)) {
+            throw new UnsupportedOperationException("No bitboards of a board of size " + state.getBoardSize());
+        }
+        return new BitboardState(bitboard);
     }
 
+    /**
+     * Get the Zobrist key of the current position, including the next player and the pending first move.
+     * Equal positions have equal keys, also between runs of the program.
+     *
+     * @return the 64-bit key of the position
+     */
+    public long getHash() {
+        return state.getHash();
+    }
 
     /**
      * Get the name of the winner player
@@ -241,7 +280,7 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      */
 
     public String getWinnerName() {
-        return switch (player) {
+        return switch (state.getWinner()) {
             case PLAYER_1 -> player1Name;
             case PLAYER_2 -> player2Name;
         };
@@ -253,12 +292,30 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
      */
 
     public String getLoserName() {
-        return switch (player) {
+        return switch (state.getWinner()) {
             case PLAYER_1 -> player2Name;
             case PLAYER_2 -> player1Name;
         };
     }
 
+    /**
+     * Get the name of the first player, moving the red disks
+     * @return name of player 1
+     */
+
+    public String getPlayer1Name() {
+        return player1Name;
+    }
+
+    /**
+     * Get the name of the second player, moving the blue disks
+     * @return name of player 2
+     */
+
+    public String getPlayer2Name() {
+        return player2Name;
+    }
+
     /**
      * Set names of players
      * @param player1Name name of player 1
@@ -287,20 +344,14 @@ public class BoardGameModel implements TwoPhaseMoveState<Position> {
 
     //For testing isGameOver() method.
     void setTestSquare(Position p, Square s) {
-        board[p.row()][p.col()].set(s);
+        state.setSquare(indexOf(p), s);
+        syncSquare(p);
     }
 
 
     @Override
     public String toString() {
-        var sb = new StringBuilder();
-        for (var i = 0; i < BOARD_SIZE; i++) {
-            for (var j = 0; j < BOARD_SIZE; j++) {
-                sb.append(board[i][j].get().ordinal()).append(' ');
-            }
-            sb.append('\n');
-        }
-        return sb.toString();
+        return state.toString();
     }
 
 }
@@ -0,0 +1,228 @@
+package boardgame.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The configuration of a board: its size and its obstacles. The blue disks start in the first row
+ * and the red disks in the last row, so every player has as many disks as the board has columns,
+ * and the obstacles are in the rows between them.
+ * A layout can be given by a map of rows, with {@code #} for an obstacle and {@code .} for an empty square, e.g.
+ * <pre>
+ * .....
+ * .#.#.
+ * .....
+ * .#.#.
+ * .....
+ * </pre>
+ * The layout of the games of the program is given by the system properties {@value #SIZE_PROPERTY}
+ * and {@value #MAP_PROPERTY}, see {@link #getConfigured()}.
+ */
+public final class BoardLayout {
+
+    /**
+     * The system property of the size of the board, with the obstacles of {@link #standard(int)}.
+     */
+    public static final String SIZE_PROPERTY = "boardgame.boardSize";
+
+    /**
+     * The system property of the file of a board map, which overrides {@value #SIZE_PROPERTY}.
+     */
+    public static final String MAP_PROPERTY = "boardgame.boardMap";
+
+    /**
+     * The smallest size of a board.
+     */
+    public static final int MIN_SIZE = 3;
+
+    /**
+     * The largest size of a board.
+     */
+    public static final int MAX_SIZE = 32;
+
+    /**
+     * The layout of the original game, with {@link BoardGameModel#BOARD_SIZE} rows and columns.
+     */
+    public static final BoardLayout DEFAULT = standard(BoardGameModel.BOARD_SIZE);
+
+    private final int size;
+
+    private final boolean[] obstacles;
+
+    private BoardLayout(int size, boolean[] obstacles) {
+        this.size = size;
+        this.obstacles = obstacles;
+    }
+
+    /**
+     * Creates a layout with the obstacles of the original game: in rows 1 and {@code size - 2},
+     * in the odd columns except the last one.
+     *
+     * @param size the number of rows and columns
+     * @return the layout
+     * @throws IllegalArgumentException if the size is not between {@value #MIN_SIZE} and {@value #MAX_SIZE}
+     */
+    public static BoardLayout standard(int size) {
+        checkSize(size);
+        var obstacles = new ArrayList<Position>();
+        for (var col = 1; col < size - 1; col += 2) {
+            obstacles.add(new Position(1, col));
+            obstacles.add(new Position(size - 2, col));
+        }
+        return of(size, obstacles);
+    }
+
+    /**
+     * Creates a layout.
+     *
+     * @param size the number of rows and columns
+     * @param obstacles the positions of the obstacles
+     * @return the layout
+     * @throws IllegalArgumentException if the size is not between {@value #MIN_SIZE} and {@value #MAX_SIZE}
+     *         or an obstacle is not between the first and the last row
+     */
+    public static BoardLayout of(int size, Collection<Position> obstacles) {
+        checkSize(size);
+        var squares = new boolean[size * size];
+        for (var p : obstacles) {
+            if (p.row() < 1 || p.row() > size - 2 || p.col() < 0 || p.col() >= size) {
+                throw new IllegalArgumentException("Obstacles must be between the rows of the disks: " + p);
+            }
+            squares[p.row() * size + p.col()] = true;
+        }
+        return new BoardLayout(size, squares);
+    }
+
+    /**
+     * Creates a layout from a map of rows, see {@link BoardLayout}. Blank lines are skipped.
+     *
+     * @param map the rows of the board
+     * @return the layout
+     * @throws IllegalArgumentException if the map is not square, has other characters than {@code #} and {@code .}
+     *         or an obstacle is in the first or the last row
+     */
+    public static BoardLayout parse(String map) {
+        var rows = map.lines().map(String::strip).filter(line -> !line.isEmpty()).toList();
+        var obstacles = new ArrayList<Position>();
+        for (var row = 0; row < rows.size(); row++) {
+            var line = rows.get(row);
+            if (line.length() != rows.size()) {
+                throw new IllegalArgumentException("Expected " + rows.size() + " squares in row " + row + ": " + line);
+            }
+            for (var col = 0; col < line.length(); col++) {
+                switch (line.charAt(col)) {
+                    case '#' -> obstacles.add(new Position(row, col));
+                    case '.' -> { }
+                    default -> throw new IllegalArgumentException("Invalid square in row " + row + ": " + line);
+                }
+            }
+        }
+        return of(rows.size(), obstacles);
+    }
+
+    /**
+     * Reads a layout from the file of a map, see {@link #parse(String)}.
+     *
+     * @param file the file of the map
+     * @return the layout
+     * @throws IOException if the file cannot be read
+     */
+    public static BoardLayout load(Path file) throws IOException {
+        return parse(Files.readString(file));
+    }
+
+    /**
+     * Get the layout given by the system properties: the map of {@value #MAP_PROPERTY} if it is set,
+     * otherwise the standard layout of {@value #SIZE_PROPERTY}, otherwise {@link #DEFAULT}.
+     *
+     * @return the layout
+     * @throws UncheckedIOException if the map cannot be read
+     * @throws IllegalArgumentException if the size or the map is not valid
+     */
+    public static BoardLayout getConfigured() {
+        var map = System.getProperty(MAP_PROPERTY);
+        if (map != null) {
+            try {
+                return load(Path.of(map));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        var size = System.getProperty(SIZE_PROPERTY);
+        return size == null ? DEFAULT : standard(Integer.parseInt(size.strip()));
+    }
+
+    private static void checkSize(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("The size must be between " + MIN_SIZE + " and " + MAX_SIZE + ": " + size);
+        }
+    }
+
+    /**
+     * Get the size of the board.
+     *
+     * @return the number of rows and columns
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Check if a square is an obstacle.
+     *
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return {@code true} if the square is a {@link Square#BLACK} obstacle
+     */
+    public boolean isObstacle(int row, int col) {
+        return obstacles[row * size + col];
+    }
+
+    /**
+     * Get the obstacles.
+     *
+     * @return the positions of the obstacles, row by row
+     */
+    public List<Position> getObstacles() {
+        var positions = new ArrayList<Position>();
+        for (var square = 0; square < obstacles.length; square++) {
+            if (obstacles[square]) {
+                positions.add(new Position(square / size, square % size));
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BoardLayout other && size == other.size && Arrays.equals(obstacles, other.obstacles);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(obstacles);
+    }
+
+    /**
+     * Get the map of the layout, see {@link #parse(String)}.
+     *
+     * @return the rows of the board, each followed by a line separator
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (var square = 0; square < obstacles.length; square++) {
+            sb.append(obstacles[square] ? '#' : '.');
+            if (square % size == size - 1) {
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
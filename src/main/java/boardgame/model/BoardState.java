@@ -0,0 +1,113 @@
+package boardgame.model;
+
+import game.TwoPhaseMoveState;
+
+/**
+ * The rules engine of a board, the state behind {@link BoardGameModel}.
+ * The squares are numbered row by row, square {@code row * size + col} is in the given row and column.
+ * {@link BitboardState} holds the boards of {@link BoardGameModel#BOARD_SIZE} rows and columns
+ * that the computer players work on, {@link LargeBoardState} holds a board of any {@link BoardLayout}.
+ */
+public sealed interface BoardState extends TwoPhaseMoveState<Position> permits BitboardState, LargeBoardState {
+
+    /**
+     * Get the size of the board.
+     *
+     * @return the number of rows and columns
+     */
+    int getBoardSize();
+
+    /**
+     * Get a {@code Square} in a given position.
+     *
+     * @param p the position of the square, on the board
+     * @return a square in the given position
+     */
+    Square getSquare(Position p);
+
+    /**
+     * Get a {@code Square} by its index.
+     *
+     * @param square the index of the square
+     * @return the square
+     */
+    Square getSquare(int square);
+
+    /**
+     * Replaces a square, keeping the move history, e.g. to set up a position for a test.
+     *
+     * @param square the index of the square
+     * @param s the new content of the square
+     */
+    void setSquare(int square, Square s);
+
+    /**
+     * Check if a move between two squares is legal or not, see {@link #isLegalMove(Object)}.
+     *
+     * @param from the index of the square to move from
+     * @param to the index of the square to move to
+     * @return {@code true} if the move is legal, otherwise {@code false}
+     */
+    boolean isLegalMove(int from, int to);
+
+    /**
+     * Performs a move between two squares, if it is legal, see {@link #makeMove(Object)}.
+     *
+     * @param from the index of the square to move from
+     * @param to the index of the square to move to
+     * @return {@code true} if the move was performed, otherwise {@code false}
+     */
+    boolean makeMove(int from, int to);
+
+    /**
+     * Takes back the last move made by {@link #makeMove(int, int)}, restoring the next player
+     * and the pending first move as well.
+     *
+     * @return {@code true} if a move was taken back, {@code false} if there is no move to take back
+     */
+    boolean unmakeMove();
+
+    /**
+     * Get the square the last move started from.
+     *
+     * @return the index of the square, or {@link BitboardState#NO_SQUARE} if there is no move in the history
+     */
+    int getLastMoveFrom();
+
+    /**
+     * Get the square the last move arrived at.
+     *
+     * @return the index of the square, or {@link BitboardState#NO_SQUARE} if there is no move in the history
+     */
+    int getLastMoveTo();
+
+    /**
+     * Check if the first phase of a turn has been made.
+     *
+     * @return {@code true} if a first move is waiting for its second move
+     */
+    boolean hasPendingMove();
+
+    /**
+     * Check if the second move of the turn can be made: another disk of the player
+     * can step in the direction of the pending move.
+     *
+     * @return {@code true} if there is a valid second move or there is no pending move
+     */
+    boolean hasValidSecondMove();
+
+    /**
+     * Get the key of the position, including the next player and the pending first move.
+     * It is maintained incrementally by every move and taken back move.
+     *
+     * @return the 64-bit key of the position
+     */
+    long getHash();
+
+    /**
+     * Get the winner of the game.
+     *
+     * @return the winner, or {@code null} if the game is in progress
+     */
+    Player getWinner();
+}
@@ -1,7 +1,13 @@
 package boardgame.model;
 
+import boardgame.ai.AlphaBetaSearch;
+import boardgame.ai.ComputerOpponent;
+import game.State;
+import game.TwoPhaseMoveState;
 import game.console.TwoPhaseMoveGame;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -9,8 +15,17 @@ import java.util.Scanner;
  */
 
 public class ConsoleGame {
+    /**
+     * Starts the game in the console. With the {@code --computer} argument the second player
+     * is played by the computer, on a board of {@link BoardGameModel#BOARD_SIZE}.
+     * @param args command line arguments.
+     */
     public static void main(String[] args) {
-        var state = new BoardGameModel();
+        var model = new BoardGameModel();
+        TwoPhaseMoveState<Position> state = model;
+        if (Arrays.asList(args).contains("--computer") && model.isStandardSize()) {
+            state = new ComputerOpponent(model, new AlphaBetaSearch(Duration.ofSeconds(1)), State.Player.PLAYER_2);
+        }
         var game = new TwoPhaseMoveGame<>(state, ConsoleGame::parseMove);
         Position p = new Position(1, 2);
 
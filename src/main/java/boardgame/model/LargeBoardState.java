@@ -0,0 +1,422 @@
+package boardgame.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The rules engine of a board of any {@link BoardLayout}, up to {@link BoardLayout#MAX_SIZE} rows and columns.
+ * The disks and the obstacles are multi-word bit sets, bit {@code square % 64} of word {@code square / 64}
+ * stands for a square. The neighbours of every square are precomputed, so a move check and a step
+ * are table lookups instead of row and column arithmetic. The number of disks in the goal rows is maintained
+ * by every move, and the second move check only visits the disks of the player, so the end of the game
+ * is evaluated in time linear in the size of the board, not in the number of squares.
+ * It implements the same rules as {@link BitboardState}.
+ */
+public final class LargeBoardState implements BoardState {
+
+    private static final int NO_SQUARE = BitboardState.NO_SQUARE;
+
+    private static final int DIRECTIONS = BitboardState.DIRECTION_COUNT;
+
+    private static final int[] ROW_STEP = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COL_STEP = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    /**
+     * The seed of the keys of the positions, the keys of a size are the same between runs.
+     */
+    private static final long SEED = 0x1A26_E5EEDL;
+
+    private static final int SQUARE_BITS = 16;
+    private static final long SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    private final int size;
+    private final int squareCount;
+
+    /**
+     * The neighbour of square {@code s} in direction {@code d} at index {@code s * 8 + d},
+     * or {@link BitboardState#NO_SQUARE} at the edge of the board. Shared by the copies of a state.
+     */
+    private final int[] neighbours;
+
+    /**
+     * The keys of the red disks, the blue disks, the obstacles, the pending first move (from and to)
+     * of every square, then the key of the second player. Shared by the copies of a state.
+     */
+    private final long[] keys;
+
+    private final long[] red;
+    private final long[] blue;
+    private final long[] black;
+
+    private Player nextPlayer = Player.PLAYER_1;
+
+    private int pendingFrom = NO_SQUARE;
+    private int pendingTo = NO_SQUARE;
+
+    private int redInGoal;
+    private int blueInGoal;
+
+    private Status status = Status.IN_PROGRESS;
+    private Player winner;
+
+    private long hash;
+
+    /**
+     * Moves made so far, each packed as the from and to squares (16 bits each)
+     * followed by the pending move before it, with both of its squares incremented by one.
+     */
+    private long[] history = new long[16];
+    private int historySize;
+
+    /**
+     * Creates the starting position of a layout: blue disks in the first row, red disks in the last row
+     * and the obstacles of the layout.
+     *
+     * @param layout the layout of the board
+     */
+    public LargeBoardState(BoardLayout layout) {
+        size = layout.getSize();
+        squareCount = size * size;
+        neighbours = new int[squareCount * DIRECTIONS];
+        for (var sq = 0; sq < squareCount; sq++) {
+            for (var d = 0; d < DIRECTIONS; d++) {
+                var row = sq / size + ROW_STEP[d];
+                var col = sq % size + COL_STEP[d];
+                neighbours[sq * DIRECTIONS + d] = 0 <= row && row < size && 0 <= col && col < size
+                        ? row * size + col : NO_SQUARE;
+            }
+        }
+        keys = new long[squareCount * 5 + 1];
+        var random = new SplittableRandom(SEED + size);
+        for (var i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        var words = (squareCount + Long.SIZE - 1) / Long.SIZE;
+        red = new long[words];
+        blue = new long[words];
+        black = new long[words];
+        for (var col = 0; col < size; col++) {
+            set(blue, col);
+            set(red, squareCount - size + col);
+            hash ^= keys[col + squareCount] ^ keys[squareCount - size + col];
+        }
+        for (var p : layout.getObstacles()) {
+            var sq = p.row() * size + p.col();
+            set(black, sq);
+            hash ^= keys[2 * squareCount + sq];
+        }
+    }
+
+    /**
+     * Creates a copy of another state.
+     *
+     * @param other the state to copy
+     */
+    public LargeBoardState(LargeBoardState other) {
+        size = other.size;
+        squareCount = other.squareCount;
+        neighbours = other.neighbours;
+        keys = other.keys;
+        red = other.red.clone();
+        blue = other.blue.clone();
+        black = other.black.clone();
+        nextPlayer = other.nextPlayer;
+        pendingFrom = other.pendingFrom;
+        pendingTo = other.pendingTo;
+        redInGoal = other.redInGoal;
+        blueInGoal = other.blueInGoal;
+        status = other.status;
+        winner = other.winner;
+        hash = other.hash;
+        history = Arrays.copyOf(other.history, other.history.length);
+        historySize = other.historySize;
+    }
+
+    private static boolean get(long[] bits, int square) {
+        return (bits[square >>> 6] & 1L << square) != 0;
+    }
+
+    private static void set(long[] bits, int square) {
+        bits[square >>> 6] |= 1L << square;
+    }
+
+    private static void clear(long[] bits, int square) {
+        bits[square >>> 6] &= ~(1L << square);
+    }
+
+    @Override
+    public int getBoardSize() {
+        return size;
+    }
+
+    private int indexOf(Position p) {
+        return 0 <= p.row() && p.row() < size && 0 <= p.col() && p.col() < size ? p.row() * size + p.col() : NO_SQUARE;
+    }
+
+    @Override
+    public Square getSquare(Position p) {
+        return getSquare(p.row() * size + p.col());
+    }
+
+    @Override
+    public Square getSquare(int square) {
+        if (get(red, square)) {
+            return Square.RED;
+        }
+        if (get(blue, square)) {
+            return Square.BLUE;
+        }
+        return get(black, square) ? Square.BLACK : Square.NONE;
+    }
+
+    @Override
+    public void setSquare(int square, Square s) {
+        hash ^= key(square);
+        if (get(red, square) && isGoal(Player.PLAYER_1, square)) {
+            redInGoal--;
+        }
+        if (get(blue, square) && isGoal(Player.PLAYER_2, square)) {
+            blueInGoal--;
+        }
+        clear(red, square);
+        clear(blue, square);
+        clear(black, square);
+        switch (s) {
+            case RED -> set(red, square);
+            case BLUE -> set(blue, square);
+            case BLACK -> set(black, square);
+            case NONE -> { }
+        }
+        if (s == Square.RED && isGoal(Player.PLAYER_1, square)) {
+            redInGoal++;
+        }
+        if (s == Square.BLUE && isGoal(Player.PLAYER_2, square)) {
+            blueInGoal++;
+        }
+        hash ^= key(square);
+        updateStatus();
+    }
+
+    private long key(int square) {
+        return switch (getSquare(square)) {
+            case NONE -> 0;
+            case RED -> keys[square];
+            case BLUE -> keys[squareCount + square];
+            case BLACK -> keys[2 * squareCount + square];
+        };
+    }
+
+    private boolean isGoal(Player p, int square) {
+        return p == Player.PLAYER_1 ? square < size : square >= squareCount - size;
+    }
+
+    private long[] disks(Player p) {
+        return p == Player.PLAYER_1 ? red : blue;
+    }
+
+    private boolean isEmpty(int square) {
+        return !get(red, square) && !get(blue, square) && !get(black, square);
+    }
+
+    /**
+     * Get the direction of a step between neighbour squares.
+     *
+     * @return the direction, or {@code -1} if the squares are not neighbours
+     */
+    private int direction(int from, int to) {
+        var base = from * DIRECTIONS;
+        for (var d = 0; d < DIRECTIONS; d++) {
+            if (neighbours[base + d] == to) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isLegalMove(TwoPhaseMove<Position> move) {
+        return isLegalMove(indexOf(move.from()), indexOf(move.to()));
+    }
+
+    @Override
+    public boolean isLegalMove(int from, int to) {
+        return from >= 0 && from < squareCount && to >= 0 && to < squareCount
+                && get(disks(nextPlayer), from)
+                && isEmpty(to)
+                && direction(from, to) >= 0;
+    }
+
+    @Override
+    public void makeMove(TwoPhaseMove<Position> move) {
+        makeMove(indexOf(move.from()), indexOf(move.to()));
+    }
+
+    @Override
+    public boolean makeMove(int from, int to) {
+        if (!isLegalMove(from, to)) {
+            return false;
+        }
+        var entry = from | (long) to << SQUARE_BITS | (long) (pendingFrom + 1) << 2 * SQUARE_BITS
+                | (long) (pendingTo + 1) << 3 * SQUARE_BITS;
+        if (pendingTo == NO_SQUARE) {
+            moveDisk(from, to);
+            setPendingMove(from, to);
+        } else {
+            if (direction(from, to) != direction(pendingFrom, pendingTo) || from == pendingTo) {
+                return false;
+            }
+            moveDisk(from, to);
+            switchPlayer();
+            setPendingMove(NO_SQUARE, NO_SQUARE);
+        }
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+        history[historySize++] = entry;
+        updateStatus();
+        return true;
+    }
+
+    @Override
+    public boolean unmakeMove() {
+        if (historySize == 0) {
+            return false;
+        }
+        var entry = history[--historySize];
+        moveDisk((int) (entry >>> SQUARE_BITS & SQUARE_MASK), (int) (entry & SQUARE_MASK));
+        if (pendingTo == NO_SQUARE) {
+            switchPlayer();
+        }
+        setPendingMove((int) (entry >>> 2 * SQUARE_BITS & SQUARE_MASK) - 1,
+                (int) (entry >>> 3 * SQUARE_BITS & SQUARE_MASK) - 1);
+        updateStatus();
+        return true;
+    }
+
+    @Override
+    public int getLastMoveFrom() {
+        return historySize == 0 ? NO_SQUARE : (int) (history[historySize - 1] & SQUARE_MASK);
+    }
+
+    @Override
+    public int getLastMoveTo() {
+        return historySize == 0 ? NO_SQUARE : (int) (history[historySize - 1] >>> SQUARE_BITS & SQUARE_MASK);
+    }
+
+    private void moveDisk(int from, int to) {
+        if (get(red, from)) {
+            clear(red, from);
+            set(red, to);
+            redInGoal += (to < size ? 1 : 0) - (from < size ? 1 : 0);
+            hash ^= keys[from] ^ keys[to];
+        } else {
+            clear(blue, from);
+            set(blue, to);
+            var goal = squareCount - size;
+            blueInGoal += (to >= goal ? 1 : 0) - (from >= goal ? 1 : 0);
+            hash ^= keys[squareCount + from] ^ keys[squareCount + to];
+        }
+    }
+
+    private void setPendingMove(int from, int to) {
+        if (pendingTo != NO_SQUARE) {
+            hash ^= keys[3 * squareCount + pendingFrom] ^ keys[4 * squareCount + pendingTo];
+        }
+        pendingFrom = from;
+        pendingTo = to;
+        if (to != NO_SQUARE) {
+            hash ^= keys[3 * squareCount + from] ^ keys[4 * squareCount + to];
+        }
+    }
+
+    private void switchPlayer() {
+        nextPlayer = nextPlayer.opponent();
+        hash ^= keys[5 * squareCount];
+    }
+
+    @Override
+    public boolean isLegalToMoveFrom(Position from) {
+        var square = indexOf(from);
+        return square != NO_SQUARE && get(disks(nextPlayer), square);
+    }
+
+    @Override
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    @Override
+    public boolean hasPendingMove() {
+        return pendingTo != NO_SQUARE;
+    }
+
+    @Override
+    public boolean hasValidSecondMove() {
+        if (pendingTo == NO_SQUARE) {
+            return true;
+        }
+        var d = direction(pendingFrom, pendingTo);
+        var disks = disks(nextPlayer);
+        for (var word = 0; word < disks.length; word++) {
+            for (var bits = disks[word]; bits != 0; bits &= bits - 1) {
+                var sq = word << 6 | Long.numberOfTrailingZeros(bits);
+                var target = neighbours[sq * DIRECTIONS + d];
+                if (sq != pendingTo && target != NO_SQUARE && isEmpty(target)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the game over rules after every change of the board, see {@link BitboardState}.
+     * The game ends when all of your disks are on the opponent's side.
+     * However, if you move a disk and you are not able to move another disk in the same direction,
+     * the opponent wins the game.
+     */
+    private void updateStatus() {
+        if (!hasValidSecondMove()) {
+            winner = nextPlayer.opponent();
+        } else if (redInGoal == size || blueInGoal == size) {
+            winner = nextPlayer;
+        } else {
+            winner = null;
+            status = Status.IN_PROGRESS;
+            return;
+        }
+        status = winner == Player.PLAYER_1 ? Status.PLAYER_1_WINS : Status.PLAYER_2_WINS;
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public Player getWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (var i = 0; i < size; i++) {
+            for (var j = 0; j < size; j++) {
+                sb.append(getSquare(i * size + j).ordinal()).append(' ');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
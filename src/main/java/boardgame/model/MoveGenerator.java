@@ -0,0 +1,76 @@
+package boardgame.model;
+
+/**
+ * Lists the legal full turns of a {@link BitboardState} into a caller-supplied buffer.
+ * A full turn moves two different disks of the next player in the same king direction.
+ * When both orders of the two moves are legal they lead to the same position, so the turn is listed once.
+ * The generator allocates nothing, it can be called on the hot path of search and simulation code.
+ */
+public final class MoveGenerator {
+
+    /**
+     * Upper bound of the number of turns in any position, the minimum size of a buffer.
+     */
+    public static final int MAX_TURNS = BitboardState.DIRECTION_COUNT
+            * BitboardState.BOARD_SIZE * (BitboardState.BOARD_SIZE - 1) / 2;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Writes every legal turn to the start of the buffer.
+     *
+     * @param state the state of the game
+     * @param turns the buffer, encoded by {@link Turn}
+     * @return the number of turns written
+     */
+    public static int generate(BitboardState state, int[] turns) {
+        return generate(state, turns, 0);
+    }
+
+    /**
+     * Writes every legal turn to the buffer, starting at the given offset.
+     * If the first move of the turn is already pending, the turns that complete it are written.
+     *
+     * @param state the state of the game
+     * @param turns the buffer, encoded by {@link Turn}
+     * @param offset the index of the first turn in the buffer
+     * @return the number of turns written
+     */
+    public static int generate(BitboardState state, int[] turns, int offset) {
+        var own = state.getDisks(state.getNextPlayer());
+        var empty = state.getEmptySquares();
+        var count = offset;
+        if (state.hasPendingMove()) {
+            var first = state.getPendingFrom();
+            var direction = BitboardState.directionOf(first, state.getPendingTo());
+            var delta = BitboardState.DELTA[direction];
+            var movable = own & ~(1 << state.getPendingTo()) & BitboardState.SOURCE_MASK[direction];
+            for (var rest = movable; rest != 0; rest &= rest - 1) {
+                var second = Integer.numberOfTrailingZeros(rest);
+                if ((empty & 1 << second + delta) != 0) {
+                    turns[count++] = Turn.of(first, second, direction);
+                }
+            }
+            return count - offset;
+        }
+        for (var direction = 0; direction < BitboardState.DIRECTION_COUNT; direction++) {
+            var delta = BitboardState.DELTA[direction];
+            var movable = own & BitboardState.SOURCE_MASK[direction];
+            for (var firsts = movable; firsts != 0; firsts &= firsts - 1) {
+                var first = Integer.numberOfTrailingZeros(firsts);
+                if ((empty & 1 << first + delta) == 0) {
+                    continue;
+                }
+                for (var seconds = movable & ~(1 << first); seconds != 0; seconds &= seconds - 1) {
+                    var second = Integer.numberOfTrailingZeros(seconds);
+                    var target = second + delta;
+                    if (target == first || second > first && (empty & 1 << target) != 0) {
+                        turns[count++] = Turn.of(first, second, direction);
+                    }
+                }
+            }
+        }
+        return count - offset;
+    }
+}
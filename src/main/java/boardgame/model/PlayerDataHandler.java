@@ -1,22 +1,148 @@
 package boardgame.model;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.rating.EloRating;
+import boardgame.rating.GameResultLog;
+import boardgame.rating.Leaderboard;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import org.tinylog.Logger;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 
 /**
- * This class is for file handling. Storing the players in a JSON file
+ * This class is for file handling. Storing the players in a {@link PlayerStore}.
+ * Changes go through a {@link RatingWriter}, so the callers never wait on the disk: the changes are written
+ * in batches at most {@code FLUSH_INTERVAL} later, and the player file is replaced when the store is closed.
+ * The player file is JSON, or Smile when the system property {@value #FORMAT_PROPERTY} is {@code smile}.
+ * The players are imported from the player file, or from the JSON file if there is no Smile file yet,
+ * when the store is created. The finished games are kept in a {@link GameArchive}, appended by the writer too.
  */
 
 public class PlayerDataHandler {
 
-    private static final String FILE_NAME = "jatekosok.json";
-    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    /**
+     * The system property of the format of the player file, {@code json} or {@code smile}.
+     */
+    public static final String FORMAT_PROPERTY = "boardgame.playerFormat";
+
+    /**
+     * The system property of the directory of the files of the players and the games,
+     * the working directory by default. It is read when the store is opened.
+     */
+    public static final String DIRECTORY_PROPERTY = "boardgame.dataDirectory";
+
+    private static final String FILE_NAME = "jatekosok";
+    private static final String STORE_FILE_NAME = "jatekosok.log";
+    private static final String RESULTS_FILE_NAME = "eredmenyek.log";
+    private static final String ARCHIVE_FILE_NAME = "jatszmak.dat";
+
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(500);
+
+    private static PlayerStore store;
+    private static RatingWriter writer;
+    private static Leaderboard leaderboard;
+    private static GameArchive archive;
+
+    /**
+     * Get the store of the players, opening it at the first call.
+     * A new store imports the players of the player file.
+     *
+     * @return the store of the players
+     * @throws IOException if the store cannot be opened
+     */
+    public static synchronized PlayerStore getStore() throws IOException {
+        if (store == null) {
+            var format = PlayerFile.Format.valueOf(
+                    System.getProperty(FORMAT_PROPERTY, "json").toUpperCase(Locale.ROOT));
+            var players = file(FILE_NAME + format.getExtension());
+            var storeFile = file(STORE_FILE_NAME);
+            var created = Files.notExists(storeFile);
+            store = new PlayerStore(storeFile);
+            if (created) {
+                var imported = Files.exists(players) ? players
+                        : file(FILE_NAME + PlayerFile.Format.JSON.getExtension());
+                if (Files.exists(imported)) {
+                    Logger.info("Imported {} players from {}", store.importPlayers(imported), imported);
+                }
+            }
+            leaderboard = new Leaderboard();
+            store.addListener(leaderboard::update);
+            for (var player : store.getAll()) {
+                leaderboard.update(player.getName(), player.getEloPoint());
+            }
+            writer = new RatingWriter(store, new GameResultLog(file(RESULTS_FILE_NAME)), file(ARCHIVE_FILE_NAME),
+                    new EloRating(), players, FLUSH_INTERVAL, true);
+            Runtime.getRuntime().addShutdownHook(new Thread(PlayerDataHandler::closeStore));
+        }
+        return store;
+    }
+
+    /**
+     * Get the players ordered by rating, kept up to date with every change of the store.
+     *
+     * @return the leaderboard
+     * @throws IOException if the store cannot be opened
+     */
+    public static synchronized Leaderboard getLeaderboard() throws IOException {
+        getStore();
+        return leaderboard;
+    }
+
+    /**
+     * Get the archive of the finished games, opening it at the first call.
+     *
+     * @return the archive of the games
+     * @throws IOException if the archive cannot be opened
+     */
+    public static synchronized GameArchive getArchive() throws IOException {
+        getStore();
+        if (archive == null) {
+            archive = new GameArchive(file(ARCHIVE_FILE_NAME));
+        }
+        return archive;
+    }
+
+    private static Path file(String name) {
+        return Path.of(System.getProperty(DIRECTORY_PROPERTY, "")).resolve(name);
+    }
+
+    private static synchronized RatingWriter getWriter() throws IOException {
+        getStore();
+        return writer;
+    }
+
+    /**
+     * Closes the store, the archive and the writer of the changes, so the next call opens them again.
+     */
+    static synchronized void closeStore() {
+        if (store == null) {
+            return;
+        }
+        try {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                Logger.error(e, "Error with saving the players");
+            }
+            store.close();
+            if (archive != null) {
+                archive.close();
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Error with closing the store");
+        } finally {
+            store = null;
+            writer = null;
+            leaderboard = null;
+            archive = null;
+        }
+    }
 
     /**
      * Storing the players. Giving a default ELO rating (1000 points).
@@ -24,48 +150,51 @@ public class PlayerDataHandler {
      * @throws IOException whether the file does not exist.
      */
     public void savePlayersIfNotExists(String... names) throws IOException {
-        var players = readPlayersFromFile();
-        boolean modified = false;
-
+        var players = getWriter();
         for (String name : names) {
-            if (players.stream().noneMatch(p -> p.name.equalsIgnoreCase(name))) {
-                players.add(new PlayerData(name, 1000));
-                modified = true;
-            }
-        }
-
-        if (modified) {
-            objectMapper.writeValue(new File(FILE_NAME), players);
+            players.addIfAbsent(name, EloRating.INITIAL_RATING);
         }
     }
 
     /**
-     * When a match is over the points of the players will change.
-     * Winning a game increases this value by 50,
-     * while losing a game decreases it by 50.
+     * When a match is over the points of the players will change by the {@link EloRating}:
+     * the winner gains as many points as the loser loses, 50 between players of equal rating,
+     * more for beating a stronger player. The result is also appended to the log of the game results.
      * @param winnerPlayer name of winner
      * @param loserPlayer name of loser
      * @throws IOException whether the file does not exist.
      */
     public void updatePoints(String winnerPlayer, String loserPlayer) throws IOException {
-        var players = readPlayersFromFile();
-        for (var player : players) {
-            if(player.getName().equals(winnerPlayer)) {
-                player.eloPoint += 50;
-            }
-            else if (player.getName().equals(loserPlayer)) {
-                player.eloPoint -= 50;
-            }
-        }
-
-        objectMapper.writeValue(new File(FILE_NAME), players);
+        getWriter().recordGame(winnerPlayer, loserPlayer);
+    }
 
+    /**
+     * Records a finished game: adds the players if needed, updates their ratings and archives the game.
+     * This is the path of the results of every game, whichever window, console or server session played it.
+     * Only the games on a board of {@link BoardGameModel#BOARD_SIZE} are archived.
+     * It can be called from any thread, it only waits on the disk when it opens the store.
+     * @param model the model of the finished game, played from the starting position
+     * @throws IOException whether the store cannot be opened.
+     */
+    public void recordGame(BoardGameModel model) throws IOException {
+        var winnerName = model.getWinnerName();
+        var loserName = model.getLoserName();
+        savePlayersIfNotExists(winnerName, loserName);
+        updatePoints(winnerName, loserName);
+        if (model.isStandardSize()) {
+            archiveGame(model);
+        }
     }
 
-    private List<PlayerData> readPlayersFromFile() throws IOException {
-        var file = new File(FILE_NAME);
-        if (!file.exists()) return new java.util.ArrayList<>();
-        return objectMapper.readValue(file, new TypeReference<>() {});
+    /**
+     * Stores a finished game in the archive of the games, with every turn of it.
+     * The game is queued, the {@link RatingWriter} appends it to the archive in the background.
+     * @param model the model of the game, played from the starting position
+     * @throws IOException whether the store cannot be opened.
+     */
+    public void archiveGame(BoardGameModel model) throws IOException {
+        getWriter().archiveGame(GameRecord.of(System.currentTimeMillis(), model.getPlayer1Name(),
+                model.getPlayer2Name(), model.copyState()));
     }
 
     /**
@@ -104,19 +233,17 @@ public class PlayerDataHandler {
         }
 
         /**
-         * Loads all player data from a JSON file.
-         * The file name is defined by the {@code FILE_NAME} constant.
-         * If the file is not found or an error occurs during reading,
-         * an empty list is returned.
+         * Loads all player data from the store of the players.
+         * If an error occurs during reading, an empty list is returned.
          *
          * @return a list of {@code PlayerData} objects, or an empty list on failure
          */
 
         public static List<PlayerData> getAll() {
             try {
-                return objectMapper.readValue(new File(FILE_NAME), new TypeReference<List<PlayerData>>() {});
-            } catch (Exception e) {
-                e.printStackTrace();
+                return getStore().getAll();
+            } catch (IOException e) {
+                Logger.error(e, "Error with loading the players");
                 return List.of();
             }
         }
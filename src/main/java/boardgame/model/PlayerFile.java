@@ -0,0 +1,327 @@
+package boardgame.model;
+
+import boardgame.metrics.PersistenceEvent;
+import boardgame.model.PlayerDataHandler.PlayerData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A file of players: an array of {@code "nev"}/{@code "elo_pont"} objects in the format of {@link PlayerData},
+ * either as JSON or as Smile, the binary form of JSON. The file is read and written as a stream of tokens,
+ * one player at a time, so the players are never held in memory together.
+ * A new file is written to a temporary file, flushed to the disk and renamed to the file,
+ * so after a crash the file holds either the old or the new players, never a part of them.
+ */
+public final class PlayerFile {
+
+    /**
+     * The format of a player file.
+     */
+    public enum Format {
+
+        /**
+         * Indented JSON text.
+         */
+        JSON(new JsonFactory(), ".json"),
+
+        /**
+         * Smile, a binary encoding of the JSON data model.
+         */
+        SMILE(new SmileFactory(), ".smile");
+
+        private final JsonFactory factory;
+        private final String extension;
+
+        Format(JsonFactory factory, String extension) {
+            this.factory = factory;
+            this.extension = extension;
+        }
+
+        /**
+         * Get the extension of the files of the format.
+         *
+         * @return the extension, with the dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Get the format of a file from its extension, JSON unless it ends with {@code .smile}.
+         *
+         * @param file the file
+         * @return the format
+         */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(SMILE.extension) ? SMILE : JSON;
+        }
+    }
+
+    /**
+     * An action on the players of a file, which can write to a file itself.
+     */
+    @FunctionalInterface
+    public interface PlayerAction {
+
+        /**
+         * Runs the action on a player.
+         *
+         * @param player the player
+         * @throws IOException if the action cannot be done
+         */
+        void accept(PlayerData player) throws IOException;
+    }
+
+    private static final String NAME = "nev";
+    private static final String RATING = "elo_pont";
+
+    private final Path file;
+    private final Format format;
+
+    /**
+     * Creates a player file in the format of its extension.
+     *
+     * @param file the file
+     */
+    public PlayerFile(Path file) {
+        this(file, Format.of(file));
+    }
+
+    /**
+     * Creates a player file.
+     *
+     * @param file the file
+     * @param format the format of the file
+     */
+    public PlayerFile(Path file, Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    /**
+     * Get the file.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the format of the file.
+     *
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Reads the players in the order of the file.
+     *
+     * @param action called with every player
+     * @throws IOException if the file cannot be read or is not a player file, or the action fails
+     */
+    public void forEach(PlayerAction action) throws IOException {
+        var event = PersistenceEvent.start();
+        try (var parser = format.factory.createParser(file.toFile())) {
+            startArray(parser);
+            for (var player = next(parser); player != null; player = next(parser)) {
+                action.accept(player);
+            }
+        }
+        event.finishRead(file, Files.size(file));
+    }
+
+    /**
+     * Finds a player, reading the file only up to the player.
+     * The names are compared in the buffer of the parser, the other players are not created.
+     *
+     * @param name the name of the player, the case is ignored
+     * @return the player, or an empty value if the file has no such player
+     * @throws IOException if the file cannot be read or is not a player file
+     */
+    public Optional<PlayerData> find(String name) throws IOException {
+        try (var parser = format.factory.createParser(file.toFile())) {
+            startArray(parser);
+            for (var token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Not a player file, expected an object at " + parser.currentLocation());
+                }
+                String found = null;
+                var rating = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case NAME -> found = nameEquals(parser, name) ? parser.getText() : null;
+                        case RATING -> rating = parser.getValueAsInt();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (found != null) {
+                    return Optional.of(new PlayerData(found, rating));
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static boolean nameEquals(JsonParser parser, String name) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return false;
+        }
+        if (!parser.hasTextCharacters()) {
+            // the Smile parser decodes every string value to a String anyway
+            return parser.getText().equalsIgnoreCase(name);
+        }
+        if (parser.getTextLength() != name.length()) {
+            return false;
+        }
+        var text = parser.getTextCharacters();
+        var offset = parser.getTextOffset();
+        for (var i = 0; i < name.length(); i++) {
+            var a = text[offset + i];
+            var b = name.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+                    && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the file with the given players.
+     *
+     * @param players the players
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Iterable<PlayerData> players) throws IOException {
+        replace(generator -> {
+            for (var player : players) {
+                write(generator, player.getName(), player.getEloPoint());
+            }
+        });
+    }
+
+    /**
+     * Sets the rating of one player, adding the player to the end of the file if needed.
+     * The other players are streamed from the old file to the new one, one at a time.
+     *
+     * @param name the name of the player, the case is ignored
+     * @param rating the new rating
+     * @return {@code true} if the player was already in the file
+     * @throws IOException if the file cannot be read or written
+     */
+    public boolean update(String name, int rating) throws IOException {
+        var found = new boolean[1];
+        replace(generator -> {
+            if (Files.exists(file)) {
+                try (var parser = format.factory.createParser(file.toFile())) {
+                    startArray(parser);
+                    for (var player = next(parser); player != null; player = next(parser)) {
+                        if (!found[0] && player.getName().equalsIgnoreCase(name)) {
+                            found[0] = true;
+                            write(generator, player.getName(), rating);
+                        } else {
+                            write(generator, player.getName(), player.getEloPoint());
+                        }
+                    }
+                }
+            }
+            if (!found[0]) {
+                write(generator, name, rating);
+            }
+        });
+        return found[0];
+    }
+
+    private interface Writer {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private void replace(Writer writer) throws IOException {
+        var event = PersistenceEvent.start();
+        var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        long bytes;
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                try (var generator = createGenerator(Channels.newOutputStream(channel))) {
+                    generator.writeStartArray();
+                    writer.write(generator);
+                    generator.writeEndArray();
+                }
+                channel.force(true);
+                bytes = channel.size();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        event.finishWrite(file, bytes);
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        var generator = format.factory.createGenerator(out);
+        // the stream is closed by the caller after the channel is forced
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return format == Format.JSON ? generator.useDefaultPrettyPrinter() : generator;
+    }
+
+    private static void write(JsonGenerator generator, String name, int rating) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(NAME, name);
+        generator.writeNumberField(RATING, rating);
+        generator.writeEndObject();
+    }
+
+    private static void startArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Not a player file, expected an array at " + parser.currentLocation());
+        }
+    }
+
+    /**
+     * Reads the next player of the array.
+     *
+     * @return the player, or {@code null} at the end of the array
+     */
+    private static PlayerData next(JsonParser parser) throws IOException {
+        var token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Not a player file, expected an object at " + parser.currentLocation());
+        }
+        var player = new PlayerData();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case NAME -> player.name = parser.getValueAsString();
+                case RATING -> player.eloPoint = parser.getValueAsInt();
+                default -> parser.skipChildren();
+            }
+        }
+        if (player.name == null) {
+            throw new IOException("Player without a name before " + parser.currentLocation());
+        }
+        return player;
+    }
+}
@@ -0,0 +1,473 @@
+package boardgame.model;
+
+import boardgame.metrics.PersistenceEvent;
+import boardgame.model.PlayerDataHandler.PlayerData;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Storage engine of the players: an in-memory hash index by name in front of an append-only log file.
+ * Every change appends one small record to the log, so saving a game costs the same with ten players
+ * or with hundreds of thousands. The log is replayed when the store is opened.
+ *
+ * <p>A record is a type byte, the length and the UTF-8 bytes of the name, an {@code int} value and
+ * the CRC-32 of the preceding bytes. A rating change is logged as a difference, not as the new rating.
+ * A record torn by a crash fails the check and is cut off when the log is replayed.
+ *
+ * <p>The store is safe for many writers, in one or in several processes. Reads never lock: the index is
+ * a concurrent map and the ratings are updated atomically. Writes take a lock shared by the stores of the same
+ * file in this JVM, then an exclusive {@link FileChannel#lock() file lock} on the {@code .lock} file next to
+ * the log. Holding both, the store first applies the records other processes appended since its last write,
+ * then appends its own. Since ratings are logged as differences, concurrent games never overwrite each other.
+ *
+ * <p>When the log holds more than twice as many records as players, a background thread compacts it:
+ * the index is written to a new log with one record per player, the records appended meanwhile are copied
+ * after it, and the new log replaces the old one with an atomic rename. The lock file holds a generation
+ * counter increased by every compaction, which tells the other processes to reopen the log.
+ */
+public class PlayerStore implements AutoCloseable {
+
+    private static final byte ADD = 1;
+    private static final byte POINTS = 2;
+
+    private static final int HEADER_SIZE = Byte.BYTES + Short.BYTES;
+
+    private static final int COMPACTION_MIN_RECORDS = 1024;
+
+    private static final ConcurrentHashMap<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel lockChannel;
+    private final ReentrantLock writeLock;
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "player-store-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ConcurrentHashMap<String, Entry> players = new ConcurrentHashMap<>();
+    private final AtomicInteger order = new AtomicInteger();
+    private final List<ObjIntConsumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private FileChannel log;
+    private long logEnd;
+    private long generation;
+    private long records;
+    private boolean compacting;
+
+    private record Entry(String name, int order, AtomicInteger rating) {
+    }
+
+    /**
+     * Opens a store, creating the log file if it does not exist.
+     *
+     * @param file the log file
+     * @throws IOException if the log cannot be read or written
+     */
+    public PlayerStore(Path file) throws IOException {
+        this.file = file;
+        var lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        writeLock = JVM_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), path -> new ReentrantLock());
+        try {
+            locked(() -> {
+                generation = readGeneration();
+                log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                catchUp();
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        writeLock.lock();
+        try {
+            var lock = lockChannel.lock();
+            try {
+                return action.run();
+            } finally {
+                lock.release();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long readGeneration() throws IOException {
+        var buffer = ByteBuffer.allocate(Long.BYTES);
+        return lockChannel.read(buffer, 0) == Long.BYTES ? buffer.getLong(0) : 0;
+    }
+
+    /**
+     * Applies the records appended by other processes, reopening the log if another process compacted it.
+     * Must be called with the locks held.
+     */
+    private void catchUp() throws IOException {
+        var target = players;
+        var current = readGeneration();
+        if (current != generation) {
+            log.close();
+            log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            target = new ConcurrentHashMap<>();
+            logEnd = 0;
+            records = 0;
+            generation = current;
+        }
+        try {
+            readRecords(target);
+        } finally {
+            players = target;
+        }
+    }
+
+    private void readRecords(ConcurrentHashMap<String, Entry> target) throws IOException {
+        var size = log.size();
+        if (size == logEnd) {
+            return;
+        }
+        var event = PersistenceEvent.start();
+        var data = ByteBuffer.allocate((int) (size - logEnd));
+        while (data.hasRemaining() && log.read(data, logEnd + data.position()) >= 0) {
+            // read the new records
+        }
+        data.flip();
+        event.finishRead(file, data.limit());
+        var crc = new CRC32();
+        while (data.hasRemaining()) {
+            var start = data.position();
+            if (data.remaining() < HEADER_SIZE) {
+                break;
+            }
+            var type = data.get();
+            var nameLength = Short.toUnsignedInt(data.getShort());
+            if (data.remaining() < nameLength + 2 * Integer.BYTES) {
+                data.position(start);
+                break;
+            }
+            var name = new byte[nameLength];
+            data.get(name);
+            var value = data.getInt();
+            crc.reset();
+            crc.update(data.slice(start, data.position() - start));
+            if ((int) crc.getValue() != data.getInt()) {
+                data.position(start);
+                break;
+            }
+            apply(target, type, new String(name, StandardCharsets.UTF_8), value);
+            records++;
+        }
+        logEnd += data.position();
+        if (data.hasRemaining()) {
+            Logger.warn("Cutting off {} bytes of a torn record at the end of {}", data.remaining(), file);
+            log.truncate(logEnd);
+        }
+    }
+
+    private boolean apply(ConcurrentHashMap<String, Entry> target, byte type, String name, int value) {
+        var key = key(name);
+        if (type == ADD) {
+            if (target.putIfAbsent(key, new Entry(name, order.getAndIncrement(), new AtomicInteger(value))) != null) {
+                return false;
+            }
+            notifyListeners(name, value);
+            return true;
+        }
+        var entry = target.get(key);
+        if (entry == null) {
+            return false;
+        }
+        notifyListeners(entry.name(), entry.rating().addAndGet(value));
+        return true;
+    }
+
+    private void notifyListeners(String name, int rating) {
+        for (var listener : listeners) {
+            listener.accept(name, rating);
+        }
+    }
+
+    /**
+     * Registers a listener of the rating changes, e.g. a cache of the players ordered by rating.
+     * It is called with the name and the new rating of a player after every change, including the changes
+     * of other processes applied by this store. The listener runs while the store is locked, it must be fast.
+     *
+     * @param listener receives the name and the new rating of the player
+     */
+    public void addListener(ObjIntConsumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a player if there is no player with the same name, ignoring case.
+     *
+     * @param name the name of the player
+     * @param rating the initial rating
+     * @return {@code true} if the player was added
+     * @throws IOException if the log cannot be written
+     */
+    public boolean addIfAbsent(String name, int rating) throws IOException {
+        return locked(() -> {
+            catchUp();
+            if (players.containsKey(key(name))) {
+                return false;
+            }
+            append(ADD, name, rating);
+            return apply(players, ADD, name, rating);
+        });
+    }
+
+    /**
+     * Changes the rating of a player.
+     *
+     * @param name the name of the player
+     * @param points the points added to the rating, negative for a loss
+     * @return {@code true} if the player exists
+     * @throws IOException if the log cannot be written
+     */
+    public boolean addPoints(String name, int points) throws IOException {
+        return locked(() -> {
+            catchUp();
+            if (!players.containsKey(key(name))) {
+                return false;
+            }
+            append(POINTS, name, points);
+            return apply(players, POINTS, name, points);
+        });
+    }
+
+    /**
+     * Applies the changes other processes made since the last write of this store.
+     * Reads do not see those changes before a write or a refresh.
+     *
+     * @throws IOException if the log cannot be read
+     */
+    public void refresh() throws IOException {
+        locked(() -> {
+            catchUp();
+            return null;
+        });
+    }
+
+    /**
+     * Get the rating of a player.
+     *
+     * @param name the name of the player, the case is ignored
+     * @return the rating, or an empty value if there is no such player
+     */
+    public OptionalInt getRating(String name) {
+        var entry = players.get(key(name));
+        return entry == null ? OptionalInt.empty() : OptionalInt.of(entry.rating().get());
+    }
+
+    /**
+     * Get the number of players.
+     *
+     * @return the number of players
+     */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * Get all players, in the order they were added.
+     *
+     * @return a copy of the players
+     */
+    public List<PlayerData> getAll() {
+        return players.values().stream()
+                .sorted(Comparator.comparingInt(Entry::order))
+                .map(entry -> new PlayerData(entry.name(), entry.rating().get()))
+                .toList();
+    }
+
+    private void append(byte type, String name, int value) throws IOException {
+        var event = PersistenceEvent.start();
+        var record = encode(type, name, value);
+        var position = logEnd;
+        while (record.hasRemaining()) {
+            position += log.write(record, position);
+        }
+        event.finishWrite(file, record.limit());
+        logEnd = position;
+        records++;
+        if (!compacting && records > Math.max(COMPACTION_MIN_RECORDS, 2L * players.size())) {
+            compacting = true;
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    Logger.error(e, "Compaction of {} failed", file);
+                }
+            });
+        }
+    }
+
+    private static ByteBuffer encode(byte type, String name, int value) {
+        var bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE * 2 + 1) {
+            throw new IllegalArgumentException("Name too long: " + name.length() + " characters");
+        }
+        var record = ByteBuffer.allocate(HEADER_SIZE + bytes.length + 2 * Integer.BYTES);
+        record.put(type).putShort((short) bytes.length).put(bytes).putInt(value);
+        var crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    /**
+     * Rewrites the log with one record per player. Only the copy of the records appended during the rewrite
+     * and the rename hold the locks of the store. If another process compacts the log meanwhile,
+     * this compaction is dropped.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    public void compact() throws IOException {
+        compactionLock.lock();
+        try {
+            record Snapshot(List<PlayerData> players, long end, long generation) {
+            }
+            var snapshot = locked(() -> {
+                compacting = true;
+                catchUp();
+                return new Snapshot(getAll(), logEnd, generation);
+            });
+            var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".compact");
+            try (var out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (var player : snapshot.players()) {
+                    out.write(encode(ADD, player.getName(), player.getEloPoint()));
+                }
+                locked(() -> {
+                    catchUp();
+                    if (generation != snapshot.generation()) {
+                        return null;
+                    }
+                    var tail = logEnd - snapshot.end();
+                    log.transferTo(snapshot.end(), tail, out);
+                    out.force(true);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    lockChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, generation + 1), 0);
+                    lockChannel.force(true);
+                    log.close();
+                    log = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    generation++;
+                    records = snapshot.players().size() + countRecords(tail);
+                    logEnd = log.size();
+                    return null;
+                });
+            } finally {
+                Files.deleteIfExists(temp);
+                locked(() -> {
+                    compacting = false;
+                    return null;
+                });
+            }
+            Logger.debug("Compacted {} to {} players", file, snapshot.players().size());
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private long countRecords(long tailBytes) throws IOException {
+        var count = 0L;
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        for (var position = log.size() - tailBytes; position < log.size(); count++) {
+            header.clear();
+            log.read(header, position);
+            var nameLength = Short.toUnsignedInt(header.getShort(Byte.BYTES));
+            position += HEADER_SIZE + nameLength + 2 * Integer.BYTES;
+        }
+        return count;
+    }
+
+    /**
+     * Adds the players of a {@link PlayerFile}, read one at a time.
+     * Players that already exist are left unchanged.
+     *
+     * @param players the file of the players, JSON or Smile by its extension
+     * @return the number of players added
+     * @throws IOException if a file cannot be read or written
+     */
+    public int importPlayers(Path players) throws IOException {
+        var added = new int[1];
+        new PlayerFile(players).forEach(player -> {
+            if (addIfAbsent(player.getName(), player.getEloPoint())) {
+                added[0]++;
+            }
+        });
+        return added[0];
+    }
+
+    /**
+     * Replaces a {@link PlayerFile} with all players, atomically.
+     *
+     * @param players the file of the players, JSON or Smile by its extension
+     * @throws IOException if the file cannot be written
+     */
+    public void exportPlayers(Path players) throws IOException {
+        new PlayerFile(players).write(getAll());
+    }
+
+    /**
+     * Flushes the appended records to the disk.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    public void sync() throws IOException {
+        locked(() -> {
+            log.force(false);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        locked(() -> {
+            log.close();
+            return null;
+        });
+        lockChannel.close();
+    }
+}
@@ -0,0 +1,393 @@
+package boardgame.model;
+
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.rating.EloRating;
+import boardgame.rating.GameResult;
+import boardgame.rating.GameResultLog;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue of the player changes. Callers only enqueue a change, which never waits on the disk,
+ * so it is safe on the JavaFX application thread. A single background thread drains the queue at a bounded
+ * interval: the changes of many games are coalesced into one change per player, written to the {@link PlayerStore}
+ * and then the game results are appended to the {@link GameResultLog}, both optionally flushed to the disk.
+ * The store is written first, so a crash between the two can lose a result from the log, but never rates
+ * a game the store does not have. A batch that cannot be written is kept and written again before the next
+ * changes; the part already written is not written twice. The finished games are appended to the
+ * {@link GameArchive} last, which the background thread opens at the first game, so neither opening
+ * nor locking the archive blocks a caller. The player file is replaced atomically
+ * with {@link PlayerStore#exportPlayers(Path)} only on {@link #exportPlayers()} and {@link #close()}.
+ */
+public class RatingWriter implements AutoCloseable {
+
+    private sealed interface Change {
+    }
+
+    private record NewPlayer(String name, int rating) implements Change {
+    }
+
+    private record Points(String name, int points) implements Change {
+    }
+
+    private record Game(GameResult result) implements Change {
+    }
+
+    private record Archived(GameRecord game) implements Change {
+    }
+
+    private static final class Pending {
+        private final String name;
+        private final boolean added;
+        private final int rating;
+        private int points;
+
+        private Pending(String name, boolean added, int rating) {
+            this.name = name;
+            this.added = added;
+            this.rating = rating;
+        }
+
+        private int currentRating() {
+            return rating + points;
+        }
+    }
+
+    /**
+     * The coalesced changes of a batch. The changes are removed when they are written.
+     */
+    private record Batch(Map<String, Pending> players, List<GameResult> games, List<GameRecord> archived) {
+    }
+
+    private final PlayerStore store;
+    private final GameResultLog results;
+    private final Path archiveFile;
+    private final EloRating elo;
+    private final Path export;
+    private final boolean fsync;
+    private final ConcurrentLinkedQueue<Change> queue = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "rating-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The rest of a batch that could not be written, only used by the background thread.
+     */
+    private Batch failed;
+
+    /**
+     * The archive of the games, opened by the background thread at the first game.
+     */
+    private GameArchive archive;
+
+    /**
+     * Creates a queue and starts its background thread.
+     *
+     * @param store the store of the players
+     * @param export the JSON or Smile {@link PlayerFile} exported on demand and on close, or {@code null} for no export
+     * @param flushInterval the longest time a change waits in the queue
+     * @param fsync whether every batch is flushed to the disk
+     */
+    public RatingWriter(PlayerStore store, Path export, Duration flushInterval, boolean fsync) {
+        this(store, null, new EloRating(), export, flushInterval, fsync);
+    }
+
+    /**
+     * Creates a queue that also rates the games and logs their results, and starts its background thread.
+     *
+     * @param store the store of the players
+     * @param results the log of the game results, or {@code null} for no log
+     * @param elo the rating of the games
+     * @param export the JSON or Smile {@link PlayerFile} exported on demand and on close, or {@code null} for no export
+     * @param flushInterval the longest time a change waits in the queue
+     * @param fsync whether every batch is flushed to the disk
+     */
+    public RatingWriter(PlayerStore store, GameResultLog results, EloRating elo, Path export, Duration flushInterval,
+                        boolean fsync) {
+        this(store, results, null, elo, export, flushInterval, fsync);
+    }
+
+    /**
+     * Creates a queue that also rates, logs and archives the games, and starts its background thread.
+     *
+     * @param store the store of the players
+     * @param results the log of the game results, or {@code null} for no log
+     * @param archiveFile the file of the {@link GameArchive} of the games, or {@code null} for no archive
+     * @param elo the rating of the games
+     * @param export the JSON or Smile {@link PlayerFile} exported on demand and on close, or {@code null} for no export
+     * @param flushInterval the longest time a change waits in the queue
+     * @param fsync whether every batch is flushed to the disk
+     */
+    public RatingWriter(PlayerStore store, GameResultLog results, Path archiveFile, EloRating elo, Path export,
+                        Duration flushInterval, boolean fsync) {
+        this.store = store;
+        this.results = results;
+        this.archiveFile = archiveFile;
+        this.elo = elo;
+        this.export = export;
+        this.fsync = fsync;
+        var millis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::drainQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enqueues a player with an initial rating, added if there is no player with the same name.
+     *
+     * @param name the name of the player
+     * @param rating the initial rating
+     */
+    public void addIfAbsent(String name, int rating) {
+        queue.add(new NewPlayer(name, rating));
+    }
+
+    /**
+     * Enqueues a change of the rating of a player. It is ignored if the player does not exist
+     * when the change is written.
+     *
+     * @param name the name of the player
+     * @param points the points added to the rating, negative for a loss
+     */
+    public void addPoints(String name, int points) {
+        queue.add(new Points(name, points));
+    }
+
+    /**
+     * Enqueues the result of a game. When it is written, the ratings change by {@link EloRating#points(int, int)}
+     * and the result is appended to the log of the game results.
+     * It is ignored if a player does not exist when the result is written.
+     *
+     * @param winner the name of the winner
+     * @param loser the name of the loser
+     */
+    public void recordGame(String winner, String loser) {
+        queue.add(new Game(new GameResult(System.currentTimeMillis(), winner, loser)));
+    }
+
+    /**
+     * Enqueues a finished game for the archive. It is appended with {@link GameArchive#appendLatest(GameRecord)},
+     * whether its players exist or not. Without an archive file, it is ignored.
+     *
+     * @param game the game
+     */
+    public void archiveGame(GameRecord game) {
+        if (archiveFile != null) {
+            queue.add(new Archived(game));
+        }
+    }
+
+    /**
+     * Writes the changes enqueued so far and waits until they are written.
+     *
+     * @throws IOException if the changes cannot be written, they are kept for the next try
+     */
+    public void flush() throws IOException {
+        await(() -> {
+            drain();
+            return null;
+        });
+    }
+
+    /**
+     * Writes the changes enqueued so far and replaces the player file with all the players.
+     * Without a player file, the same as {@link #flush()}.
+     *
+     * @throws IOException if the changes or the player file cannot be written
+     */
+    public void exportPlayers() throws IOException {
+        await(() -> {
+            drain();
+            if (export != null) {
+                store.exportPlayers(export);
+            }
+            return null;
+        });
+    }
+
+    private void await(Callable<Void> task) throws IOException {
+        try {
+            flusher.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing the ratings", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException e) {
+            Logger.error(e, "Error with writing the ratings, the changes are kept for the next try");
+        }
+    }
+
+    /**
+     * Writes the rest of a failed batch, then coalesces the queued changes and writes them.
+     */
+    private void drain() throws IOException {
+        if (failed != null) {
+            var batch = failed;
+            failed = null;
+            write(batch);
+        }
+        var batch = coalesce();
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Coalesces the queued changes. The changes are kept in order: a rating change
+     * of a player who does not exist yet is dropped, just like a direct change of the store.
+     *
+     * @return the batch of the changes, or {@code null} if there is nothing to write
+     */
+    private Batch coalesce() throws IOException {
+        if (queue.isEmpty()) {
+            return null;
+        }
+        store.refresh();
+        var pending = new LinkedHashMap<String, Pending>();
+        var games = new ArrayList<GameResult>();
+        var archived = new ArrayList<GameRecord>();
+        for (var change = queue.poll(); change != null; change = queue.poll()) {
+            switch (change) {
+                case NewPlayer(var name, var rating) -> {
+                    var key = name.toLowerCase(Locale.ROOT);
+                    if (!pending.containsKey(key) && store.getRating(name).isEmpty()) {
+                        pending.put(key, new Pending(name, true, rating));
+                    }
+                }
+                case Points(var name, var points) -> {
+                    var entry = pending(pending, name);
+                    if (entry != null) {
+                        entry.points += points;
+                    }
+                }
+                case Game(var result) -> {
+                    var winner = pending(pending, result.winner());
+                    var loser = pending(pending, result.loser());
+                    if (winner != null && loser != null && winner != loser) {
+                        var points = elo.points(winner.currentRating(), loser.currentRating());
+                        winner.points += points;
+                        loser.points -= points;
+                        games.add(result);
+                    }
+                }
+                case Archived(var game) -> archived.add(game);
+            }
+        }
+        return pending.isEmpty() && archived.isEmpty() ? null : new Batch(pending, games, archived);
+    }
+
+    /**
+     * Writes a batch, the players first, then the results and the games. If it fails, the rest of the batch
+     * is kept for the next drain.
+     */
+    private void write(Batch batch) throws IOException {
+        var count = batch.players().size();
+        try {
+            var entries = batch.players().values().iterator();
+            while (entries.hasNext()) {
+                var entry = entries.next();
+                if (entry.added) {
+                    store.addIfAbsent(entry.name, entry.currentRating());
+                } else if (entry.points != 0) {
+                    store.addPoints(entry.name, entry.points);
+                }
+                entries.remove();
+            }
+            if (fsync) {
+                store.sync();
+            }
+            if (results != null && !batch.games().isEmpty()) {
+                results.append(batch.games(), fsync);
+            }
+            batch.games().clear();
+            archive(batch.archived());
+        } catch (IOException | RuntimeException e) {
+            failed = batch;
+            throw e;
+        }
+        Logger.debug("Wrote the changes of {} players", count);
+    }
+
+    /**
+     * Appends the games to the archive, removing them when they are written. A game the archive
+     * refuses, e.g. for a name too long, is logged and dropped instead of failing every later batch.
+     */
+    private void archive(List<GameRecord> games) throws IOException {
+        if (games.isEmpty()) {
+            return;
+        }
+        if (archive == null) {
+            archive = new GameArchive(archiveFile);
+        }
+        var iterator = games.iterator();
+        while (iterator.hasNext()) {
+            var game = iterator.next();
+            try {
+                archive.appendLatest(game);
+            } catch (IllegalArgumentException e) {
+                Logger.error(e, "Cannot archive the game finished at {}", game.time());
+            }
+            iterator.remove();
+        }
+        if (fsync) {
+            archive.sync();
+        }
+    }
+
+    private Pending pending(Map<String, Pending> pending, String name) {
+        var key = name.toLowerCase(Locale.ROOT);
+        var entry = pending.get(key);
+        if (entry == null) {
+            var rating = store.getRating(name);
+            if (rating.isPresent()) {
+                entry = new Pending(name, false, rating.getAsInt());
+                pending.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Writes the queued changes, replaces the player file, stops the background thread and closes the archive.
+     *
+     * @throws IOException if the changes or the player file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            exportPlayers();
+        } finally {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+}
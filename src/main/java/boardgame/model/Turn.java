@@ -0,0 +1,89 @@
+package boardgame.model;
+
+/**
+ * Encodes a full turn (two different disks moved in the same direction) into a single {@code int},
+ * so turns can be stored in primitive buffers.
+ * Bits 0-4 hold the square of the first disk, bits 5-9 the square of the second disk
+ * and bits 10-12 the direction of the moves.
+ */
+public final class Turn {
+
+    private static final int SQUARE_BITS = 5;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    private Turn() {
+    }
+
+    /**
+     * Encodes a turn.
+     *
+     * @param first the index of the square of the disk moved first
+     * @param second the index of the square of the disk moved second
+     * @param direction the direction of the moves
+     * @return the encoded turn
+     */
+    public static int of(int first, int second, int direction) {
+        return first | second << SQUARE_BITS | direction << 2 * SQUARE_BITS;
+    }
+
+    /**
+     * Get the direction of the turn.
+     *
+     * @param turn the encoded turn
+     * @return the direction of both moves
+     */
+    public static int direction(int turn) {
+        return turn >>> 2 * SQUARE_BITS;
+    }
+
+    /**
+     * Get the square the first move starts from.
+     *
+     * @param turn the encoded turn
+     * @return the index of the square
+     */
+    public static int firstFrom(int turn) {
+        return turn & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square the first move arrives at.
+     *
+     * @param turn the encoded turn
+     * @return the index of the square
+     */
+    public static int firstTo(int turn) {
+        return firstFrom(turn) + BitboardState.DELTA[direction(turn)];
+    }
+
+    /**
+     * Get the square the second move starts from.
+     *
+     * @param turn the encoded turn
+     * @return the index of the square
+     */
+    public static int secondFrom(int turn) {
+        return turn >>> SQUARE_BITS & SQUARE_MASK;
+    }
+
+    /**
+     * Get the square the second move arrives at.
+     *
+     * @param turn the encoded turn
+     * @return the index of the square
+     */
+    public static int secondTo(int turn) {
+        return secondFrom(turn) + BitboardState.DELTA[direction(turn)];
+    }
+
+    /**
+     * Format the text of a turn.
+     *
+     * @param turn the encoded turn
+     * @return the moves of the turn, e.g. {@code (4,0)->(3,0) (4,2)->(3,2)}
+     */
+    public static String toString(int turn) {
+        return BitboardState.positionOf(firstFrom(turn)) + "->" + BitboardState.positionOf(firstTo(turn))
+                + " " + BitboardState.positionOf(secondFrom(turn)) + "->" + BitboardState.positionOf(secondTo(turn));
+    }
+}
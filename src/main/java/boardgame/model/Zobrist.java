@@ -0,0 +1,74 @@
+package boardgame.model;
+
+import game.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys of the boardgame. The 64-bit key of a position is the XOR of a random number
+ * for every occupied square, one for the second player being next and one for each square of the pending first move.
+ * The random numbers come from a fixed seed, so keys are stable between runs and can be persisted.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EB_B1E5_CA7EL;
+
+    static final long[] RED = new long[BitboardState.SQUARE_COUNT];
+    static final long[] BLUE = new long[BitboardState.SQUARE_COUNT];
+    static final long[] BLACK = new long[BitboardState.SQUARE_COUNT];
+    static final long[] PENDING_FROM = new long[BitboardState.SQUARE_COUNT];
+    static final long[] PENDING_TO = new long[BitboardState.SQUARE_COUNT];
+    static final long PLAYER_2;
+
+    static {
+        var random = new SplittableRandom(SEED);
+        for (var sq = 0; sq < BitboardState.SQUARE_COUNT; sq++) {
+            RED[sq] = random.nextLong();
+            BLUE[sq] = random.nextLong();
+            BLACK[sq] = random.nextLong();
+            PENDING_FROM[sq] = random.nextLong();
+            PENDING_TO[sq] = random.nextLong();
+        }
+        PLAYER_2 = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Get the key of a square.
+     *
+     * @param square the index of the square
+     * @param s the content of the square
+     * @return the key, {@code 0} for an empty square
+     */
+    static long squareKey(int square, Square s) {
+        return switch (s) {
+            case NONE -> 0;
+            case RED -> RED[square];
+            case BLUE -> BLUE[square];
+            case BLACK -> BLACK[square];
+        };
+    }
+
+    /**
+     * Computes the key of a state from scratch. {@link BitboardState#getHash()} returns the same value,
+     * maintained incrementally.
+     *
+     * @param state the state of the game
+     * @return the 64-bit key of the position
+     */
+    public static long hash(BitboardState state) {
+        var hash = 0L;
+        for (var sq = 0; sq < BitboardState.SQUARE_COUNT; sq++) {
+            hash ^= squareKey(sq, state.getSquare(sq));
+        }
+        if (state.getNextPlayer() == State.Player.PLAYER_2) {
+            hash ^= PLAYER_2;
+        }
+        if (state.hasPendingMove()) {
+            hash ^= PENDING_FROM[state.getPendingFrom()] ^ PENDING_TO[state.getPendingTo()];
+        }
+        return hash;
+    }
+}
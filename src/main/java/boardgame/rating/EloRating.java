@@ -0,0 +1,71 @@
+package boardgame.rating;
+
+/**
+ * Elo rating with the expected score model. The winner gains {@code K * (1 - E)} points, where {@code E}
+ * is the expected score of the winner, and the loser loses the same number of points.
+ * The default K-factor of 100 keeps the 50 points of the flat rating between players of equal rating.
+ */
+public class EloRating {
+
+    /**
+     * The rating of a new player.
+     */
+    public static final int INITIAL_RATING = 1000;
+
+    /**
+     * The default K-factor.
+     */
+    public static final int DEFAULT_K_FACTOR = 100;
+
+    private final double kFactor;
+
+    /**
+     * Creates a rating with the default K-factor.
+     */
+    public EloRating() {
+        this(DEFAULT_K_FACTOR);
+    }
+
+    /**
+     * Creates a rating.
+     *
+     * @param kFactor the largest possible change of a rating in one game
+     */
+    public EloRating(double kFactor) {
+        if (!(kFactor > 0)) {
+            throw new IllegalArgumentException("K-factor must be positive: " + kFactor);
+        }
+        this.kFactor = kFactor;
+    }
+
+    /**
+     * Get the K-factor.
+     *
+     * @return the largest possible change of a rating in one game
+     */
+    public double getKFactor() {
+        return kFactor;
+    }
+
+    /**
+     * Get the expected score of a player, the probability of winning against the opponent.
+     *
+     * @param rating the rating of the player
+     * @param opponentRating the rating of the opponent
+     * @return the expected score between 0 and 1
+     */
+    public static double expectedScore(int rating, int opponentRating) {
+        return 1 / (1 + Math.pow(10, (opponentRating - rating) / 400.0));
+    }
+
+    /**
+     * Get the points the winner of a game gains and the loser loses.
+     *
+     * @param winnerRating the rating of the winner before the game
+     * @param loserRating the rating of the loser before the game
+     * @return the rounded change of the ratings, not negative
+     */
+    public int points(int winnerRating, int loserRating) {
+        return (int) Math.round(kFactor * (1 - expectedScore(winnerRating, loserRating)));
+    }
+}
@@ -0,0 +1,11 @@
+package boardgame.rating;
+
+/**
+ * The result of a finished game. The game has no draws, so a result is a winner and a loser.
+ *
+ * @param time the end of the game, in milliseconds since the epoch
+ * @param winner the name of the winner
+ * @param loser the name of the loser
+ */
+public record GameResult(long time, String winner, String loser) {
+}
@@ -0,0 +1,342 @@
+package boardgame.rating;
+
+import boardgame.metrics.PersistenceEvent;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the game results, the history every rating can be recomputed from.
+ * The log starts with a magic number, then a result is stored as the length of its record, the record
+ * and the CRC-32 of the record. The record is the time as a {@code long} and the modified UTF-8 names
+ * of the winner and the loser.
+ * Appends hold a {@link FileChannel#lock() file lock}, so several processes can share the log.
+ * A result torn by a crash is skipped when the log is read, and cut off before the next append.
+ * A log that fits in a mapped buffer can also be read in chunks in parallel, see
+ * {@link #forEachChunk(int, Supplier)}.
+ */
+public class GameResultLog {
+
+    private static final int MAGIC = 0x45524531;
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int CRC_SIZE = Integer.BYTES;
+    private static final int MIN_RECORD_SIZE = Long.BYTES + 2 * Short.BYTES;
+    private static final int MAX_RECORD_SIZE = Long.BYTES + 2 * (Short.BYTES + 0xFFFF);
+
+    private static final ConcurrentHashMap<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final ReentrantLock writeLock;
+
+    /**
+     * The end of the results known to be complete, guarded by {@link #writeLock}.
+     */
+    private long validEnd;
+
+    /**
+     * Creates a log, the file is created at the first append.
+     *
+     * @param file the log file
+     */
+    public GameResultLog(Path file) {
+        this.file = file;
+        writeLock = JVM_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new ReentrantLock());
+    }
+
+    /**
+     * Get the log file.
+     *
+     * @return the log file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Appends results to the end of the log.
+     *
+     * @param results the results, in the order they were played
+     * @param fsync whether to flush the results to the disk before returning
+     * @throws IOException if the log cannot be written, or the file is not a result log
+     */
+    public void append(Collection<GameResult> results, boolean fsync) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        var bytes = new ByteArrayOutputStream();
+        var record = new ByteArrayOutputStream();
+        var crc = new CRC32();
+        try (var out = new DataOutputStream(bytes); var recordOut = new DataOutputStream(record)) {
+            for (var result : results) {
+                record.reset();
+                recordOut.writeLong(result.time());
+                recordOut.writeUTF(result.winner());
+                recordOut.writeUTF(result.loser());
+                crc.reset();
+                crc.update(record.toByteArray());
+                out.writeInt(record.size());
+                record.writeTo(out);
+                out.writeInt((int) crc.getValue());
+            }
+        }
+        var data = ByteBuffer.wrap(bytes.toByteArray());
+        var event = PersistenceEvent.start();
+        // the logs of this process on the same file cannot hold the lock of the file at the same time
+        writeLock.lock();
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var lock = channel.lock();
+            try {
+                var position = recover(channel);
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                validEnd = position;
+            } finally {
+                lock.release();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        event.finishWrite(file, data.limit());
+    }
+
+    /**
+     * Finds the end of the complete results, holding the lock of the file. Only the results appended
+     * since the last append of this log are checked. A torn result at the end is cut off.
+     *
+     * @param channel the channel of the log
+     * @return the position of the next result
+     * @throws IOException if the log cannot be read, or the file is not a result log
+     */
+    private long recover(FileChannel channel) throws IOException {
+        var size = channel.size();
+        if (size < HEADER_SIZE) {
+            if (size > 0) {
+                Logger.warn("Cutting off {} bytes of a torn header of {}", size, file);
+                channel.truncate(0);
+            }
+            var header = ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return HEADER_SIZE;
+        }
+        if (validEnd < HEADER_SIZE || validEnd > size) {
+            checkHeader(channel);
+            validEnd = HEADER_SIZE;
+        }
+        var end = scan(channel, validEnd, size, null);
+        if (end < size) {
+            Logger.warn("Cutting off {} bytes of a torn result at the end of {}", size - end, file);
+            channel.truncate(end);
+        }
+        return end;
+    }
+
+    private void checkHeader(FileChannel channel) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a game result log");
+        }
+    }
+
+    /**
+     * Reads the complete results between two positions of the log.
+     *
+     * @param channel the channel of the log
+     * @param start the position of the first result
+     * @param size the size of the log
+     * @param consumer receives every result, or {@code null} if the results are only checked
+     * @return the end of the last complete result
+     * @throws IOException if the log cannot be read
+     */
+    private static long scan(FileChannel channel, long start, long size, Consumer<GameResult> consumer)
+            throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(start)),
+                1 << 16));
+        var record = new byte[256];
+        var crc = new CRC32();
+        var end = start;
+        while (end + LENGTH_SIZE + MIN_RECORD_SIZE + CRC_SIZE <= size) {
+            var length = in.readInt();
+            if (length < MIN_RECORD_SIZE || length > MAX_RECORD_SIZE
+                    || end + LENGTH_SIZE + length + CRC_SIZE > size) {
+                break;
+            }
+            if (length > record.length) {
+                record = new byte[Math.max(length, 2 * record.length)];
+            }
+            in.readFully(record, 0, length);
+            crc.reset();
+            crc.update(record, 0, length);
+            if ((int) crc.getValue() != in.readInt()) {
+                break;
+            }
+            if (consumer != null) {
+                var fields = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+                consumer.accept(new GameResult(fields.readLong(), fields.readUTF(), fields.readUTF()));
+            }
+            end += LENGTH_SIZE + length + CRC_SIZE;
+        }
+        return end;
+    }
+
+    /**
+     * Reads the results in the order they were appended, without keeping them in memory.
+     * The reading stops at a torn result.
+     *
+     * @param consumer receives every result
+     * @return the number of results
+     * @throws IOException if the log cannot be read, or the file is not a result log
+     */
+    public long forEach(Consumer<GameResult> consumer) throws IOException {
+        if (Files.notExists(file)) {
+            return 0;
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE) {
+                return 0;
+            }
+            checkHeader(channel);
+            var count = new long[1];
+            scan(channel, HEADER_SIZE, size, result -> {
+                consumer.accept(result);
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    /**
+     * Reads the results in chunks of consecutive results, the chunks in parallel. The records are found
+     * by their lengths in one pass, then every chunk checks and decodes its own records.
+     * The reading stops at a torn result like {@link #forEach(Consumer)}: the chunk of the torn result only
+     * receives the results before it, and the later chunks are dropped.
+     * A log larger than a mapped buffer is read in one chunk.
+     *
+     * @param <C> the type of the consumers
+     * @param chunkSize the number of results of a chunk
+     * @param newChunk creates the consumer of a chunk
+     * @return the consumers of the chunks, in the order of the results
+     * @throws IOException if the log cannot be read, or the file is not a result log
+     */
+    <C extends Consumer<GameResult>> List<C> forEachChunk(int chunkSize, Supplier<C> newChunk) throws IOException {
+        if (Files.notExists(file)) {
+            return List.of();
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE) {
+                return List.of();
+            }
+            checkHeader(channel);
+            if (size > Integer.MAX_VALUE) {
+                var chunk = newChunk.get();
+                scan(channel, HEADER_SIZE, size, chunk);
+                return List.of(chunk);
+            }
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var bounds = new ArrayList<Integer>();
+            var position = HEADER_SIZE;
+            var count = 0;
+            while ((long) position + LENGTH_SIZE + MIN_RECORD_SIZE + CRC_SIZE <= size) {
+                var length = buffer.getInt(position);
+                if (length < MIN_RECORD_SIZE || length > MAX_RECORD_SIZE
+                        || (long) position + LENGTH_SIZE + length + CRC_SIZE > size) {
+                    break;
+                }
+                if (count++ % chunkSize == 0) {
+                    bounds.add(position);
+                }
+                position += LENGTH_SIZE + length + CRC_SIZE;
+            }
+            bounds.add(position);
+
+            var consumers = new ArrayList<C>();
+            for (var i = 1; i < bounds.size(); i++) {
+                consumers.add(newChunk.get());
+            }
+            int[] ends;
+            try {
+                ends = IntStream.range(0, consumers.size()).parallel().map(i -> {
+                    try {
+                        return read(buffer, bounds.get(i), bounds.get(i + 1), consumers.get(i));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).toArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (var i = 0; i < ends.length; i++) {
+                if (ends[i] < bounds.get(i + 1)) {
+                    return consumers.subList(0, i + 1);
+                }
+            }
+            return consumers;
+        }
+    }
+
+    /**
+     * Reads the results of a chunk from the mapped log, stopping at the first result with a wrong checksum.
+     *
+     * @param buffer the mapped log
+     * @param start the position of the first result of the chunk
+     * @param end the end of the last result of the chunk
+     * @param consumer receives every result
+     * @return the end of the last complete result
+     * @throws IOException if a result cannot be decoded
+     */
+    private static int read(ByteBuffer buffer, int start, int end, Consumer<GameResult> consumer)
+            throws IOException {
+        var record = new byte[256];
+        var crc = new CRC32();
+        var position = start;
+        while (position < end) {
+            var length = buffer.getInt(position);
+            if (length > record.length) {
+                record = new byte[Math.max(length, 2 * record.length)];
+            }
+            buffer.get(position + LENGTH_SIZE, record, 0, length);
+            crc.reset();
+            crc.update(record, 0, length);
+            if ((int) crc.getValue() != buffer.getInt(position + LENGTH_SIZE + length)) {
+                break;
+            }
+            var fields = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+            consumer.accept(new GameResult(fields.readLong(), fields.readUTF(), fields.readUTF()));
+            position += LENGTH_SIZE + length + CRC_SIZE;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,200 @@
+package boardgame.rating;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The players ordered by rating, kept in memory and updated one player at a time.
+ * The order is the rating from the highest, then the name. The players are kept in two
+ * {@link OrderStatisticTree order statistic trees}, one by rating and one by name, so an update, the rank
+ * of a player, the first entry of a page and the number of players matching a name prefix take
+ * {@code O(log n)} expected time. Reads can run in parallel, updates are exclusive.
+ */
+public class Leaderboard {
+
+    /**
+     * A player on the leaderboard.
+     *
+     * @param rank the position of the player, starting at 1
+     * @param name the name of the player
+     * @param rating the rating of the player
+     */
+    public record Standing(int rank, String name, int rating) {
+    }
+
+    private record Player(String key, String name, int rating) {
+    }
+
+    private static final Comparator<Player> BY_RATING = (a, b) -> a.rating() != b.rating()
+            ? Integer.compare(b.rating(), a.rating())
+            : a.key().compareTo(b.key());
+
+    private static final Comparator<Player> BY_NAME = (a, b) -> a.key().compareTo(b.key());
+
+    private static final String LAST_CHARACTER = String.valueOf(Character.MAX_VALUE);
+
+    private final Map<String, Player> players = new HashMap<>();
+    private final OrderStatisticTree<Player> byRating = new OrderStatisticTree<>(BY_RATING);
+    private final OrderStatisticTree<Player> byName = new OrderStatisticTree<>(BY_NAME);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Sets the rating of a player, adding the player if needed.
+     *
+     * @param name the name of the player, the case is ignored
+     * @param rating the new rating
+     */
+    public void update(String name, int rating) {
+        var player = new Player(key(name), name, rating);
+        lock.writeLock().lock();
+        try {
+            var old = players.put(player.key(), player);
+            if (old != null) {
+                byRating.delete(old);
+                byName.delete(old);
+            }
+            byRating.insert(player);
+            byName.insert(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a player.
+     *
+     * @param name the name of the player, the case is ignored
+     * @return {@code true} if the player was on the leaderboard
+     */
+    public boolean remove(String name) {
+        lock.writeLock().lock();
+        try {
+            var old = players.remove(key(name));
+            if (old == null) {
+                return false;
+            }
+            byRating.delete(old);
+            byName.delete(old);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of players.
+     *
+     * @return the number of players
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return players.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the rank of a player.
+     *
+     * @param name the name of the player, the case is ignored
+     * @return the rank starting at 1, or an empty value if the player is not on the leaderboard
+     */
+    public OptionalInt rank(String name) {
+        lock.readLock().lock();
+        try {
+            var player = players.get(key(name));
+            return player == null ? OptionalInt.empty() : OptionalInt.of(byRating.countBefore(player) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the leaderboard, the players of a range of ranks.
+     *
+     * @param offset the number of players before the page, {@code 0} for the top of the leaderboard
+     * @param limit the largest number of players on the page
+     * @return the players of the page, in order
+     */
+    public List<Standing> page(int offset, int limit) {
+        checkPage(offset, limit);
+        lock.readLock().lock();
+        try {
+            var page = new ArrayList<Player>();
+            byRating.collect(offset, (int) Math.min((long) offset + limit, Integer.MAX_VALUE), page);
+            var standings = new ArrayList<Standing>(page.size());
+            for (var player : page) {
+                standings.add(new Standing(offset + standings.size() + 1, player.name(), player.rating()));
+            }
+            return standings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of players whose name starts with a prefix.
+     *
+     * @param prefix the start of the name, the case is ignored
+     * @return the number of players
+     */
+    public int countMatches(String prefix) {
+        var key = key(prefix);
+        lock.readLock().lock();
+        try {
+            return byName.countBefore(probe(key + LAST_CHARACTER)) - byName.countBefore(probe(key));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the players whose name starts with a prefix, in the order of the names.
+     *
+     * @param prefix the start of the name, the case is ignored
+     * @param offset the number of matching players before the page
+     * @param limit the largest number of players on the page
+     * @return the players of the page with their ranks on the leaderboard
+     */
+    public List<Standing> search(String prefix, int offset, int limit) {
+        checkPage(offset, limit);
+        var key = key(prefix);
+        lock.readLock().lock();
+        try {
+            var first = byName.countBefore(probe(key));
+            var end = byName.countBefore(probe(key + LAST_CHARACTER));
+            var page = new ArrayList<Player>();
+            byName.collect((int) Math.min((long) first + offset, end), (int) Math.min((long) first + offset + limit, end),
+                    page);
+            var standings = new ArrayList<Standing>(page.size());
+            for (var player : page) {
+                standings.add(new Standing(byRating.countBefore(player) + 1, player.name(), player.rating()));
+            }
+            return standings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Invalid page: offset " + offset + ", limit " + limit);
+        }
+    }
+
+    private static Player probe(String key) {
+        return new Player(key, key, 0);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,167 @@
+package boardgame.rating;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted collection with positional access: a treap, a binary search tree balanced by random priorities,
+ * where every node knows the size of its subtree. Inserting, deleting and finding the position of an element
+ * take {@code O(log n)} expected time, listing {@code k} elements from a position {@code O(log n + k)}.
+ * Not thread-safe.
+ *
+ * @param <E> the type of the elements, ordered by a comparator without duplicates
+ */
+final class OrderStatisticTree<E> {
+
+    private static final class Node<E> {
+        private final E element;
+        private final int priority;
+        private Node<E> left;
+        private Node<E> right;
+        private int size = 1;
+
+        private Node(E element, int priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<E> root;
+
+    OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(E element) {
+        root = insert(root, new Node<>(element, random.nextInt()));
+    }
+
+    void delete(E element) {
+        root = delete(root, element);
+    }
+
+    /**
+     * Get the number of elements before an element or a probe, the position it has or would have.
+     */
+    int countBefore(E probe) {
+        var before = 0;
+        for (var node = root; node != null; ) {
+            var c = comparator.compare(probe, node.element);
+            if (c <= 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return before;
+    }
+
+    /**
+     * Adds the elements at the positions {@code [from, to)} to a list, in order.
+     */
+    void collect(int from, int to, List<? super E> elements) {
+        collect(root, from, to, 0, elements);
+    }
+
+    private static <E> void collect(Node<E> node, int from, int to, int first, List<? super E> elements) {
+        if (node == null || from >= first + node.size || to <= first) {
+            return;
+        }
+        collect(node.left, from, to, first, elements);
+        var index = first + size(node.left);
+        if (index >= from && index < to) {
+            elements.add(node.element);
+        }
+        collect(node.right, from, to, index + 1, elements);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void resize(Node<?> node) {
+        node.size = size(node.left) + 1 + size(node.right);
+    }
+
+    private Node<E> insert(Node<E> node, Node<E> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            split(node, inserted);
+            resize(inserted);
+            return inserted;
+        }
+        if (comparator.compare(inserted.element, node.element) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        resize(node);
+        return node;
+    }
+
+    /**
+     * Splits a subtree into the children of a new node: the elements before it and the elements after it.
+     */
+    private void split(Node<E> node, Node<E> pivot) {
+        if (node == null) {
+            pivot.left = null;
+            pivot.right = null;
+            return;
+        }
+        if (comparator.compare(pivot.element, node.element) < 0) {
+            split(node.left, pivot);
+            node.left = pivot.right;
+            resize(node);
+            pivot.right = node;
+        } else {
+            split(node.right, pivot);
+            node.right = pivot.left;
+            resize(node);
+            pivot.left = node;
+        }
+    }
+
+    private Node<E> delete(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        var c = comparator.compare(element, node.element);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = delete(node.left, element);
+        } else {
+            node.right = delete(node.right, element);
+        }
+        resize(node);
+        return node;
+    }
+
+    private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            resize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        resize(right);
+        return right;
+    }
+}
@@ -0,0 +1,198 @@
+package boardgame.rating;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Recomputes every rating from the {@link GameResultLog}, starting from {@link EloRating#INITIAL_RATING}.
+ *
+ * <p>{@link #sequential(GameResultLog, EloRating)} applies the results in one streaming pass.
+ * {@link #parallel(GameResultLog, EloRating)} gives the same ratings faster on several cores: most of
+ * the time goes to checking, decoding and interning the names of the results, so chunks of the log are read
+ * in parallel, every chunk numbering its own players. The chunks are then merged in order, and the ratings
+ * applied in one pass over the numbered results, which is cheap next to the reading.
+ * The names are compared ignoring case, like in the {@code PlayerStore}; a player is reported by the name
+ * of their first result.
+ * Usage: {@code RatingRecompute [log] [K-factor] [top]}.
+ */
+public final class RatingRecompute {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private RatingRecompute() {
+    }
+
+    /**
+     * Recomputes the ratings in the order of the results, in one pass without keeping the results in memory.
+     *
+     * @param log the results
+     * @param elo the rating system
+     * @return the ratings by name, in the order the players first played
+     * @throws IOException if the log cannot be read
+     */
+    public static Map<String, Integer> sequential(GameResultLog log, EloRating elo) throws IOException {
+        var players = new LinkedHashMap<String, Player>();
+        log.forEach(result -> {
+            var winner = players.computeIfAbsent(key(result.winner()), key -> new Player(result.winner()));
+            var loser = players.computeIfAbsent(key(result.loser()), key -> new Player(result.loser()));
+            if (winner != loser) {
+                var points = elo.points(winner.rating, loser.rating);
+                winner.rating += points;
+                loser.rating -= points;
+            }
+        });
+        var ratings = new LinkedHashMap<String, Integer>();
+        for (var player : players.values()) {
+            ratings.put(player.name, player.rating);
+        }
+        return ratings;
+    }
+
+    /**
+     * Recomputes the ratings reading the log in parallel chunks.
+     *
+     * @param log the results
+     * @param elo the rating system
+     * @return the ratings by name, in the order the players first played
+     * @throws IOException if the log cannot be read
+     */
+    public static Map<String, Integer> parallel(GameResultLog log, EloRating elo) throws IOException {
+        return parallel(log, elo, CHUNK_SIZE);
+    }
+
+    /**
+     * Recomputes the ratings reading the log in parallel chunks of the given size.
+     *
+     * @param log the results
+     * @param elo the rating system
+     * @param chunkSize the number of results read by one task
+     * @return the ratings by name, in the order the players first played
+     * @throws IOException if the log cannot be read
+     */
+    static Map<String, Integer> parallel(GameResultLog log, EloRating elo, int chunkSize) throws IOException {
+        var chunks = log.forEachChunk(chunkSize, Chunk::new);
+        var ids = new HashMap<String, Integer>();
+        var names = new ArrayList<String>();
+        var globalIds = new ArrayList<int[]>();
+        for (var chunk : chunks) {
+            var global = new int[chunk.names.size()];
+            for (var id = 0; id < global.length; id++) {
+                // the key was lowercased and hashed by the chunk already
+                var name = chunk.names.get(id);
+                global[id] = ids.computeIfAbsent(chunk.keys.get(id), key -> {
+                    names.add(name);
+                    return names.size() - 1;
+                });
+            }
+            globalIds.add(global);
+        }
+
+        var ratings = new int[names.size()];
+        Arrays.fill(ratings, EloRating.INITIAL_RATING);
+        for (var c = 0; c < chunks.size(); c++) {
+            var games = chunks.get(c).games;
+            var global = globalIds.get(c);
+            for (var i = 0; i < games.size; i++) {
+                var winner = global[games.winners[i]];
+                var loser = global[games.losers[i]];
+                var points = elo.points(ratings[winner], ratings[loser]);
+                ratings[winner] += points;
+                ratings[loser] -= points;
+            }
+        }
+
+        var result = LinkedHashMap.<String, Integer>newLinkedHashMap(names.size());
+        for (var id = 0; id < names.size(); id++) {
+            result.put(names.get(id), ratings[id]);
+        }
+        return result;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Player {
+        private final String name;
+        private int rating = EloRating.INITIAL_RATING;
+
+        private Player(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The results of a chunk of the log, the players numbered in the order they first played in the chunk.
+     */
+    private static final class Chunk implements Consumer<GameResult> {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final Games games = new Games();
+
+        @Override
+        public void accept(GameResult result) {
+            var winner = id(result.winner());
+            var loser = id(result.loser());
+            if (winner != loser) {
+                games.add(winner, loser);
+            }
+        }
+
+        private int id(String name) {
+            var key = key(name);
+            var id = ids.putIfAbsent(key, names.size());
+            if (id != null) {
+                return id;
+            }
+            keys.add(key);
+            names.add(name);
+            return names.size() - 1;
+        }
+    }
+
+    private static final class Games {
+        private int[] winners = new int[1024];
+        private int[] losers = new int[1024];
+        private int size;
+
+        private void add(int winner, int loser) {
+            if (size == winners.length) {
+                winners = Arrays.copyOf(winners, 2 * size);
+                losers = Arrays.copyOf(losers, 2 * size);
+            }
+            winners[size] = winner;
+            losers[size] = loser;
+            size++;
+        }
+    }
+
+    /**
+     * Recomputes the ratings of a log and prints the best players.
+     *
+     * @param args the log (default {@code eredmenyek.log}), the K-factor (default 100)
+     *             and the number of players printed (default 20)
+     * @throws IOException if the log cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        var log = new GameResultLog(Path.of(args.length > 0 ? args[0] : "eredmenyek.log"));
+        var elo = new EloRating(args.length > 1 ? Double.parseDouble(args[1]) : EloRating.DEFAULT_K_FACTOR);
+        var top = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        var start = System.nanoTime();
+        var ratings = parallel(log, elo);
+        System.out.printf("Recomputed %d players in %d ms%n", ratings.size(), (System.nanoTime() - start) / 1_000_000);
+        ratings.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .forEach(entry -> System.out.printf("%6d  %s%n", entry.getValue(), entry.getKey()));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package for the rating of the players of the boardgame
+ */
+package boardgame.rating;
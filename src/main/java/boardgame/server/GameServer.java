@@ -0,0 +1,194 @@
+package boardgame.server;
+
+import boardgame.model.PlayerDataHandler;
+import org.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless game server: every connection is a {@link GameSession} served by its own virtual thread,
+ * which blocks on the socket without holding a platform thread, so a server can keep thousands of tables open.
+ * The server listens on a local TCP port or on a Unix domain socket.
+ * The finished games go to {@link PlayerDataHandler#recordGame}, the same path as the games of the window.
+ * Usage: {@code GameServer [port or socket file] [--no-results]}.
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * The default TCP port.
+     */
+    public static final int DEFAULT_PORT = 7070;
+
+    /**
+     * The length of the queue of connections not yet accepted, large enough for thousands of clients
+     * connecting at once.
+     */
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final GameSession.ResultHandler results;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sessions = new AtomicLong();
+
+    /**
+     * Creates a server listening on an address. The connections are accepted after {@link #start()}.
+     *
+     * @param address a TCP address or a {@link UnixDomainSocketAddress}, whose file must not exist
+     * @param results the handler of the finished games
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(SocketAddress address, GameSession.ResultHandler results) throws IOException {
+        this.results = results;
+        server = ServerSocketChannel.open(address instanceof UnixDomainSocketAddress
+                ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET);
+        try {
+            server.bind(address, BACKLOG);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        this.address = server.getLocalAddress();
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args the TCP port (default {@value #DEFAULT_PORT}) or the file of a Unix domain socket,
+     *             and {@code --no-results} to drop the finished games instead of rating and archiving them
+     * @throws IOException if the address cannot be bound
+     * @throws InterruptedException if the server is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var address = parseAddress(args.length > 0 && !args[0].startsWith("--") ? args[0]
+                : String.valueOf(DEFAULT_PORT));
+        GameSession.ResultHandler results = Arrays.asList(args).contains("--no-results")
+                ? model -> { }
+                : new PlayerDataHandler()::recordGame;
+        var server = new GameServer(address, results);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Logger.info("Game server listening on {}", server.getAddress());
+        server.start();
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Parses the address of a server.
+     *
+     * @param address a port on the loopback interface, or the file of a Unix domain socket
+     * @return the address
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (!address.isEmpty() && address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    /**
+     * Get the address the server listens on, with the actual port if port 0 was given.
+     *
+     * @return the address
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the number of open sessions.
+     *
+     * @return the number of connections being served
+     */
+    public int getSessionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Starts accepting connections on a virtual thread.
+     */
+    public void start() {
+        executor.execute(this::accept);
+    }
+
+    private void accept() {
+        while (server.isOpen()) {
+            try {
+                var channel = server.accept();
+                if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                connections.add(channel);
+                var session = sessions.incrementAndGet();
+                executor.execute(() -> serve(channel, session));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                Logger.error(e, "Cannot accept a connection");
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel, long id) {
+        var session = new GameSession(results);
+        try (channel;
+             var in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+                     StandardCharsets.UTF_8));
+             var out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                     StandardCharsets.UTF_8))) {
+            String line;
+            while (!session.isClosed() && (line = in.readLine()) != null) {
+                out.write(session.handle(line));
+                out.newLine();
+                out.flush();
+            }
+        } catch (ClosedChannelException e) {
+            // the server is closing
+        } catch (IOException e) {
+            Logger.debug("Session {} ended: {}", id, e.getMessage());
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes the open sessions and waits for their threads to end.
+     */
+    @Override
+    public void close() {
+        try {
+            server.close();
+            for (var channel : connections) {
+                channel.close();
+            }
+            if (address instanceof UnixDomainSocketAddress unix) {
+                Files.deleteIfExists(unix.getPath());
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Error with closing the game server");
+        }
+        executor.close();
+    }
+}
@@ -0,0 +1,138 @@
+package boardgame.server;
+
+import boardgame.model.BoardGameModel;
+import boardgame.model.BoardLayout;
+import boardgame.model.Position;
+import game.TwoPhaseMoveState;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+
+/**
+ * One table of the {@link GameServer}: a {@link BoardGameModel} driven by the commands of one connection.
+ * The protocol is line based, every command is answered by one line starting with {@code OK} or {@code ERR}:
+ * <ul>
+ *     <li>{@code NEW <player1> <player2>} starts a new game, answered by the board</li>
+ *     <li>{@code MOVE <fromRow> <fromCol> <toRow> <toCol>} makes a move of the next player,
+ *         answered by the status of the game, e.g. {@code OK IN_PROGRESS} or {@code OK PLAYER_1_WINS}</li>
+ *     <li>{@code BOARD} is answered by the squares, row by row, as the digits of {@link boardgame.model.Square}
+ *         ordinals, and the next player, e.g. {@code OK 2222203030000000303011111 PLAYER_1}</li>
+ *     <li>{@code QUIT} is answered by {@code OK BYE} and ends the session</li>
+ * </ul>
+ * The games are played on the board configured by the system properties, see {@link BoardLayout#getConfigured()}.
+ * A finished game is handed to the {@link ResultHandler} before the answer of its last move.
+ * If it cannot be recorded, the failure is logged and the move is answered by the status of the game
+ * after {@code ERR Not recorded:}, e.g. {@code ERR Not recorded: PLAYER_1_WINS}, the session goes on.
+ * A session is used by one thread at a time.
+ */
+public class GameSession {
+
+    /**
+     * Receives the finished games of the sessions. It is called from the threads of the sessions.
+     */
+    @FunctionalInterface
+    public interface ResultHandler {
+
+        /**
+         * Records a finished game.
+         *
+         * @param model the model of the game
+         * @throws IOException if the game cannot be recorded
+         */
+        void record(BoardGameModel model) throws IOException;
+    }
+
+    private final ResultHandler results;
+    private final BoardLayout layout = BoardLayout.getConfigured();
+    private BoardGameModel model;
+    private boolean closed;
+
+    /**
+     * Creates a session without a game.
+     *
+     * @param results the handler of the finished games
+     */
+    public GameSession(ResultHandler results) {
+        this.results = results;
+    }
+
+    /**
+     * Check if the session was ended by {@code QUIT}.
+     *
+     * @return {@code true} if the session is over
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param line the command
+     * @return the answer, without a line separator
+     */
+    public String handle(String line) {
+        var words = line.trim().split("\\s+");
+        return switch (words[0]) {
+            case "NEW" -> newGame(words);
+            case "MOVE" -> move(words);
+            case "BOARD" -> model == null ? "ERR No game" : "OK " + board();
+            case "QUIT" -> {
+                closed = true;
+                yield "OK BYE";
+            }
+            default -> "ERR Unknown command: " + words[0];
+        };
+    }
+
+    private String newGame(String[] words) {
+        if (words.length != 3) {
+            return "ERR Usage: NEW <player1> <player2>";
+        }
+        model = new BoardGameModel(layout);
+        model.setPlayers(words[1], words[2]);
+        return "OK " + board();
+    }
+
+    private String move(String[] words) {
+        if (model == null) {
+            return "ERR No game";
+        }
+        if (model.isGameOver()) {
+            return "ERR The game is over";
+        }
+        if (words.length != 5) {
+            return "ERR Usage: MOVE <fromRow> <fromCol> <toRow> <toCol>";
+        }
+        TwoPhaseMoveState.TwoPhaseMove<Position> move;
+        try {
+            move = new TwoPhaseMoveState.TwoPhaseMove<>(new Position(Integer.parseInt(words[1]), Integer.parseInt(words[2])),
+                    new Position(Integer.parseInt(words[3]), Integer.parseInt(words[4])));
+        } catch (NumberFormatException e) {
+            return "ERR Invalid number: " + e.getMessage();
+        }
+        if (!model.tryMove(move)) {
+            return "ERR Illegal move";
+        }
+        if (model.isGameOver()) {
+            try {
+                results.record(model);
+            } catch (IOException | RuntimeException e) {
+                Logger.error(e, "Cannot record the game of {} and {}", model.getPlayer1Name(), model.getPlayer2Name());
+                return "ERR Not recorded: " + model.getStatus();
+            }
+        }
+        return "OK " + model.getStatus();
+    }
+
+    private String board() {
+        var size = model.getBoardSize();
+        var sb = new StringBuilder(size * size + 10);
+        for (var row = 0; row < size; row++) {
+            for (var col = 0; col < size; col++) {
+                sb.append(model.getSquare(new Position(row, col)).ordinal());
+            }
+        }
+        return sb.append(' ').append(model.getNextPlayer()).toString();
+    }
+}
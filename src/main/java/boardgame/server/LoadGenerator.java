@@ -0,0 +1,249 @@
+package boardgame.server;
+
+import boardgame.metrics.LatencyHistogram;
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import boardgame.sim.SelfPlaySimulator;
+import game.State;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator of the {@link GameServer}: opens many sessions, each on its own virtual thread,
+ * and plays random games on all of them at once. Every session follows its game on a {@link BitboardState}
+ * to choose its moves and to check the answers of the server.
+ * The round trip time of every move is counted in a {@link LatencyHistogram}.
+ * The report gives the median and the 99th percentile of the move latency and the number of finished games
+ * per second. Usage: {@code LoadGenerator [port or socket file] [sessions] [seconds] [seed]}.
+ */
+public class LoadGenerator {
+
+    /**
+     * The default number of sessions.
+     */
+    public static final int DEFAULT_SESSIONS = 10_000;
+
+    /**
+     * The default length of the measurement in seconds.
+     */
+    public static final int DEFAULT_SECONDS = 30;
+
+    private static final int NO_MOVE = -1;
+
+    private final SocketAddress address;
+    private final int sessions;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a load generator.
+     *
+     * @param address the address of the server
+     * @param sessions the number of sessions to open
+     */
+    public LoadGenerator(SocketAddress address, int sessions) {
+        this.address = address;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Runs the load generator and prints its report.
+     *
+     * @param args the TCP port (default {@value GameServer#DEFAULT_PORT}) or the file of a Unix domain socket,
+     *             the number of sessions (default {@value #DEFAULT_SESSIONS}), the number of seconds
+     *             (default {@value #DEFAULT_SECONDS}) and the seed (default random)
+     * @throws InterruptedException if the load generator is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        var address = GameServer.parseAddress(args.length > 0 ? args[0] : String.valueOf(GameServer.DEFAULT_PORT));
+        var sessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SESSIONS;
+        var seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        var seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        var generator = new LoadGenerator(address, sessions);
+        var elapsed = generator.run(TimeUnit.SECONDS.toNanos(seconds), new SplittableRandom(seed));
+        System.out.printf("%d sessions, %d failed, %d games in %.1f s: %.1f games/s%n", sessions,
+                generator.getFailures(), generator.getGames(), elapsed / 1e9, generator.getGames() * 1e9 / elapsed);
+        System.out.printf("%d moves, move latency p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                generator.getMoves(), generator.getLatency(0.5) / 1e3, generator.getLatency(0.99) / 1e3,
+                generator.getLatency(1) / 1e3);
+    }
+
+    /**
+     * Opens the sessions, then plays on all of them for a given time and closes them.
+     *
+     * @param nanos the length of the measurement in nanoseconds, counted when all the sessions are open
+     * @param random the source of the random moves, split for every session
+     * @return the length of the measurement in nanoseconds, until the last session has finished its move
+     * @throws InterruptedException if the load generator is interrupted
+     */
+    public long run(long nanos, SplittableRandom random) throws InterruptedException {
+        var open = new CountDownLatch(sessions);
+        var start = new CountDownLatch(1);
+        var deadline = new long[1];
+        long begin;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < sessions; i++) {
+                var sessionRandom = random.split();
+                executor.execute(() -> {
+                    try {
+                        play(open, start, deadline, sessionRandom);
+                    } catch (IOException | IllegalStateException e) {
+                        failures.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // a session that cannot connect must not hold back the others
+                        open.countDown();
+                    }
+                });
+            }
+            open.await();
+            begin = System.nanoTime();
+            deadline[0] = begin + nanos;
+            start.countDown();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private void play(CountDownLatch open, CountDownLatch start, long[] deadline, SplittableRandom random)
+            throws IOException, InterruptedException {
+        try (var channel = SocketChannel.open(address);
+             var in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+                     StandardCharsets.UTF_8));
+             var out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                     StandardCharsets.UTF_8))) {
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            open.countDown();
+            start.await();
+            var state = new BitboardState();
+            var initial = new BitboardState();
+            var turns = new int[MoveGenerator.MAX_TURNS];
+            while (System.nanoTime() < deadline[0]) {
+                send(out, "NEW red blue");
+                expect(in.readLine(), "OK ");
+                state.setPosition(initial.getDisks(State.Player.PLAYER_1),
+                        initial.getDisks(State.Player.PLAYER_2), initial.getObstacles(),
+                        State.Player.PLAYER_1);
+                for (var turn = 0; turn < SelfPlaySimulator.DEFAULT_TURN_LIMIT && !state.isGameOver()
+                        && System.nanoTime() < deadline[0]; turn++) {
+                    var count = MoveGenerator.generate(state, turns);
+                    if (count == 0) {
+                        // every first move leaves no second move, the first legal one ends the game
+                        var single = anyMove(state);
+                        if (single != NO_MOVE) {
+                            move(in, out, state, single >>> 5, single & 31);
+                        }
+                        break;
+                    }
+                    var chosen = turns[random.nextInt(count)];
+                    move(in, out, state, Turn.firstFrom(chosen), Turn.firstTo(chosen));
+                    if (!state.isGameOver()) {
+                        move(in, out, state, Turn.secondFrom(chosen), Turn.secondTo(chosen));
+                    }
+                }
+                if (state.isGameOver()) {
+                    games.increment();
+                }
+            }
+            send(out, "QUIT");
+            expect(in.readLine(), "OK BYE");
+        }
+    }
+
+    private void move(BufferedReader in, BufferedWriter out, BitboardState state, int from, int to)
+            throws IOException {
+        var begin = System.nanoTime();
+        send(out, "MOVE " + BitboardState.row(from) + " " + BitboardState.col(from) + " "
+                + BitboardState.row(to) + " " + BitboardState.col(to));
+        var answer = in.readLine();
+        latency.record(System.nanoTime() - begin);
+        state.makeMove(from, to);
+        expect(answer, "OK " + state.getStatus());
+    }
+
+    /**
+     * Finds a single legal move of the next player.
+     *
+     * @return the square to move from shifted by 5 bits and the square to move to,
+     *         or {@link #NO_MOVE} if no disk can move
+     */
+    static int anyMove(BitboardState state) {
+        for (var disks = state.getDisks(state.getNextPlayer()); disks != 0; disks &= disks - 1) {
+            var from = Integer.numberOfTrailingZeros(disks);
+            for (var to = 0; to < BitboardState.BOARD_SIZE * BitboardState.BOARD_SIZE; to++) {
+                if (state.isLegalMove(from, to)) {
+                    return from << 5 | to;
+                }
+            }
+        }
+        return NO_MOVE;
+    }
+
+    private static void send(BufferedWriter out, String command) throws IOException {
+        out.write(command);
+        out.newLine();
+        out.flush();
+    }
+
+    private static void expect(String answer, String prefix) {
+        if (answer == null || !answer.startsWith(prefix)) {
+            throw new IllegalStateException("Expected " + prefix + " instead of " + answer);
+        }
+    }
+
+    /**
+     * Get the number of games played to the end.
+     *
+     * @return the number of finished games
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * Get the number of sessions that failed, by an error of the connection or an unexpected answer.
+     *
+     * @return the number of failed sessions
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Get the number of moves sent.
+     *
+     * @return the number of moves
+     */
+    public long getMoves() {
+        return latency.count();
+    }
+
+    /**
+     * Get a percentile of the move latency.
+     *
+     * @param quantile the quantile, from {@code 0} to {@code 1}
+     * @return the latency in nanoseconds, with a relative error under 1/16
+     */
+    public long getLatency(double quantile) {
+        return latency.value(quantile);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package for the headless game server and its load generator.
+ */
+package boardgame.server;
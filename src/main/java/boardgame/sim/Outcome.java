@@ -0,0 +1,22 @@
+package boardgame.sim;
+
+/**
+ * The way a simulated game ended.
+ */
+public enum Outcome {
+
+    /**
+     * All disks of a player reached the goal row.
+     */
+    GOAL,
+
+    /**
+     * The player to move had no valid second move, or no full turn at all.
+     */
+    NO_SECOND_MOVE,
+
+    /**
+     * The game reached the turn limit of the simulation without a winner.
+     */
+    TURN_LIMIT
+}
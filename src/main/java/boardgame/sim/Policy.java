@@ -0,0 +1,66 @@
+package boardgame.sim;
+
+import boardgame.ai.DistanceEvaluator;
+import boardgame.ai.Evaluator;
+import boardgame.model.BitboardState;
+
+import java.util.SplittableRandom;
+
+/**
+ * How a simulated player chooses its turn from the legal turns.
+ */
+public enum Policy {
+
+    /**
+     * Chooses a turn uniformly at random.
+     */
+    RANDOM {
+        @Override
+        public int choose(BitboardState state, int[] turns, int count, SplittableRandom random) {
+            return turns[random.nextInt(count)];
+        }
+    },
+
+    /**
+     * Chooses the turn with the best {@link DistanceEvaluator} score, or a random turn with 10% probability.
+     * Ties are broken at random.
+     */
+    GREEDY {
+        @Override
+        public int choose(BitboardState state, int[] turns, int count, SplittableRandom random) {
+            if (random.nextInt(10) == 0) {
+                return RANDOM.choose(state, turns, count, random);
+            }
+            var best = turns[0];
+            var bestScore = Integer.MIN_VALUE;
+            var ties = 0;
+            for (var i = 0; i < count; i++) {
+                state.makeTurn(turns[i]);
+                var score = state.isGameOver() ? state.getWinner() == state.getNextPlayer() ? -1_000_000 : 1_000_000
+                        : -EVALUATOR.evaluate(state);
+                state.unmakeTurn();
+                if (score > bestScore) {
+                    best = turns[i];
+                    bestScore = score;
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    best = turns[i];
+                }
+            }
+            return best;
+        }
+    };
+
+    private static final Evaluator EVALUATOR = new DistanceEvaluator();
+
+    /**
+     * Chooses a turn.
+     *
+     * @param state the state of the game, it is restored before returning
+     * @param turns the legal turns
+     * @param count the number of legal turns, at least one
+     * @param random the random generator of the current thread
+     * @return the chosen turn
+     */
+    public abstract int choose(BitboardState state, int[] turns, int count, SplittableRandom random);
+}
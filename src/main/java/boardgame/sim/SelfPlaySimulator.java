@@ -0,0 +1,124 @@
+package boardgame.sim;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import game.State;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless self-play runner over the rules of {@link BitboardState}, without JavaFX.
+ * The games are split evenly between worker threads. Every worker has its own random generator,
+ * split from the seed of the simulation, and its own {@link SimulationStats}, so the workers share nothing
+ * and a simulation with the same seed and number of threads plays the same games.
+ * Usage: {@code SelfPlaySimulator [games] [policy of red] [policy of blue] [threads] [seed]}.
+ */
+public class SelfPlaySimulator {
+
+    /**
+     * The default limit of the number of turns in a game.
+     */
+    public static final int DEFAULT_TURN_LIMIT = 500;
+
+    private final Policy red;
+    private final Policy blue;
+    private final int turnLimit;
+
+    /**
+     * Creates a simulator.
+     *
+     * @param red the policy of the first player
+     * @param blue the policy of the second player
+     * @param turnLimit the number of turns after which a game ends without a winner
+     */
+    public SelfPlaySimulator(Policy red, Policy blue, int turnLimit) {
+        this.red = red;
+        this.blue = blue;
+        this.turnLimit = turnLimit;
+    }
+
+    /**
+     * Runs a simulation.
+     *
+     * @param args the number of games (default 100000), the policies of red and blue (default {@code RANDOM}),
+     *             the number of threads (default all processors) and the seed (default random)
+     * @throws InterruptedException if the simulation is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        var games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        var red = args.length > 1 ? Policy.valueOf(args[1].toUpperCase()) : Policy.RANDOM;
+        var blue = args.length > 2 ? Policy.valueOf(args[2].toUpperCase()) : Policy.RANDOM;
+        var threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        var seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        System.out.printf("%s vs %s, %d threads, seed %d%n", red, blue, threads, seed);
+        System.out.print(new SelfPlaySimulator(red, blue, DEFAULT_TURN_LIMIT).run(games, threads, seed));
+    }
+
+    /**
+     * Plays games in parallel.
+     *
+     * @param games the number of games
+     * @param threads the number of worker threads
+     * @param seed the seed of the random generators
+     * @return the statistics of the games
+     * @throws InterruptedException if the simulation is interrupted
+     */
+    public SimulationStats run(long games, int threads, long seed) throws InterruptedException {
+        var start = System.nanoTime();
+        var random = new SplittableRandom(seed);
+        var stats = new SimulationStats();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<SimulationStats>>();
+            for (var i = 0; i < threads; i++) {
+                var workerGames = games / threads + (i < games % threads ? 1 : 0);
+                var workerRandom = random.split();
+                futures.add(executor.submit(() -> play(workerGames, workerRandom)));
+            }
+            for (var future : futures) {
+                stats.merge(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        stats.setNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    private SimulationStats play(long games, SplittableRandom random) {
+        var stats = new SimulationStats();
+        var initial = new BitboardState();
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        for (var game = 0L; game < games; game++) {
+            state.setPosition(initial.getDisks(State.Player.PLAYER_1), initial.getDisks(State.Player.PLAYER_2),
+                    initial.getObstacles(), State.Player.PLAYER_1);
+            play(state, turns, random, stats);
+        }
+        return stats;
+    }
+
+    private void play(BitboardState state, int[] turns, SplittableRandom random, SimulationStats stats) {
+        var moves = 0;
+        for (var turn = 1; turn <= turnLimit; turn++) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                stats.add(state.getNextPlayer().opponent(), Outcome.NO_SECOND_MOVE, turn, moves);
+                return;
+            }
+            var policy = state.getNextPlayer() == State.Player.PLAYER_1 ? red : blue;
+            var historySize = state.getHistorySize();
+            state.makeTurn(policy.choose(state, turns, count, random));
+            moves += state.getHistorySize() - historySize;
+            if (state.isGameOver()) {
+                var outcome = state.hasValidSecondMove() ? Outcome.GOAL : Outcome.NO_SECOND_MOVE;
+                stats.add(state.getWinner(), outcome, turn, moves);
+                return;
+            }
+        }
+        stats.add(null, Outcome.TURN_LIMIT, turnLimit, moves);
+    }
+}
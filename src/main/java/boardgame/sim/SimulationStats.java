@@ -0,0 +1,147 @@
+package boardgame.sim;
+
+import game.State;
+
+/**
+ * Outcome statistics of simulated games. Every worker thread fills its own instance,
+ * the instances are merged at the end of the simulation.
+ */
+public class SimulationStats {
+
+    private static final State.Player[] PLAYERS = State.Player.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final long[][] results = new long[PLAYERS.length + 1][OUTCOMES.length];
+    private long games;
+    private long turns;
+    private long moves;
+    private int shortestGame = Integer.MAX_VALUE;
+    private int longestGame;
+    private long nanos;
+
+    /**
+     * Records a finished game.
+     *
+     * @param winner the winner, or {@code null} if the game has no winner
+     * @param outcome the way the game ended
+     * @param turns the number of turns played, a turn cut short by the end of the game included
+     * @param moves the number of moves played
+     */
+    public void add(State.Player winner, Outcome outcome, int turns, int moves) {
+        results[winner == null ? PLAYERS.length : winner.ordinal()][outcome.ordinal()]++;
+        games++;
+        this.turns += turns;
+        this.moves += moves;
+        shortestGame = Math.min(shortestGame, turns);
+        longestGame = Math.max(longestGame, turns);
+    }
+
+    /**
+     * Adds the games of other statistics to these.
+     *
+     * @param other the statistics to add
+     */
+    public void merge(SimulationStats other) {
+        for (var i = 0; i < results.length; i++) {
+            for (var j = 0; j < OUTCOMES.length; j++) {
+                results[i][j] += other.results[i][j];
+            }
+        }
+        games += other.games;
+        turns += other.turns;
+        moves += other.moves;
+        shortestGame = Math.min(shortestGame, other.shortestGame);
+        longestGame = Math.max(longestGame, other.longestGame);
+    }
+
+    /**
+     * Get the number of games won by a player in a given way.
+     *
+     * @param winner the winner, or {@code null} for the games without a winner
+     * @param outcome the way the games ended
+     * @return the number of games
+     */
+    public long getCount(State.Player winner, Outcome outcome) {
+        return results[winner == null ? PLAYERS.length : winner.ordinal()][outcome.ordinal()];
+    }
+
+    /**
+     * Get the number of games ended in a given way.
+     *
+     * @param outcome the way the games ended
+     * @return the number of games
+     */
+    public long getCount(Outcome outcome) {
+        var count = 0L;
+        for (var row : results) {
+            count += row[outcome.ordinal()];
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of games.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Get the number of turns in all games.
+     *
+     * @return the number of turns
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Get the number of moves in all games.
+     *
+     * @return the number of moves
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Get the wall clock time of the simulation.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Set the wall clock time of the simulation.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    @Override
+    public String toString() {
+        var seconds = Math.max(nanos, 1) / 1e9;
+        var text = new StringBuilder();
+        text.append(String.format("%d games in %.2f s: %.0f games/s, %.0f moves/s%n",
+                games, seconds, games / seconds, moves / seconds));
+        if (games == 0) {
+            return text.toString();
+        }
+        text.append(String.format("game length: %.1f turns on average, %d shortest, %d longest%n",
+                (double) turns / games, shortestGame, longestGame));
+        for (var outcome : OUTCOMES) {
+            text.append(String.format("%-15s %6.2f%%", outcome, 100.0 * getCount(outcome) / games));
+            for (var player : PLAYERS) {
+                text.append(String.format("  %s %6.2f%%", player, 100.0 * getCount(player, outcome) / games));
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The package for the headless self-play simulation of the boardgame
+ */
+package boardgame.sim;
@@ -0,0 +1,180 @@
+package boardgame.view;
+
+import boardgame.model.BoardGameModel;
+import boardgame.model.Position;
+import boardgame.model.Square;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * Draws the board of a {@link BoardGameModel} on a single {@link Canvas}, instead of the node per square
+ * of {@link BoardGameController}, for large boards and fast replays.
+ * A change of a square or of its highlight only marks the square. The marked squares are painted once
+ * before the next frame is rendered, so a square changed many times between two frames is painted once,
+ * and the squares that did not change are not painted again.
+ * A click is mapped to its square arithmetically, see {@link #positionAt(double, double)}.
+ */
+public final class BoardCanvas extends Canvas {
+
+    /**
+     * The highlight of a square.
+     */
+    public enum Highlight {
+        /**
+         * No highlight.
+         */
+        NONE,
+        /**
+         * The square the move starts from.
+         */
+        SELECTED,
+        /**
+         * A square of a suggested move.
+         */
+        HINT
+    }
+
+    private static final Color BACKGROUND = Color.WHITESMOKE;
+    private static final double HIGHLIGHT_WIDTH = 5;
+
+    /**
+     * The radius of a disk per the size of a square, as the disks of the grid of squares.
+     */
+    private static final double DISK_RADIUS = 5.0 / 12;
+
+    private final BoardGameModel model;
+    private final int size;
+    private final double squareSize;
+    private final Highlight[] highlights;
+    private final boolean[] marked;
+    private final int[] dirty;
+    private int dirtyCount;
+    private final Runnable pulseListener = this::paint;
+
+    /**
+     * Creates the canvas of a board, following the changes of its squares.
+     *
+     * @param model the model of the game
+     * @param squareSize the width and height of a square in pixels
+     */
+    public BoardCanvas(BoardGameModel model, double squareSize) {
+        super(model.getBoardSize() * squareSize, model.getBoardSize() * squareSize);
+        this.model = model;
+        this.size = model.getBoardSize();
+        this.squareSize = squareSize;
+        highlights = new Highlight[size * size];
+        Arrays.fill(highlights, Highlight.NONE);
+        marked = new boolean[size * size];
+        dirty = new int[size * size];
+        for (var row = 0; row < size; row++) {
+            for (var col = 0; col < size; col++) {
+                var square = row * size + col;
+                model.squareProperty(row, col).addListener((observable, oldSquare, newSquare) -> mark(square));
+                mark(square);
+            }
+        }
+        sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePreLayoutPulseListener(pulseListener);
+            }
+            if (newScene != null) {
+                newScene.addPreLayoutPulseListener(pulseListener);
+                Platform.requestNextPulse();
+            }
+        });
+    }
+
+    /**
+     * Get the square under a point of the canvas.
+     *
+     * @param x the horizontal coordinate of the point, in the coordinates of the canvas
+     * @param y the vertical coordinate of the point
+     * @return the position of the square, or {@code null} if the point is not on the board
+     */
+    public Position positionAt(double x, double y) {
+        if (x < 0 || y < 0) {
+            return null;
+        }
+        var row = (int) (y / squareSize);
+        var col = (int) (x / squareSize);
+        return row < size && col < size ? new Position(row, col) : null;
+    }
+
+    /**
+     * Sets the highlight of a square.
+     *
+     * @param position the position of the square
+     * @param highlight the new highlight
+     */
+    public void setHighlight(Position position, Highlight highlight) {
+        var square = position.row() * size + position.col();
+        if (highlights[square] != highlight) {
+            highlights[square] = highlight;
+            mark(square);
+        }
+    }
+
+    /**
+     * Removes a highlight from all the squares.
+     *
+     * @param highlight the highlight to remove
+     */
+    public void clearHighlights(Highlight highlight) {
+        for (var square = 0; square < highlights.length; square++) {
+            if (highlights[square] == highlight) {
+                highlights[square] = Highlight.NONE;
+                mark(square);
+            }
+        }
+    }
+
+    private void mark(int square) {
+        if (!marked[square]) {
+            marked[square] = true;
+            dirty[dirtyCount++] = square;
+            if (dirtyCount == 1 && getScene() != null) {
+                Platform.requestNextPulse();
+            }
+        }
+    }
+
+    /**
+     * Paints the marked squares, called before every frame.
+     *
+     * @return the number of squares painted
+     */
+    int paint() {
+        var count = dirtyCount;
+        var g = getGraphicsContext2D();
+        for (var i = 0; i < count; i++) {
+            var square = dirty[i];
+            marked[square] = false;
+            var row = square / size;
+            var col = square % size;
+            var x = col * squareSize;
+            var y = row * squareSize;
+            var content = model.getSquare(new Position(row, col));
+            g.setFill(content == Square.BLACK ? Color.BLACK : BACKGROUND);
+            g.fillRect(x, y, squareSize, squareSize);
+            g.setStroke(Color.BLACK);
+            g.setLineWidth(1);
+            g.strokeRect(x + 0.5, y + 0.5, squareSize - 1, squareSize - 1);
+            if (content == Square.RED || content == Square.BLUE) {
+                var radius = squareSize * DISK_RADIUS;
+                g.setFill(content == Square.RED ? Color.RED : Color.BLUE);
+                g.fillOval(x + squareSize / 2 - radius, y + squareSize / 2 - radius, 2 * radius, 2 * radius);
+            }
+            if (highlights[square] != Highlight.NONE) {
+                g.setStroke(highlights[square] == Highlight.SELECTED ? Color.SLATEGRAY : Color.GOLD);
+                g.setLineWidth(HIGHLIGHT_WIDTH);
+                g.strokeRect(x + HIGHLIGHT_WIDTH / 2, y + HIGHLIGHT_WIDTH / 2, squareSize - HIGHLIGHT_WIDTH,
+                        squareSize - HIGHLIGHT_WIDTH);
+            }
+        }
+        dirtyCount = 0;
+        return count;
+    }
+}
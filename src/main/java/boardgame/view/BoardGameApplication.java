@@ -1,5 +1,6 @@
 package boardgame.view;
 
+import boardgame.metrics.SceneLoadEvent;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,10 +13,25 @@ import java.util.Objects;
 public class BoardGameApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
-        Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/login.fxml")));
+        Parent root = loadScene("/login.fxml").getRoot();
         stage.setTitle("Pebble Game");
         stage.setScene(new Scene(root));
         stage.setResizable(false);
         stage.show();
     }
+
+    /**
+     * Loads a scene and its controller from an FXML file, measured by a {@link SceneLoadEvent}.
+     *
+     * @param fxml the resource of the FXML file
+     * @return the loader, with the root and the controller of the scene
+     * @throws IOException if the file cannot be loaded
+     */
+    static FXMLLoader loadScene(String fxml) throws IOException {
+        var event = SceneLoadEvent.start();
+        var loader = new FXMLLoader(Objects.requireNonNull(BoardGameApplication.class.getResource(fxml)));
+        loader.load();
+        event.finish(fxml);
+        return loader;
+    }
 }
@@ -1,20 +1,26 @@
 package boardgame.view;
 
+import boardgame.ai.MoveStrategy;
+import boardgame.ai.OpeningBook;
+import boardgame.model.BitboardState;
 import boardgame.model.BoardGameModel;
 import boardgame.model.PlayerDataHandler;
 import boardgame.model.Position;
 import boardgame.model.Square;
+import boardgame.model.Turn;
 import common.util.TwoPhaseMoveSelector;
 import game.State;
 import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.event.ActionEvent;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
@@ -26,28 +32,73 @@ import jfxutils.JFXTwoPhaseMoveSelector;
 import org.tinylog.Logger;
 
 import java.io.IOException;
+import java.nio.file.Files;
 
 /**
  * This is the controller class of the BoardGame part.
+ * The board is a grid of squares, or a single {@link BoardCanvas} when the system property
+ * {@value #RENDERER_PROPERTY} is {@code canvas}.
  */
 
 public class BoardGameController {
+
+    /**
+     * The system property of the renderer of the board, {@code grid} (the default) or {@code canvas}.
+     */
+    public static final String RENDERER_PROPERTY = "boardgame.renderer";
+
     @FXML
     private GridPane board;
 
     public Label player1Label;
     public Label player2Label;
 
+    @FXML
+    private Label hintLabel;
+
+    private static OpeningBook openingBook;
+
+    private static boolean openingBookOpened;
+
     private final BoardGameModel model = new BoardGameModel();
 
     private final JFXTwoPhaseMoveSelector<Position> selector = new JFXTwoPhaseMoveSelector<>(model);
 
+    private MoveStrategy computer;
+
+    private boolean computerThinking;
+
+    private StackPane[][] squares;
+
+    private BoardCanvas canvas;
+
     @FXML
     private void initialize() {
-        for (var i = 0; i < board.getRowCount(); i++) {
-            for (var j = 0; j < board.getColumnCount(); j++) {
-                var square = createSquare(i, j);
-                board.add(square, j, i);
+        var size = model.getBoardSize();
+        if (System.getProperty(RENDERER_PROPERTY, "grid").equals("canvas")) {
+            board.getColumnConstraints().clear();
+            board.getRowConstraints().clear();
+            canvas = new BoardCanvas(model, board.getPrefWidth() / size);
+            canvas.setOnMouseClicked(this::handleCanvasClick);
+            board.add(canvas, 0, 0);
+        } else if (board.getRowCount() != size) {
+            // the grid of the view has the rows and columns of the default board
+            board.getColumnConstraints().clear();
+            board.getRowConstraints().clear();
+            for (var i = 0; i < size; i++) {
+                board.getColumnConstraints().add(new ColumnConstraints(10, 100, Double.MAX_VALUE,
+                        Priority.SOMETIMES, null, true));
+                board.getRowConstraints().add(new RowConstraints(10, 30, Double.MAX_VALUE,
+                        Priority.SOMETIMES, null, true));
+            }
+        }
+        if (canvas == null) {
+            squares = new StackPane[size][size];
+            for (var i = 0; i < size; i++) {
+                for (var j = 0; j < size; j++) {
+                    squares[i][j] = createSquare(i, j);
+                    board.add(squares[i][j], j, i);
+                }
             }
         }
         selector.phaseProperty().addListener(this::showSelectionPhaseChange);
@@ -75,7 +126,7 @@ public class BoardGameController {
             square.setBackground(new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY)));
         }
         else {
-            var circle = new Circle(50);
+            var circle = new Circle(50.0 * BoardGameModel.BOARD_SIZE / model.getBoardSize());
             circle.fillProperty().bind(createSquareBinding(model.squareProperty(row, col)));
             square.getChildren().add(circle);
             square.setOnMouseClicked(this::handleMouseClick);
@@ -93,13 +144,28 @@ public class BoardGameController {
         int row = rowIndex != null ? rowIndex : 0;
         int col = colIndex != null ? colIndex : 0;
 
-        Logger.info("Click on square ({},{})", row, col);
-        var pos = new Position(row, col);
+        selectSquare(new Position(row, col));
+    }
+
+    private void handleCanvasClick(MouseEvent event) {
+        var pos = canvas.positionAt(event.getX(), event.getY());
+        if (pos != null && model.getSquare(pos) != Square.BLACK) {
+            selectSquare(pos);
+        }
+    }
+
+    private void selectSquare(Position pos) {
+        var row = pos.row();
+        var col = pos.col();
+        Logger.debug("Click on square ({},{})", row, col);
+        if (computerThinking || model.isGameOver()) {
+            return;
+        }
 
         if (selector.getPhase() == TwoPhaseMoveSelector.Phase.SELECT_TO
                 && selector.getFrom() != null
                 && selector.getFrom().equals(pos)) {
-            Logger.info("Deselection of square ({},{})", row, col);
+            Logger.debug("Deselection of square ({},{})", row, col);
             hideSelection(pos);
             selector.reset();
             return;
@@ -109,14 +175,105 @@ public class BoardGameController {
 
         if (selector.isReadyToMove()) {
             selector.makeMove();
+            hideHint();
 
             if (model.isGameOver()) {
                 Logger.info("Game over situation");
                 showGameOverScreen();
+            } else if (computer != null && model.getNextPlayer() == State.Player.PLAYER_2) {
+                playComputerTurn();
             }
         }
     }
 
+    private void playComputerTurn() {
+        computerThinking = true;
+        var state = model.copyState();
+        var task = new Task<Integer>() {
+            @Override
+            protected Integer call() {
+                return computer.chooseTurn(state);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            computerThinking = false;
+            if (task.getValue() != BitboardState.NO_SQUARE) {
+                model.makeTurn(task.getValue());
+                hideHint();
+            }
+            if (model.isGameOver()) {
+                Logger.info("Game over situation");
+                showGameOverScreen();
+            }
+        });
+        task.setOnFailed(event -> {
+            computerThinking = false;
+            Logger.error(task.getException(), "Computer player failed");
+        });
+        var thread = new Thread(task, "computer-player");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    @FXML
+    private void showHint(ActionEvent event) {
+        hideHint();
+        var book = model.isStandardSize() ? getOpeningBook() : null;
+        if (book == null || model.isGameOver()) {
+            hintLabel.setText("No opening book");
+            return;
+        }
+        var state = model.copyState();
+        var turn = book.bestTurn(state);
+        if (turn == BitboardState.NO_SQUARE) {
+            hintLabel.setText("The position is not in the opening book");
+            return;
+        }
+        var entry = book.lookup(state).stream().filter(e -> e.turn() == turn).findFirst().orElseThrow();
+        hintLabel.setText(String.format("%s, won %d of %d games", Turn.toString(turn), entry.wins(), entry.games()));
+        var pending = state.hasPendingMove();
+        var from = pending ? Turn.secondFrom(turn) : Turn.firstFrom(turn);
+        var to = pending ? Turn.secondTo(turn) : Turn.firstTo(turn);
+        for (var position : new Position[] {BitboardState.positionOf(from), BitboardState.positionOf(to)}) {
+            if (canvas != null) {
+                canvas.setHighlight(position, BoardCanvas.Highlight.HINT);
+            } else {
+                getSquare(position).getStyleClass().add("hint");
+            }
+        }
+    }
+
+    private void hideHint() {
+        hintLabel.setText("");
+        if (canvas != null) {
+            canvas.clearHighlights(BoardCanvas.Highlight.HINT);
+            return;
+        }
+        for (var child : board.getChildren()) {
+            child.getStyleClass().remove("hint");
+        }
+    }
+
+    /**
+     * Get the opening book of the computer player and the move hints, opened at the first call.
+     *
+     * @return the book, or {@code null} if there is no {@link OpeningBook#DEFAULT_FILE} or it cannot be opened
+     */
+    static synchronized OpeningBook getOpeningBook() {
+        if (!openingBookOpened) {
+            openingBookOpened = true;
+            if (Files.exists(OpeningBook.DEFAULT_FILE)) {
+                try {
+                    openingBook = OpeningBook.open(OpeningBook.DEFAULT_FILE);
+                    Logger.info("Opened the opening book with {} turns", openingBook.size());
+                } catch (IOException e) {
+                    Logger.error(e, "Cannot open the opening book");
+                }
+            }
+        }
+        return openingBook;
+    }
 
     private ObjectBinding<Paint> createSquareBinding(ReadOnlyObjectProperty<Square> squareProperty) {
         return new ObjectBinding<Paint>() {
@@ -144,19 +301,27 @@ public class BoardGameController {
     }
 
     private void showSelection(Position position) {
+        if (canvas != null) {
+            canvas.setHighlight(position, BoardCanvas.Highlight.SELECTED);
+            return;
+        }
         var square = getSquare(position);
         square.getStyleClass().add("selected");
     }
 
     private void hideSelection(Position position) {
+        if (canvas != null) {
+            canvas.setHighlight(position, BoardCanvas.Highlight.NONE);
+            return;
+        }
         var square = getSquare(position);
         square.getStyleClass().remove("selected");
     }
 
     private void showGameOverScreen() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/gameOver.fxml"));
-            Parent root = loader.load();
+            FXMLLoader loader = BoardGameApplication.loadScene("/gameOver.fxml");
+            Parent root = loader.getRoot();
             GameOver controller = loader.getController();
 
             /* File handling */
@@ -169,8 +334,7 @@ public class BoardGameController {
 
 
             PlayerDataHandler handler = new PlayerDataHandler();
-            handler.updatePoints(winnerName, loserName);
-            handler.savePlayersIfNotExists(winnerName, loserName);
+            handler.recordGame(model);
 
             Scene scene = new Scene(root);
             Stage stage = (Stage) board.getScene().getWindow();
@@ -181,12 +345,20 @@ public class BoardGameController {
     }
 
     private StackPane getSquare(Position position) {
-        for (var child : board.getChildren()) {
-            if (GridPane.getRowIndex(child) == position.row() && GridPane.getColumnIndex(child) == position.col()) {
-                return (StackPane) child;
-            }
+        return squares[position.row()][position.col()];
+    }
+
+    /**
+     * Let the computer play the second player. The computer players only play on a board
+     * of {@link BoardGameModel#BOARD_SIZE}, on other boards the second player stays human.
+     * @param computer the strategy choosing the turns of the computer
+     */
+    public void setComputerOpponent(MoveStrategy computer) {
+        if (!model.isStandardSize()) {
+            Logger.warn("No computer player on a board of size {}", model.getBoardSize());
+            return;
         }
-        throw new AssertionError();
+        this.computer = computer;
     }
 
     public void setPlayers(String player1, String player2) {
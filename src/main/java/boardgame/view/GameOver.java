@@ -2,7 +2,6 @@ package boardgame.view;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -18,16 +17,14 @@ public class GameOver {
 
     @FXML
     private void loginAgain(ActionEvent event) throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/login.fxml"));
-        Parent root = loader.load();
+        Parent root = BoardGameApplication.loadScene("/login.fxml").getRoot();
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.setScene(new Scene(root));
     }
 
     @FXML
     private void viewScoreBoard(ActionEvent event) throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/scoreboard.fxml"));
-        Parent root = loader.load();
+        Parent root = BoardGameApplication.loadScene("/scoreboard.fxml").getRoot();
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
         stage.setScene(new Scene(root));
     }
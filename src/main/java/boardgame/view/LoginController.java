@@ -8,6 +8,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.tinylog.Logger;
@@ -15,11 +16,15 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
+import boardgame.ai.AlphaBetaSearch;
+import boardgame.ai.MoveStrategy;
+import boardgame.ai.OpeningBookStrategy;
 import boardgame.model.PlayerDataHandler;
 
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 
@@ -33,23 +38,37 @@ public class LoginController {
     @FXML
     private TextField player2Field;
 
+    @FXML
+    private CheckBox computerField;
+
     PlayerDataHandler handler = new PlayerDataHandler();
 
     @FXML
     private void startGame(ActionEvent event) throws IOException {
         String player1 = player1Field.getText();
         String player2 = player2Field.getText();
+        if (computerField.isSelected() && player2.isEmpty()) {
+            player2 = "Computer";
+        }
 
         if(!player1.isEmpty() && !player2.isEmpty()) {
             Logger.debug("Player 1: " + player1 + "\nPlayer 2: " + player2);
 
             handler.savePlayersIfNotExists(player1, player2);
 
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/ui.fxml"));
-            Parent root = loader.load();
+            FXMLLoader loader = BoardGameApplication.loadScene("/ui.fxml");
+            Parent root = loader.getRoot();
 
             BoardGameController controller = loader.getController();
             controller.setPlayers(player1, player2);
+            if (computerField.isSelected()) {
+                MoveStrategy computer = new AlphaBetaSearch(Duration.ofSeconds(1));
+                var book = BoardGameController.getOpeningBook();
+                if (book != null) {
+                    computer = new OpeningBookStrategy(book, computer);
+                }
+                controller.setComputerOpponent(computer);
+            }
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             stage.setScene(new Scene(root));
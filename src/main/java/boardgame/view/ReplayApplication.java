@@ -0,0 +1,150 @@
+package boardgame.view;
+
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.model.BitboardState;
+import boardgame.model.BoardGameModel;
+import boardgame.model.PlayerDataHandler;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the games of a {@link GameArchive} on a {@link BoardCanvas}, a given number of turns per frame,
+ * e.g. to watch many games quickly or to check the frame rate of the canvas. The title shows the game
+ * and the frames per second, the average frame rate and the slowest frame are logged at the end.
+ * Parameters: {@code [archive file] [turns per frame] [first game]}, the archive of the program by default.
+ * The archive can be replayed while the game or the server appends to it, the games appended later are not replayed.
+ */
+public class ReplayApplication extends Application {
+
+    /**
+     * The default number of turns per frame.
+     */
+    public static final int DEFAULT_TURNS_PER_FRAME = 1;
+
+    private static final double BOARD_PIXELS = 600;
+
+    private GameArchive archive;
+
+    private boolean ownArchive;
+
+    @Override
+    public void start(Stage stage) throws IOException {
+        var args = getParameters().getRaw();
+        ownArchive = !args.isEmpty();
+        archive = ownArchive ? new GameArchive(Path.of(args.get(0))) : PlayerDataHandler.getArchive();
+        var turnsPerFrame = args.size() > 1 ? Integer.parseInt(args.get(1)) : DEFAULT_TURNS_PER_FRAME;
+        var first = args.size() > 2 ? Integer.parseInt(args.get(2)) : 0;
+        var model = new BoardGameModel(new BitboardState());
+        var canvas = new BoardCanvas(model, BOARD_PIXELS / model.getBoardSize());
+        stage.setTitle("Replay");
+        stage.setScene(new Scene(new StackPane(canvas)));
+        stage.setResizable(false);
+        stage.show();
+        new Replay(stage, model, turnsPerFrame, first).start();
+    }
+
+    @Override
+    public void stop() throws IOException {
+        if (ownArchive) {
+            archive.close();
+        }
+    }
+
+    /**
+     * Plays the turns of the games at every frame and counts the frames.
+     */
+    private class Replay extends AnimationTimer {
+
+        private final Stage stage;
+        private final BoardGameModel model;
+        private final int turnsPerFrame;
+        private final int first;
+        private int game;
+        private GameRecord record;
+        private BitboardState state;
+        private int turn;
+        private long turns;
+        private long firstFrame;
+        private long lastFrame;
+        private long slowestFrame;
+        private long frames;
+        private long secondStart;
+        private long secondFrames;
+
+        Replay(Stage stage, BoardGameModel model, int turnsPerFrame, int first) {
+            this.stage = stage;
+            this.model = model;
+            this.turnsPerFrame = turnsPerFrame;
+            this.first = first;
+            this.game = first;
+        }
+
+        @Override
+        public void handle(long now) {
+            if (frames == 0) {
+                firstFrame = now;
+                secondStart = now;
+            } else {
+                slowestFrame = Math.max(slowestFrame, now - lastFrame);
+            }
+            lastFrame = now;
+            frames++;
+            secondFrames++;
+            for (var i = 0; i < turnsPerFrame; i++) {
+                if (!step()) {
+                    stop();
+                    var seconds = (now - firstFrame) / 1e9;
+                    Logger.info("Replayed {} turns of {} games in {} frames: {} fps on average, slowest frame {} ms",
+                            turns, game - first, frames, String.format("%.1f", seconds == 0 ? 0 : (frames - 1) / seconds),
+                            TimeUnit.NANOSECONDS.toMillis(slowestFrame));
+                    return;
+                }
+            }
+            if (now - secondStart >= TimeUnit.SECONDS.toNanos(1)) {
+                stage.setTitle(String.format("Replay - game %d of %d - %d fps", game, archive.size(),
+                        secondFrames * TimeUnit.SECONDS.toNanos(1) / (now - secondStart)));
+                secondStart = now;
+                secondFrames = 0;
+            }
+        }
+
+        /**
+         * Plays the next turn, or goes back to the start for the next game.
+         *
+         * @return {@code false} if there are no more games
+         */
+        private boolean step() {
+            if (record == null || turn == record.turnCount()) {
+                if (game >= archive.size()) {
+                    return false;
+                }
+                try {
+                    record = archive.get(game++);
+                } catch (IOException e) {
+                    Logger.error(e, "Cannot read game {}", game - 1);
+                    return false;
+                }
+                while (model.undo()) {
+                    // back to the starting position
+                }
+                state = new BitboardState();
+                turn = 0;
+                return true;
+            }
+            var next = record.turn(state, turn++);
+            state.makeTurn(next);
+            model.makeTurn(next);
+            turns++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package boardgame.view;
+
+import javafx.application.Application;
+
+/**
+ * Starts the {@link ReplayApplication}.
+ */
+public class ReplayMain {
+    public static void main(String[] args) {
+        Application.launch(ReplayApplication.class, args);
+    }
+}
@@ -1,46 +1,84 @@
 package boardgame.view;
 
 
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.TableCell;
+import javafx.scene.control.Pagination;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Region;
+import org.tinylog.Logger;
 
-import boardgame.model.PlayerDataHandler.*;
+import boardgame.model.PlayerDataHandler;
+import boardgame.rating.Leaderboard;
+import boardgame.rating.Leaderboard.Standing;
 
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Shows the leaderboard one page at a time. Only the visible page is fetched from the leaderboard,
+ * either a range of ranks or the players whose name starts with the searched text.
+ */
 public class Scoreboard {
+
+    /**
+     * The number of players on a page.
+     */
+    public static final int PAGE_SIZE = 50;
+
+    @FXML
+    public TableView<Standing> tableView;
+
+    @FXML
+    public TableColumn<Standing, String> name;
+
     @FXML
-    public TableView<PlayerData> tableView;
+    public TableColumn<Standing, Integer> eloPoint;
 
     @FXML
-    public TableColumn<PlayerData, String> name;
+    public TextField search;
 
     @FXML
-    public TableColumn<PlayerData, Integer> eloPoint;
+    public Pagination pagination;
+
+    private Leaderboard leaderboard;
 
     @FXML
     private void initialize() {
-        TableColumn<PlayerData, Number> serialNumberColumn = new TableColumn<>("No.");
-
-        serialNumberColumn.setCellFactory(col -> new TableCell<PlayerData, Number>() {
-            @Override
-            protected void updateItem(Number item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || getIndex() >= getTableView().getItems().size()) {
-                    setText(null);
-                } else {
-                    setText(String.valueOf(getIndex() + 1));
-                }
-            }
-        });
-        tableView.getColumns().add(0, serialNumberColumn);
-        name.setCellValueFactory(new PropertyValueFactory<>("name"));
-        eloPoint.setCellValueFactory(new PropertyValueFactory<>("eloPoint"));
-        ObservableList<PlayerData> observableList = FXCollections.observableArrayList();
-        observableList.addAll(PlayerData.getAll());
-        tableView.setItems(observableList);
+        TableColumn<Standing, Integer> rankColumn = new TableColumn<>("No.");
+        rankColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().rank()));
+        tableView.getColumns().add(0, rankColumn);
+        name.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().name()));
+        eloPoint.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().rating()));
+        try {
+            leaderboard = PlayerDataHandler.getLeaderboard();
+        } catch (IOException e) {
+            Logger.error(e, "Error with loading the players");
+            return;
+        }
+        pagination.setPageFactory(this::showPage);
+        search.textProperty().addListener((observable, oldValue, newValue) -> refresh());
+        refresh();
+    }
+
+    private void refresh() {
+        var prefix = search.getText().strip();
+        var count = prefix.isEmpty() ? leaderboard.size() : leaderboard.countMatches(prefix);
+        pagination.setPageCount(Math.max(1, (count + PAGE_SIZE - 1) / PAGE_SIZE));
+        pagination.setCurrentPageIndex(0);
+        showPage(0);
+    }
+
+    private Region showPage(int pageIndex) {
+        var prefix = search.getText().strip();
+        var offset = pageIndex * PAGE_SIZE;
+        List<Standing> page = prefix.isEmpty()
+                ? leaderboard.page(offset, PAGE_SIZE)
+                : leaderboard.search(prefix, offset, PAGE_SIZE);
+        tableView.setItems(FXCollections.observableList(page));
+        return new Region();
     }
 }
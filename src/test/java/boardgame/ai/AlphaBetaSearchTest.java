@@ -0,0 +1,81 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import game.State;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaSearchTest {
+
+    @Test
+    void testChoosesLegalTurnInOpening() {
+        var state = new BitboardState();
+        var search = new AlphaBetaSearch(Duration.ofMillis(200));
+
+        var turn = search.chooseTurn(state);
+
+        assertEquals(new BitboardState().toString(), state.toString());
+        assertTrue(new BitboardState(state).makeTurn(turn));
+        assertTrue(search.getLastResult().depth() >= 1);
+        assertTrue(search.getLastResult().nodes() > 0);
+    }
+
+    @Test
+    void testFindsTurnLeavingOpponentWithoutMoves() {
+        var state = BitboardState.fromString("""
+                0 0 0 0 0
+                0 3 1 3 0
+                0 1 2 1 2
+                0 3 1 3 2
+                2 0 0 1 2
+                """, State.Player.PLAYER_1);
+        var search = new AlphaBetaSearch(Duration.ofMillis(500));
+
+        var result = search.search(state);
+
+        assertTrue(result.score() > AlphaBetaSearch.WIN_SCORE - AlphaBetaSearch.MAX_DEPTH);
+        state.makeTurn(result.turn());
+        assertEquals(0, MoveGenerator.generate(state, new int[MoveGenerator.MAX_TURNS]));
+    }
+
+    @Test
+    void testParallelSearchFindsSameWin() {
+        var state = BitboardState.fromString("""
+                0 0 0 0 0
+                0 3 1 3 0
+                0 1 2 1 2
+                0 3 1 3 2
+                2 0 0 1 2
+                """, State.Player.PLAYER_1);
+        try (var search = new ParallelSearch(Duration.ofMillis(500), AlphaBetaSearch.MAX_DEPTH, 3,
+                new TranspositionTable(16), new DistanceEvaluator())) {
+            var result = search.search(state);
+
+            assertTrue(result.score() > AlphaBetaSearch.WIN_SCORE - AlphaBetaSearch.MAX_DEPTH);
+            state.makeTurn(result.turn());
+            assertEquals(0, MoveGenerator.generate(state, new int[MoveGenerator.MAX_TURNS]));
+        }
+    }
+
+    @Test
+    void testTranspositionTableRoundTrip() {
+        var table = new TranspositionTable(4);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        MoveGenerator.generate(new BitboardState(), turns);
+
+        table.store(0x1234_5678_9ABCL, 7, -1234, TranspositionTable.LOWER_BOUND, turns[3]);
+
+        var entry = table.probe(0x1234_5678_9ABCL);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(Turn.toString(turns[3]), Turn.toString(TranspositionTable.turn(entry)));
+        assertEquals(0, table.probe(0x1234_5678_9ABDL));
+    }
+}
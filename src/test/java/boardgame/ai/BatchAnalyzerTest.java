@@ -0,0 +1,83 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import game.State;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchAnalyzerTest {
+
+    private static String analyse(String boards, int threads) throws IOException, InterruptedException {
+        var out = new StringWriter();
+        new BatchAnalyzer(2, threads, State.Player.PLAYER_1).analyse(new BufferedReader(new StringReader(boards)), out);
+        return out.toString();
+    }
+
+    @Test
+    void testResultsInInputOrder() throws IOException, InterruptedException {
+        var random = new SplittableRandom(5);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var boards = new StringBuilder();
+        for (var i = 0; i < 100; i++) {
+            var state = new BitboardState();
+            for (var turn = random.nextInt(6) * 2; turn > 0 && !state.isGameOver(); turn--) {
+                var count = MoveGenerator.generate(state, turns);
+                if (count == 0) {
+                    break;
+                }
+                state.makeTurn(turns[random.nextInt(count)]);
+            }
+            boards.append(state).append('\n');
+        }
+
+        var parallel = analyse(boards.toString(), 3);
+        var lines = parallel.lines().toList();
+        assertEquals(100, lines.size());
+        for (var i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).startsWith((i + 1) + "\t"), lines.get(i));
+        }
+        assertEquals(analyse(boards.toString(), 1), parallel);
+    }
+
+    @Test
+    void testStatusAndErrors() throws IOException, InterruptedException {
+        var boards = """
+                # the starting position
+                2 2 2 2 2
+                0 3 0 3 0
+                0 0 0 0 0
+                0 3 0 3 0
+                1 1 1 1 1
+
+                1 1 1 1 1
+                0 3 0 3 0
+                0 0 0 0 0
+                0 3 0 3 0
+                2 2 2 2 2
+
+                2 2 2 2 9
+                0 3 0 3 0
+                0 0 0 0 0
+                0 3 0 3 0
+                1 1 1 1 1
+
+                2 2 2 2 2
+                """;
+
+        var lines = analyse(boards, 2).lines().toList();
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("1\tIN_PROGRESS\t"), lines.get(0));
+        assertEquals(5, lines.get(0).split("\t").length);
+        assertEquals("2\tPLAYER_1_WINS\t0\t-\t-", lines.get(1));
+        assertTrue(lines.get(2).startsWith("3\tERROR\t"), lines.get(2));
+        assertEquals("4\tERROR\tIncomplete board", lines.get(3));
+    }
+}
@@ -0,0 +1,137 @@
+package boardgame.ai;
+
+import boardgame.archive.GameRecord;
+import boardgame.archive.TurnCodec;
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import game.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    private static GameRecord game(State.Player winner, int... turns) {
+        var state = new BitboardState();
+        var codes = new byte[turns.length];
+        for (var i = 0; i < turns.length; i++) {
+            codes[i] = (byte) TurnCodec.encode(state, turns[i]);
+            assertTrue(state.makeTurn(turns[i]));
+        }
+        return new GameRecord(0, "Beni", "Gitta", winner, codes);
+    }
+
+    private static int[] openingTurns() {
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var count = MoveGenerator.generate(new BitboardState(), turns);
+        var first = turns[0];
+        for (var i = 1; i < count; i++) {
+            if (Turn.firstFrom(turns[i]) != Turn.firstFrom(first)) {
+                return new int[] {first, turns[i]};
+            }
+        }
+        throw new AssertionError();
+    }
+
+    private OpeningBook build(int depth, int minGames, GameRecord... games) throws IOException {
+        var builder = new OpeningBookBuilder(depth);
+        for (var game : games) {
+            builder.add(game);
+        }
+        var file = dir.resolve("openings.bin");
+        builder.write(file, minGames);
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    void testBestTurnPrefersWinningTurn() throws IOException {
+        var turns = openingTurns();
+        var a = turns[0];
+        var b = turns[1];
+        var red = State.Player.PLAYER_1;
+        var blue = State.Player.PLAYER_2;
+        try (var book = build(1, 3, game(red, a), game(red, a), game(blue, a),
+                game(red, b), game(blue, b), game(blue, b), game(blue, b), game(null, b))) {
+            var state = new BitboardState();
+
+            assertEquals(2, book.size());
+            assertEquals(1, book.getDepth());
+            assertEquals(List.of(new OpeningBook.Entry(Math.min(a, b), a < b ? 3 : 4, a < b ? 2 : 1),
+                    new OpeningBook.Entry(Math.max(a, b), a < b ? 4 : 3, a < b ? 1 : 2)), book.lookup(state));
+            assertEquals(a, book.bestTurn(state));
+            assertEquals(new BitboardState().toString(), state.toString());
+        }
+    }
+
+    @Test
+    void testMinGamesAndPositionsOutOfBook() throws IOException {
+        var turns = openingTurns();
+        var a = turns[0];
+        var b = turns[1];
+        try (var book = build(1, 2, game(State.Player.PLAYER_1, a), game(State.Player.PLAYER_1, a),
+                game(State.Player.PLAYER_1, b))) {
+            assertEquals(1, book.size());
+            var state = new BitboardState();
+            state.makeTurn(a);
+
+            assertEquals(BitboardState.NO_SQUARE, book.bestTurn(state));
+            assertTrue(book.lookup(state).isEmpty());
+        }
+    }
+
+    @Test
+    void testPendingMoveIsCompleted() throws IOException {
+        var turns = openingTurns();
+        var a = turns[0];
+        var b = turns[1];
+        try (var book = build(1, 1, game(State.Player.PLAYER_1, a), game(State.Player.PLAYER_2, b))) {
+            var state = new BitboardState();
+            state.makeMove(Turn.firstFrom(b), Turn.firstTo(b));
+            var before = state.toString();
+
+            assertEquals(b, book.bestTurn(state));
+            assertEquals(List.of(new OpeningBook.Entry(b, 1, 0)), book.lookup(state));
+            assertEquals(before, state.toString());
+            assertTrue(state.hasPendingMove());
+        }
+    }
+
+    @Test
+    void testSelfPlayBookAndStrategy() throws IOException {
+        var builder = new OpeningBookBuilder(4);
+        builder.addSelfPlay(2000, new SplittableRandom(42));
+        var file = dir.resolve("openings.bin");
+        assertTrue(builder.write(file, 5) > 0);
+        assertTrue(builder.getGames() > 0);
+
+        try (var book = OpeningBook.open(file)) {
+            var calls = new int[1];
+            var strategy = new OpeningBookStrategy(book, state -> {
+                calls[0]++;
+                return BitboardState.NO_SQUARE;
+            });
+            var state = new BitboardState();
+            var bookTurns = 0;
+            while (calls[0] == 0) {
+                var inBook = !book.lookup(state).isEmpty();
+                var chosen = strategy.chooseTurn(state);
+                assertEquals(inBook, calls[0] == 0);
+                if (inBook) {
+                    assertTrue(state.makeTurn(chosen));
+                    bookTurns++;
+                }
+            }
+            assertTrue(bookTurns >= 1 && bookTurns <= 4);
+        }
+    }
+}
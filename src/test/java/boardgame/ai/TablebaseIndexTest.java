@@ -0,0 +1,66 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import game.State;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseIndexTest {
+
+    @Test
+    void testSize() {
+        assertEquals(21, TablebaseIndex.FREE_COUNT);
+        assertEquals(20349, TablebaseIndex.RED_COUNT);
+        assertEquals(4368, TablebaseIndex.BLUE_COUNT);
+    }
+
+    @Test
+    void testInitialPosition() {
+        var state = new BitboardState();
+        var index = TablebaseIndex.indexOf(state);
+        var redRank = (int) (index / TablebaseIndex.BLUE_COUNT);
+        var red = TablebaseIndex.redDisks(redRank);
+
+        assertTrue(TablebaseIndex.isCovered(state));
+        assertEquals(state.getDisks(State.Player.PLAYER_1), red);
+        assertEquals(state.getDisks(State.Player.PLAYER_2), TablebaseIndex.blueDisks(
+                (int) (index % TablebaseIndex.BLUE_COUNT), TablebaseIndex.squaresLeft(red)));
+    }
+
+    @Test
+    void testRankRoundTrip() {
+        var random = new Random(42);
+        for (var i = 0; i < 1000; i++) {
+            var redRank = random.nextInt(TablebaseIndex.RED_COUNT);
+            var blueRank = random.nextInt(TablebaseIndex.BLUE_COUNT);
+            var red = TablebaseIndex.redDisks(redRank);
+            var blue = TablebaseIndex.blueDisks(blueRank, TablebaseIndex.squaresLeft(red));
+
+            assertEquals(TablebaseIndex.DISKS, Integer.bitCount(red));
+            assertEquals(TablebaseIndex.DISKS, Integer.bitCount(blue));
+            assertEquals(0, (red | blue) & TablebaseIndex.OBSTACLES);
+            assertEquals(0, red & blue);
+            assertEquals((long) redRank * TablebaseIndex.BLUE_COUNT + blueRank, TablebaseIndex.index(red, blue));
+        }
+    }
+
+    @Test
+    void testMirroredPositionHasSameIndex() {
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        MoveGenerator.generate(state, turns);
+        state.makeTurn(turns[0]);
+        var mirrored = new BitboardState();
+        mirrored.setPosition(TablebaseIndex.flip(state.getDisks(State.Player.PLAYER_2)),
+                TablebaseIndex.flip(state.getDisks(State.Player.PLAYER_1)), TablebaseIndex.OBSTACLES,
+                State.Player.PLAYER_1);
+
+        assertEquals(State.Player.PLAYER_2, state.getNextPlayer());
+        assertEquals(TablebaseIndex.indexOf(mirrored), TablebaseIndex.indexOf(state));
+    }
+}
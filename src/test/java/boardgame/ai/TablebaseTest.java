@@ -0,0 +1,130 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import boardgame.model.Turn;
+import game.State;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+
+    /**
+     * Red to move wins in two turns by moving the disks of (0, 0) and (2, 2) down (X marks the obstacles):
+     * <pre>
+     * R . B . .
+     * . X . X B
+     * . . R R R
+     * . X . X B
+     * . . R B B
+     * </pre>
+     * Then blue can move the disk of (0, 2) left, right or down and the disk of (1, 4) up or up-left,
+     * the others not at all, so blue has no full turn and loses.
+     */
+    private static final int RED = mask(0, 0, 2, 2, 2, 3, 2, 4, 4, 2);
+    private static final int BLUE = mask(0, 2, 1, 4, 3, 4, 4, 3, 4, 4);
+
+    /**
+     * The red disk placements of the position above, and of every position reached by a turn of red:
+     * the blue disks do not move, they become the red disks when mirrored.
+     */
+    private static final int[] RED_RANKS = {redRank(RED), redRank(TablebaseIndex.flip(BLUE))};
+
+    private static int mask(int... rowsAndCols) {
+        var mask = 0;
+        for (var i = 0; i < rowsAndCols.length; i += 2) {
+            mask |= 1 << BitboardState.index(rowsAndCols[i], rowsAndCols[i + 1]);
+        }
+        return mask;
+    }
+
+    private static int redRank(int red) {
+        return (int) (TablebaseIndex.index(red, 0) / TablebaseIndex.BLUE_COUNT);
+    }
+
+    private static BitboardState position(int red, int blue, State.Player nextPlayer) {
+        var state = new BitboardState();
+        state.setPosition(red, blue, TablebaseIndex.OBSTACLES, nextPlayer);
+        return state;
+    }
+
+    private static ByteBuffer solve() throws InterruptedException {
+        var data = ByteBuffer.allocate(Tablebase.HEADER_SIZE + (int) TablebaseIndex.SIZE);
+        new TablebaseSolver(data).run(1, RED_RANKS);
+        return data;
+    }
+
+    @Test
+    void testWinInTwo() throws InterruptedException {
+        var tablebase = new Tablebase(solve());
+        var state = position(RED, BLUE, State.Player.PLAYER_1);
+
+        assertEquals(Tablebase.win(2), tablebase.probe(state));
+        var turn = tablebase.bestTurn(state);
+        assertEquals(Set.of(BitboardState.index(0, 0), BitboardState.index(2, 2)),
+                Set.of(Turn.firstFrom(turn), Turn.secondFrom(turn)));
+        assertEquals(BitboardState.directionOf(BitboardState.index(0, 0), BitboardState.index(1, 0)),
+                Turn.direction(turn));
+        assertTrue(state.makeTurn(turn));
+        assertFalse(state.isGameOver());
+        assertEquals(Tablebase.loss(1), tablebase.probe(state));
+        assertEquals(BitboardState.NO_SQUARE, tablebase.bestTurn(state));
+    }
+
+    @Test
+    void testPendingMoveIsValuedByItsCompletion() throws InterruptedException {
+        var data = solve();
+        var tablebase = new Tablebase(data);
+        var state = position(RED, BLUE, State.Player.PLAYER_1);
+        assertTrue(state.makeMove(BitboardState.index(0, 0), BitboardState.index(1, 0)));
+
+        assertEquals(Tablebase.win(2), tablebase.probe(state));
+        assertEquals(Tablebase.win(2), Tablebase.turnValue(state, tablebase.bestTurn(state), data));
+        assertEquals(BitboardState.index(1, 0), state.getPendingTo());
+    }
+
+    @Test
+    void testMirroredPositionHasTheSameValue() throws InterruptedException {
+        var tablebase = new Tablebase(solve());
+        var state = position(TablebaseIndex.flip(BLUE), TablebaseIndex.flip(RED), State.Player.PLAYER_2);
+
+        assertEquals(Tablebase.win(2), tablebase.probe(state));
+        var turn = tablebase.bestTurn(state);
+        assertEquals(Set.of(BitboardState.index(4, 0), BitboardState.index(2, 2)),
+                Set.of(Turn.firstFrom(turn), Turn.secondFrom(turn)));
+        assertTrue(state.makeTurn(turn));
+        assertEquals(State.Player.PLAYER_1, state.getNextPlayer());
+        assertEquals(Tablebase.loss(1), tablebase.probe(state));
+    }
+
+    @Test
+    void testResumeMatchesUninterruptedSolve() throws InterruptedException {
+        var solved = solve();
+        var data = ByteBuffer.allocate(solved.capacity()).put(solved.duplicate()).clear();
+        // the solver was interrupted in pass 2: the later values are missing, half of pass 2 was written
+        data.putInt(Tablebase.PASSES_OFFSET, 1);
+        data.putInt(Tablebase.FINISHED_OFFSET, 0);
+        var cleared = 0;
+        var seen = 0;
+        for (var redRank : RED_RANKS) {
+            for (var blueRank = 0; blueRank < TablebaseIndex.BLUE_COUNT; blueRank++) {
+                var index = (long) redRank * TablebaseIndex.BLUE_COUNT + blueRank;
+                var value = Tablebase.get(data, index);
+                var distance = Tablebase.distance(value);
+                if (value != Tablebase.DRAW && (distance > 2 || distance == 2 && (seen++ & 1) == 0)) {
+                    data.put((int) (Tablebase.HEADER_SIZE + index), (byte) Tablebase.DRAW);
+                    cleared++;
+                }
+            }
+        }
+
+        new TablebaseSolver(data).run(1, RED_RANKS);
+
+        assertTrue(cleared > 0);
+        assertEquals(1, solved.getInt(Tablebase.FINISHED_OFFSET));
+        assertEquals(solved, data);
+    }
+}
@@ -0,0 +1,78 @@
+package boardgame.ai;
+
+import boardgame.model.BitboardState;
+import game.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedEvaluatorTest {
+
+    private static final String MIDGAME = """
+            0 2 0 2 2
+            0 3 0 3 0
+            1 2 0 2 0
+            1 3 0 3 1
+            0 1 0 1 0
+            """;
+
+    private static final String MIRRORED_MIDGAME = """
+            0 2 0 2 0
+            2 3 0 3 2
+            2 1 0 1 0
+            0 3 0 3 0
+            0 1 0 1 1
+            """;
+
+    @Test
+    void testStartIsBalanced() {
+        var evaluator = new WeightedEvaluator();
+        var features = new int[WeightedEvaluator.FEATURE_COUNT];
+
+        WeightedEvaluator.features(new BitboardState(), features);
+
+        assertArrayEquals(new int[WeightedEvaluator.FEATURE_COUNT], features);
+        assertEquals(0, evaluator.evaluate(new BitboardState()));
+    }
+
+    @Test
+    void testScoreIsWeightedSumOfFeatures() {
+        var evaluator = new WeightedEvaluator(3, 5, 7, 11);
+        var state = BitboardState.fromString(MIDGAME, State.Player.PLAYER_1);
+        var mirrored = BitboardState.fromString(MIRRORED_MIDGAME, State.Player.PLAYER_2);
+        var features = new int[WeightedEvaluator.FEATURE_COUNT];
+        WeightedEvaluator.features(state, features);
+
+        assertEquals(3 * features[0] + 5 * features[1] + 7 * features[2] + 11 * features[3],
+                evaluator.evaluate(state));
+        assertEquals(evaluator.evaluate(state), evaluator.evaluate(mirrored));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedEvaluator(1, 2));
+    }
+
+    @Test
+    void testTunerFitsWeightsToResults() {
+        var size = 10_000;
+        var features = new int[size * WeightedEvaluator.FEATURE_COUNT];
+        var results = new byte[size];
+        var random = new Random(42);
+        for (var i = 0; i < size; i++) {
+            // the first feature sets the chance of winning, the second one is noise
+            var feature = random.nextInt(11) - 5;
+            features[i * WeightedEvaluator.FEATURE_COUNT] = feature;
+            features[i * WeightedEvaluator.FEATURE_COUNT + 1] = random.nextInt(11) - 5;
+            results[i] = (byte) (random.nextDouble() < 1 / (1 + Math.exp(-0.5 * feature)) ? 2 : 0);
+        }
+        var tuner = new EvaluationTuner(features, results);
+        var initial = new int[] {0, 0, 0, 0};
+
+        var tuned = tuner.tune(initial, 0.1);
+
+        assertTrue(tuned[0] >= 4 && tuned[0] <= 6, Arrays.toString(tuned));
+        assertTrue(Math.abs(tuned[1]) <= 1, Arrays.toString(tuned));
+        assertTrue(tuner.error(tuned, 0.1) < tuner.error(initial, 0.1));
+        assertEquals(0.1 * tuned[0], tuner.fitScale(tuned) * tuned[0], 0.2);
+    }
+}
@@ -0,0 +1,128 @@
+package boardgame.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private static final String[] PLAYERS = {"Beni", "Gitta", "Béla"};
+
+    private static ArrayList<GameRecord> randomGames(int count) {
+        var random = new Random(42);
+        var games = new ArrayList<GameRecord>();
+        for (var i = 0; i < count; i++) {
+            games.add(GameRecord.of(1000L * (i / 2), PLAYERS[i % 3], PLAYERS[(i + 1) % 3],
+                    GameRecordTest.randomGame(random, 100)));
+        }
+        return games;
+    }
+
+    @Test
+    void testGamesSurviveReopening() throws IOException {
+        var file = dir.resolve("games.dat");
+        var games = randomGames(30);
+        try (var archive = new GameArchive(file)) {
+            for (var i = 0; i < games.size(); i++) {
+                assertEquals(i, archive.append(games.get(i)));
+            }
+            assertEquals(games.get(7), archive.get(7));
+        }
+        try (var archive = new GameArchive(file)) {
+            assertEquals(games.size(), archive.size());
+            var read = new ArrayList<GameRecord>();
+            archive.forEach(0, archive.size(), read::add);
+            assertEquals(games, read);
+            assertEquals(games.get(12).replay(games.get(12).turnCount()).toString(),
+                    archive.get(12).replay(archive.get(12).turnCount()).toString());
+        }
+    }
+
+    @Test
+    void testIndexByPlayerAndTime() throws IOException {
+        try (var archive = new GameArchive(dir.resolve("games.dat"))) {
+            for (var game : randomGames(9)) {
+                archive.append(game);
+            }
+
+            assertArrayEquals(new int[] {0, 2, 3, 5, 6, 8}, archive.gamesOf("BENI"));
+            assertArrayEquals(new int[] {1, 2, 4, 5, 7, 8}, archive.gamesOf("béla"));
+            assertArrayEquals(new int[0], archive.gamesOf("Nobody"));
+            assertEquals(2, archive.firstGameAt(1000));
+            assertEquals(4, archive.firstGameAt(1500));
+            assertEquals(0, archive.firstGameAt(Long.MIN_VALUE));
+            assertEquals(9, archive.firstGameAt(5000));
+            assertThrows(IllegalArgumentException.class, () -> archive.append(randomGames(1).get(0)));
+        }
+    }
+
+    @Test
+    void testTornGameIsCutOff() throws IOException {
+        var file = dir.resolve("games.dat");
+        var games = randomGames(3);
+        try (var archive = new GameArchive(file)) {
+            for (var game : games) {
+                archive.append(game);
+            }
+        }
+        var size = Files.size(file);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        try (var archive = new GameArchive(file)) {
+            assertEquals(2, archive.size());
+            assertEquals(3, archive.append(games.get(2)) + 1);
+            assertEquals(games.get(2), archive.get(2));
+        }
+    }
+
+    @Test
+    void testLongNameIsRejected() throws IOException {
+        var file = dir.resolve("games.dat");
+        var longName = "é".repeat(GameArchive.MAX_NAME_LENGTH / 2 + 1);
+        try (var archive = new GameArchive(file)) {
+            var game = randomGames(1).get(0);
+            assertThrows(IllegalArgumentException.class, () -> archive.append(new GameRecord(game.time(), longName,
+                    game.player2(), game.winner(), game.turns())));
+            assertEquals(0, archive.size());
+            assertEquals(0, Files.size(file));
+            archive.append(new GameRecord(game.time(), "é".repeat(GameArchive.MAX_NAME_LENGTH / 2), game.player2(),
+                    game.winner(), game.turns()));
+        }
+        try (var archive = new GameArchive(file)) {
+            assertEquals(1, archive.size());
+        }
+    }
+
+    @Test
+    void testSharedFile() throws IOException {
+        var file = dir.resolve("games.dat");
+        var games = randomGames(4);
+        try (var first = new GameArchive(file); var second = new GameArchive(file)) {
+            assertEquals(0, first.append(games.get(2)));
+            assertEquals(1, second.append(games.get(3)));
+            assertEquals(1, first.size());
+
+            first.refresh();
+            assertEquals(2, first.size());
+            assertEquals(games.get(3), first.get(1));
+
+            assertEquals(2, first.appendLatest(games.get(0)));
+            assertEquals(games.get(3).time(), first.get(2).time());
+            assertThrows(IllegalArgumentException.class, () -> second.append(games.get(1)));
+            assertEquals(3, second.size());
+        }
+    }
+}
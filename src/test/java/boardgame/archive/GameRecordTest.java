@@ -0,0 +1,87 @@
+package boardgame.archive;
+
+import boardgame.model.BitboardState;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+
+    static BitboardState randomGame(Random random, int turnLimit) {
+        var state = new BitboardState();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        for (var turn = 0; turn < turnLimit && !state.isGameOver(); turn++) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                break;
+            }
+            state.makeTurn(turns[random.nextInt(count)]);
+        }
+        return state;
+    }
+
+    @Test
+    void testEncodeDecode() {
+        var random = new Random(42);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var state = new BitboardState();
+        for (var ply = 0; ply < 50 && !state.isGameOver(); ply++) {
+            var count = MoveGenerator.generate(state, turns);
+            for (var i = 0; i < count; i++) {
+                var code = TurnCodec.encode(state, turns[i]);
+                assertTrue(code >= 0 && code < 256);
+                assertEquals(turns[i], TurnCodec.decode(state, code), Turn.toString(turns[i]));
+            }
+            state.makeTurn(turns[random.nextInt(count)]);
+        }
+    }
+
+    @Test
+    void testReplayRebuildsEveryPosition() {
+        var random = new Random(7);
+        for (var game = 0; game < 200; game++) {
+            var played = randomGame(random, 500);
+            var record = GameRecord.of(game, "Beni", "Gitta", played);
+            var positions = new ArrayList<String>();
+            var state = new BitboardState();
+            positions.add(state.toString());
+            for (var move = 0; move < played.getHistorySize(); move++) {
+                state.makeMove(played.getMoveFrom(move), played.getMoveTo(move));
+                if (!state.hasPendingMove() || state.isGameOver()) {
+                    positions.add(state.toString());
+                }
+            }
+
+            assertEquals(positions.size() - 1, record.turnCount());
+            for (var turn = game < 20 ? 0 : record.turnCount(); turn <= record.turnCount(); turn++) {
+                assertEquals(positions.get(turn), record.replay(turn).toString());
+            }
+            assertEquals(played.isGameOver() ? played.getWinner() : null, record.winner());
+            assertEquals(played.isGameOver(), record.replay(record.turnCount()).isGameOver());
+        }
+    }
+
+    @Test
+    void testPendingMoveOfUnfinishedGameIsDropped() {
+        var state = new BitboardState();
+        state.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0));
+
+        var record = GameRecord.of(0, "Beni", "Gitta", state);
+
+        assertEquals(0, record.turnCount());
+        assertNull(record.winner());
+    }
+
+    @Test
+    void testRejectsIllegalTurns() {
+        var record = new GameRecord(0, "Beni", "Gitta", null, new byte[] {(byte) 0xff});
+
+        assertThrows(IllegalStateException.class, () -> record.replay(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> record.replay(2));
+    }
+}
@@ -0,0 +1,75 @@
+package boardgame.metrics;
+
+import boardgame.model.BoardGameModel;
+import boardgame.model.Position;
+import boardgame.rating.GameResult;
+import boardgame.rating.GameResultLog;
+import game.TwoPhaseMoveState;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMetricsTest {
+
+    @Test
+    void testHistogramBuckets() {
+        for (var value : new long[] {0, 1, 15, 16, 17, 100, 1_000_000, Long.MAX_VALUE}) {
+            var lowest = LatencyHistogram.lowest(LatencyHistogram.index(value));
+            assertTrue(lowest <= value && value - lowest <= value / 16, "value " + value);
+        }
+    }
+
+    @Test
+    void testMBean() throws Exception {
+        var metrics = new GameMetrics();
+        var server = MBeanServerFactory.newMBeanServer();
+        metrics.register(server);
+        var name = new ObjectName(GameMetrics.OBJECT_NAME);
+        metrics.recordMove(1_000);
+        metrics.recordMove(100_000);
+        metrics.recordWrite(5_000, 42);
+        assertEquals(2L, server.getAttribute(name, "Moves"));
+        assertEquals(100_000L, (long) server.getAttribute(name, "MoveLatencyP99"), 100_000 / 16);
+        assertEquals(42L, server.getAttribute(name, "BytesWritten"));
+        assertEquals(0L, server.getAttribute(name, "Reads"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "Moves"));
+        assertEquals(0L, server.getAttribute(name, "MoveLatencyP50"));
+    }
+
+    @Test
+    void testFlightRecorderEvents(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("events.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(MoveEvent.class);
+            recording.enable(PersistenceEvent.class);
+            recording.start();
+            var model = new BoardGameModel();
+            model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(new Position(4, 0), new Position(3, 0)));
+            model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(new Position(4, 2), new Position(2, 2)));
+            new GameResultLog(dir.resolve("results.log")).append(List.of(new GameResult(1, "a", "b")), false);
+            recording.stop();
+            recording.dump(file);
+        }
+        var events = RecordingFile.readAllEvents(file);
+        var moves = events.stream().filter(e -> e.getEventType().getName().equals("boardgame.Move")).toList();
+        assertEquals(2, moves.size());
+        assertTrue(moves.get(0).getBoolean("legal"));
+        assertEquals("(4,0)", moves.get(0).getString("from"));
+        assertEquals("PLAYER_1", moves.get(0).getString("player"));
+        assertFalse(moves.get(1).getBoolean("legal"));
+        var writes = events.stream().filter(e -> e.getEventType().getName().equals("boardgame.Persistence")).toList();
+        assertEquals(1, writes.size());
+        assertEquals("write", writes.get(0).getString("operation"));
+        assertTrue(writes.get(0).getLong("bytes") > Long.BYTES);
+    }
+}
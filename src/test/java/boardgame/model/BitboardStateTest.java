@@ -0,0 +1,167 @@
+package boardgame.model;
+
+import game.State;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitboardStateTest {
+
+    BitboardState state;
+
+    @BeforeEach
+    void generateState() {
+        state = new BitboardState();
+    }
+
+    @Test
+    void testInitialBoard() {
+        assertEquals(new BoardGameModel().toString(), state.toString());
+        assertEquals(Square.BLACK, state.getSquare(new Position(1, 1)));
+        assertEquals(Square.BLACK, state.getSquare(new Position(3, 3)));
+        assertEquals(Square.BLUE, state.getSquare(new Position(0, 2)));
+        assertEquals(Square.RED, state.getSquare(new Position(4, 2)));
+    }
+
+    @Test
+    void testIsLegalMove() {
+        assertTrue(state.isLegalMove(BitboardState.index(4, 0), BitboardState.index(3, 0)));
+        assertFalse(state.isLegalMove(BitboardState.index(4, 0), BitboardState.index(2, 0)));
+        assertFalse(state.isLegalMove(BitboardState.index(4, 0), BitboardState.index(4, 1)));
+        assertFalse(state.isLegalMove(BitboardState.index(4, 2), BitboardState.index(3, 3)));
+        assertFalse(state.isLegalMove(BitboardState.index(0, 0), BitboardState.index(1, 0)));
+        assertFalse(state.isLegalMove(BitboardState.index(4, 4), BitboardState.index(4, 5)));
+    }
+
+    @Test
+    void testFullTurn() {
+        assertTrue(state.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0)));
+        assertTrue(state.hasPendingMove());
+        assertFalse(state.makeMove(BitboardState.index(3, 0), BitboardState.index(2, 0)));
+        assertFalse(state.makeMove(BitboardState.index(4, 2), BitboardState.index(3, 1)));
+        assertEquals(State.Player.PLAYER_1, state.getNextPlayer());
+
+        assertTrue(state.makeMove(BitboardState.index(4, 2), BitboardState.index(3, 2)));
+        assertFalse(state.hasPendingMove());
+        assertEquals(State.Player.PLAYER_2, state.getNextPlayer());
+        assertEquals(Square.RED, state.getSquare(BitboardState.index(3, 2)));
+        assertEquals(Square.NONE, state.getSquare(BitboardState.index(4, 2)));
+    }
+
+    @Test
+    void testNoValidSecondMove() {
+        for (var col = 0; col < BitboardState.BOARD_SIZE; col++) {
+            state.setSquare(BitboardState.index(4, col), Square.NONE);
+        }
+        state.setSquare(BitboardState.index(4, 0), Square.RED);
+        state.setSquare(BitboardState.index(2, 3), Square.RED);
+
+        assertTrue(state.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0)));
+
+        assertFalse(state.hasValidSecondMove());
+        assertTrue(state.isGameOver());
+        assertEquals(State.Status.PLAYER_2_WINS, state.getStatus());
+    }
+
+    @Test
+    void testDisksInGoal() {
+        for (var col = 0; col < BitboardState.BOARD_SIZE; col++) {
+            state.setSquare(BitboardState.index(1, col), Square.NONE);
+        }
+        state.setSquare(BitboardState.index(0, 0), Square.NONE);
+        state.setSquare(BitboardState.index(1, 0), Square.RED);
+        state.setSquare(BitboardState.index(1, 2), Square.RED);
+        for (var col = 1; col < BitboardState.BOARD_SIZE; col++) {
+            state.setSquare(BitboardState.index(0, col), Square.RED);
+        }
+        assertEquals(4, state.getDisksInGoal(State.Player.PLAYER_1));
+        assertFalse(state.isGameOver());
+
+        assertTrue(state.makeMove(BitboardState.index(1, 0), BitboardState.index(0, 0)));
+
+        assertEquals(5, state.getDisksInGoal(State.Player.PLAYER_1));
+        assertEquals(State.Status.PLAYER_1_WINS, state.getStatus());
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        var copy = new BitboardState(state);
+        copy.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0));
+
+        assertEquals(Square.RED, state.getSquare(BitboardState.index(4, 0)));
+        assertFalse(state.hasPendingMove());
+    }
+
+    @Test
+    void testUnmakeMoveRestoresState() {
+        var initial = state.toString();
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var random = new Random(7);
+        var states = new ArrayList<String>();
+        while (!state.isGameOver() && state.getHistorySize() < 60) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                break;
+            }
+            states.add(state + " " + state.getNextPlayer());
+            state.makeTurn(turns[random.nextInt(count)]);
+        }
+        for (var i = states.size() - 1; i >= 0; i--) {
+            assertTrue(state.unmakeTurn());
+            assertEquals(states.get(i), state + " " + state.getNextPlayer());
+            assertFalse(state.hasPendingMove());
+            assertFalse(state.isGameOver());
+        }
+        assertFalse(state.unmakeMove());
+        assertEquals(initial, state.toString());
+    }
+
+    @Test
+    void testUnmakeSecondMoveRestoresPendingMove() {
+        state.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0));
+        state.makeMove(BitboardState.index(4, 2), BitboardState.index(3, 2));
+
+        assertTrue(state.unmakeMove());
+
+        assertEquals(State.Player.PLAYER_1, state.getNextPlayer());
+        assertEquals(BitboardState.index(4, 0), state.getPendingFrom());
+        assertEquals(BitboardState.index(3, 0), state.getPendingTo());
+        assertEquals(Square.RED, state.getSquare(BitboardState.index(4, 2)));
+    }
+
+    @Test
+    void testHashIsMaintainedIncrementally() {
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var random = new Random(11);
+        var initialHash = state.getHash();
+        assertEquals(Zobrist.hash(state), initialHash);
+        while (!state.isGameOver() && state.getHistorySize() < 60) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                break;
+            }
+            var turn = turns[random.nextInt(count)];
+            state.makeMove(Turn.firstFrom(turn), Turn.firstTo(turn));
+            assertEquals(Zobrist.hash(state), state.getHash());
+            state.makeMove(Turn.secondFrom(turn), Turn.secondTo(turn));
+            assertEquals(Zobrist.hash(state), state.getHash());
+        }
+        while (state.unmakeMove()) {
+            assertEquals(Zobrist.hash(state), state.getHash());
+        }
+        assertEquals(initialHash, state.getHash());
+    }
+
+    @Test
+    void testDirectionOf() {
+        for (var d = 0; d < BitboardState.DIRECTION_COUNT; d++) {
+            var from = BitboardState.index(2, 2);
+            assertEquals(d, BitboardState.directionOf(from, from + BitboardState.DELTA[d]));
+        }
+    }
+}
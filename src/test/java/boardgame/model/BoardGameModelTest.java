@@ -3,8 +3,15 @@ package boardgame.model;
 import common.TwoPhaseMoveState;
 import game.State;
 
+import boardgame.archive.GameArchive;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -135,4 +142,101 @@ class BoardGameModelTest {
         assertEquals("Béla", model.getLoserName());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUndo() {
+        Position from = new Position(4, 0);
+        Position to = new Position(3, 0);
+        model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(from, to));
+        model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(new Position(4, 2), new Position(3, 2)));
+
+        assertTrue(model.undo());
+        assertEquals(State.Player.PLAYER_1, model.getNextPlayer());
+        assertEquals(Square.RED, model.squareProperty(4, 2).get());
+
+        assertTrue(model.undo());
+        assertEquals(Square.RED, model.squareProperty(4, 0).get());
+        assertEquals(Square.NONE, model.squareProperty(3, 0).get());
+        assertFalse(model.undo());
+    }
+
+    @Test
+    void testLargeBoard() {
+        model = new BoardGameModel(BoardLayout.standard(8));
+        model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(new Position(7, 7), new Position(6, 7)));
+
+        assertEquals(8, model.getBoardSize());
+        assertFalse(model.isStandardSize());
+        assertEquals(Square.BLACK, model.squareProperty(6, 5).get());
+        assertEquals(Square.RED, model.squareProperty(6, 7).get());
+        assertEquals(Square.NONE, model.squareProperty(7, 7).get());
+        assertTrue(model.undo());
+        assertEquals(Square.RED, model.squareProperty(7, 7).get());
+        assertThrows(UnsupportedOperationException.class, model::copyState);
+    }
+
+    @Test
+    void testCustomObstacles(@TempDir Path dir) throws IOException {
+        model = new BoardGameModel(BoardLayout.parse(".....\n.....\n..#..\n.....\n....."));
+        assertFalse(model.isStandardSize());
+        for (var col = 0; col < BoardGameModel.BOARD_SIZE; col++) {
+            if (col != 1) {
+                model.setTestSquare(new Position(4, col), Square.NONE);
+            }
+        }
+        // (3,1) is an obstacle of the default layout, and the last red disk has no second move
+        model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(new Position(4, 1), new Position(3, 1)));
+        assertTrue(model.isGameOver());
+        model.setPlayers("Anna", "Bence");
+
+        System.setProperty(PlayerDataHandler.DIRECTORY_PROPERTY, dir.toString());
+        try {
+            new PlayerDataHandler().recordGame(model);
+        } finally {
+            PlayerDataHandler.closeStore();
+            System.clearProperty(PlayerDataHandler.DIRECTORY_PROPERTY);
+        }
+        try (var store = new PlayerStore(dir.resolve("jatekosok.log"));
+             var archive = new GameArchive(dir.resolve("jatszmak.dat"))) {
+            assertTrue(store.getRating("Bence").isPresent());
+            assertEquals(0, archive.size());
+        }
+    }
+
+    @Test
+    void testRecordGameLeavesTheArchiveToTheWriter(@TempDir Path dir) throws IOException {
+        var random = new SplittableRandom(2);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        while (!model.isGameOver()) {
+            var state = model.copyState();
+            var count = MoveGenerator.generate(state, turns);
+            if (count > 0) {
+                model.makeTurn(turns[random.nextInt(count)]);
+                continue;
+            }
+            // only a first move is left, which ends the game
+            for (var move = 0; !model.isGameOver(); move++) {
+                if (state.isLegalMove(move / 25, move % 25)) {
+                    model.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(BitboardState.positionOf(move / 25),
+                            BitboardState.positionOf(move % 25)));
+                }
+            }
+        }
+        assertTrue(model.isStandardSize());
+        model.setPlayers("Anna", "Bence");
+        // the archive cannot be opened, recordGame would fail if it opened it on this thread
+        var archiveFile = Files.createDirectory(dir.resolve("jatszmak.dat"));
+
+        System.setProperty(PlayerDataHandler.DIRECTORY_PROPERTY, dir.toString());
+        try {
+            new PlayerDataHandler().recordGame(model);
+        } finally {
+            PlayerDataHandler.closeStore();
+            System.clearProperty(PlayerDataHandler.DIRECTORY_PROPERTY);
+        }
+        Files.delete(archiveFile);
+        try (var store = new PlayerStore(dir.resolve("jatekosok.log"))) {
+            assertTrue(store.getRating("Anna").isPresent());
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardLayoutTest {
+
+    @Test
+    void testDefaultLayout() {
+        assertEquals(5, BoardLayout.DEFAULT.getSize());
+        assertEquals(List.of(new Position(1, 1), new Position(1, 3), new Position(3, 1), new Position(3, 3)),
+                BoardLayout.DEFAULT.getObstacles());
+        assertEquals(BoardLayout.DEFAULT, BoardLayout.parse("""
+                .....
+                .#.#.
+                .....
+                .#.#.
+                .....
+                """));
+    }
+
+    @Test
+    void testStandardLayout() {
+        var layout = BoardLayout.standard(8);
+
+        assertEquals(6, layout.getObstacles().size());
+        assertTrue(layout.isObstacle(1, 5));
+        assertTrue(layout.isObstacle(6, 1));
+        assertFalse(layout.isObstacle(1, 7));
+        assertEquals(layout, BoardLayout.parse(layout.toString()));
+    }
+
+    @Test
+    void testInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.standard(2));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.standard(BoardLayout.MAX_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("#..\n...\n..."));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("...\n.x.\n..."));
+        assertThrows(IllegalArgumentException.class, () -> BoardLayout.parse("...\n..\n..."));
+    }
+}
@@ -0,0 +1,84 @@
+package boardgame.model;
+
+import game.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LargeBoardStateTest {
+
+    @Test
+    void testSameRulesAsBitboards() {
+        var random = new SplittableRandom(11);
+        for (var game = 0; game < 200; game++) {
+            var bitboard = new BitboardState();
+            var large = new LargeBoardState(BoardLayout.DEFAULT);
+            for (var move = 0; move < 200 && !bitboard.isGameOver(); move++) {
+                for (var from = 0; from < BitboardState.SQUARE_COUNT; from++) {
+                    for (var to = 0; to < BitboardState.SQUARE_COUNT; to++) {
+                        assertEquals(bitboard.isLegalMove(from, to), large.isLegalMove(from, to));
+                    }
+                }
+                int from;
+                int to;
+                do {
+                    from = random.nextInt(BitboardState.SQUARE_COUNT);
+                    to = random.nextInt(BitboardState.SQUARE_COUNT);
+                } while (!bitboard.isLegalMove(from, to));
+                assertEquals(bitboard.makeMove(from, to), large.makeMove(from, to));
+                assertEquals(bitboard.toString(), large.toString());
+                assertEquals(bitboard.getStatus(), large.getStatus());
+                assertEquals(bitboard.getNextPlayer(), large.getNextPlayer());
+                assertEquals(bitboard.hasValidSecondMove(), large.hasValidSecondMove());
+            }
+        }
+    }
+
+    @Test
+    void testLargeBoard() {
+        var state = new LargeBoardState(BoardLayout.standard(12));
+
+        assertEquals(12, state.getBoardSize());
+        assertEquals(Square.BLUE, state.getSquare(new Position(0, 11)));
+        assertEquals(Square.RED, state.getSquare(new Position(11, 0)));
+        assertEquals(Square.BLACK, state.getSquare(new Position(10, 9)));
+        assertFalse(state.isLegalMove(11 * 12, 10 * 12 + 1));
+        assertTrue(state.makeMove(11 * 12, 10 * 12));
+        assertFalse(state.makeMove(11 * 12 + 2, 10 * 12 + 3));
+        assertTrue(state.makeMove(11 * 12 + 2, 10 * 12 + 2));
+        assertEquals(State.Player.PLAYER_2, state.getNextPlayer());
+        assertFalse(state.isGameOver());
+    }
+
+    @Test
+    void testUnmakeRestoresHash() {
+        var state = new LargeBoardState(BoardLayout.standard(9));
+        var start = state.getHash();
+        var copy = new LargeBoardState(state);
+        state.makeMove(8 * 9 + 4, 7 * 9 + 4);
+        var pending = state.getHash();
+        state.makeMove(8 * 9 + 6, 7 * 9 + 6);
+
+        assertNotEquals(pending, state.getHash());
+        assertTrue(state.unmakeMove());
+        assertEquals(pending, state.getHash());
+        assertTrue(state.unmakeMove());
+        assertEquals(start, state.getHash());
+        assertEquals(copy.toString(), state.toString());
+        assertFalse(state.unmakeMove());
+    }
+
+    @Test
+    void testGameOverOnLargeBoard() {
+        var state = new LargeBoardState(BoardLayout.standard(8));
+        for (var col = 0; col < 8; col++) {
+            state.setSquare(7 * 8 + col, Square.NONE);
+            state.setSquare(col, Square.RED);
+        }
+
+        assertTrue(state.isGameOver());
+        assertEquals(State.Player.PLAYER_1, state.getWinner());
+    }
+}
@@ -0,0 +1,92 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    private final int[] turns = new int[MoveGenerator.MAX_TURNS];
+
+    private static Set<String> bruteForceOutcomes(BitboardState state) {
+        var outcomes = new HashSet<String>();
+        for (var from1 = 0; from1 < BitboardState.SQUARE_COUNT; from1++) {
+            for (var to1 = 0; to1 < BitboardState.SQUARE_COUNT; to1++) {
+                var first = new BitboardState(state);
+                if (!first.makeMove(from1, to1)) {
+                    continue;
+                }
+                if (first.isGameOver()) {
+                    if (first.hasValidSecondMove()) {
+                        outcomes.add(first.toString());
+                    }
+                    continue;
+                }
+                for (var from2 = 0; from2 < BitboardState.SQUARE_COUNT; from2++) {
+                    for (var to2 = 0; to2 < BitboardState.SQUARE_COUNT; to2++) {
+                        var second = new BitboardState(first);
+                        if (second.makeMove(from2, to2)) {
+                            outcomes.add(second.toString());
+                        }
+                    }
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    @Test
+    void testInitialPosition() {
+        var state = new BitboardState();
+        var count = MoveGenerator.generate(state, turns);
+
+        assertEquals(bruteForceOutcomes(state).size(), count);
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomGames() {
+        var random = new Random(42);
+        for (var game = 0; game < 20; game++) {
+            var state = new BitboardState();
+            for (var ply = 0; ply < 40 && !state.isGameOver(); ply++) {
+                var count = MoveGenerator.generate(state, turns);
+                var outcomes = new HashSet<String>();
+                var fullTurns = 0;
+                var fullTurnOutcomes = new HashSet<String>();
+                for (var i = 0; i < count; i++) {
+                    var copy = new BitboardState(state);
+                    assertTrue(copy.makeTurn(turns[i]), Turn.toString(turns[i]));
+                    outcomes.add(copy.toString());
+                    if (!copy.hasPendingMove()) {
+                        fullTurns++;
+                        fullTurnOutcomes.add(copy.toString());
+                    }
+                }
+                assertEquals(fullTurns, fullTurnOutcomes.size());
+                assertEquals(bruteForceOutcomes(state), outcomes);
+                if (count == 0) {
+                    break;
+                }
+                state.makeTurn(turns[random.nextInt(count)]);
+            }
+        }
+    }
+
+    @Test
+    void testPendingMoveCompletions() {
+        var state = new BitboardState();
+        state.makeMove(BitboardState.index(4, 0), BitboardState.index(3, 0));
+
+        var count = MoveGenerator.generate(state, turns, 5);
+
+        assertEquals(2, count);
+        for (var i = 5; i < 5 + count; i++) {
+            assertEquals(BitboardState.index(4, 0), Turn.firstFrom(turns[i]));
+            assertTrue(new BitboardState(state).makeTurn(turns[i]));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package boardgame.model;
+
+import boardgame.model.PlayerDataHandler.PlayerData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<String> read(PlayerFile file) throws IOException {
+        var players = new ArrayList<String>();
+        file.forEach(player -> players.add(player.getName() + "=" + player.getEloPoint()));
+        return players;
+    }
+
+    @Test
+    void testWriteFindAndUpdate() throws IOException {
+        for (var format : PlayerFile.Format.values()) {
+            testWriteFindAndUpdate(format);
+        }
+    }
+
+    private void testWriteFindAndUpdate(PlayerFile.Format format) throws IOException {
+        var file = new PlayerFile(dir.resolve("players" + format.getExtension()));
+        assertEquals(format, file.getFormat());
+
+        file.write(List.of(new PlayerData("Beni", 1350), new PlayerData("Béla", 1050), new PlayerData("Gitta", 900)));
+        assertEquals(List.of("Beni=1350", "Béla=1050", "Gitta=900"), read(file));
+        assertEquals(Optional.of("Béla"), file.find("BÉLA").map(PlayerData::getName));
+        assertEquals(Optional.empty(), file.find("Nobody"));
+
+        assertTrue(file.update("gitta", 950));
+        assertFalse(file.update("Péter", 1000));
+        assertEquals(List.of("Beni=1350", "Béla=1050", "Gitta=950", "Péter=1000"), read(file));
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void testReadsJsonOfOtherWriters() throws IOException {
+        var file = new PlayerFile(dir.resolve("players.json"));
+        Files.writeString(file.getFile(), """
+                [ { "elo_pont" : 1350, "nev" : "Beni", "games" : [ 1, 2 ] }, { "nev" : "Gitta" } ]""");
+
+        assertEquals(List.of("Beni=1350", "Gitta=0"), read(file));
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        var file = new PlayerFile(dir.resolve("players.json"));
+        Files.writeString(file.getFile(), "{ \"nev\" : \"Beni\" }");
+
+        assertThrows(IOException.class, () -> read(file));
+    }
+
+    @Test
+    void testSmileIsSmaller() throws IOException {
+        var players = new ArrayList<PlayerData>();
+        for (var i = 0; i < 1000; i++) {
+            players.add(new PlayerData("Player " + i, 1000 + i));
+        }
+        var json = new PlayerFile(dir.resolve("players.json"));
+        var smile = new PlayerFile(dir.resolve("players.smile"));
+        json.write(players);
+        smile.write(players);
+
+        assertTrue(Files.size(smile.getFile()) < Files.size(json.getFile()) / 2);
+        assertEquals(read(json), read(smile));
+    }
+}
@@ -0,0 +1,121 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.OptionalInt;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStoreConcurrencyTest {
+
+    private static final int PLAYERS = 10;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Plays games against a store in a separate process.
+     *
+     * @param args the log file and the number of games
+     * @throws IOException if the store cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        try (var store = new PlayerStore(Path.of(args[0]))) {
+            for (var game = 0; game < Integer.parseInt(args[1]); game++) {
+                store.addIfAbsent("Beni", 1000);
+                store.addPoints("Beni", 1);
+            }
+        }
+    }
+
+    @Test
+    void testNoUpdatesLostBetweenThreadsAndStores() throws Exception {
+        var file = dir.resolve("players.log");
+        var gamesPerThread = 2000;
+        try (var first = new PlayerStore(file); var second = new PlayerStore(file);
+             var executor = Executors.newFixedThreadPool(8)) {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var thread = 0; thread < 8; thread++) {
+                var store = thread % 2 == 0 ? first : second;
+                tasks.add(() -> {
+                    var random = ThreadLocalRandom.current();
+                    for (var game = 0; game < gamesPerThread; game++) {
+                        var winner = random.nextInt(PLAYERS);
+                        var loser = (winner + 1 + random.nextInt(PLAYERS - 1)) % PLAYERS;
+                        store.addIfAbsent("Player " + winner, 1000);
+                        store.addIfAbsent("Player " + loser, 1000);
+                        store.addPoints("Player " + winner, 50);
+                        store.addPoints("Player " + loser, -50);
+                        if (game % 500 == 0) {
+                            store.compact();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            first.refresh();
+            second.refresh();
+            for (var store : new PlayerStore[]{first, second}) {
+                assertEquals(PLAYERS, store.size());
+                assertEquals(PLAYERS * 1000, store.getAll().stream().mapToInt(PlayerDataHandler.PlayerData::getEloPoint)
+                        .sum());
+            }
+            assertEquals(first.getAll().stream().map(PlayerDataHandler.PlayerData::getEloPoint).toList(),
+                    second.getAll().stream().map(PlayerDataHandler.PlayerData::getEloPoint).toList());
+        }
+    }
+
+    @Test
+    void testNoPointsLostBetweenThreads() throws IOException, InterruptedException, ExecutionException {
+        var file = dir.resolve("players.log");
+        try (var store = new PlayerStore(file); var executor = Executors.newFixedThreadPool(8)) {
+            store.addIfAbsent("Beni", 0);
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var thread = 0; thread < 8; thread++) {
+                tasks.add(() -> {
+                    for (var game = 0; game < 1000; game++) {
+                        store.addPoints("Beni", 1);
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            assertEquals(OptionalInt.of(8000), store.getRating("Beni"));
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(8000), store.getRating("Beni"));
+        }
+    }
+
+    @Test
+    void testNoPointsLostBetweenProcesses() throws IOException, InterruptedException {
+        var file = dir.resolve("players.log");
+        var java = ProcessHandle.current().info().command().orElse("java");
+        var processes = new ArrayList<Process>();
+        for (var i = 0; i < 3; i++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    PlayerStoreConcurrencyTest.class.getName(), file.toString(), "1500")
+                    .inheritIO()
+                    .start());
+        }
+        for (var process : processes) {
+            assertEquals(0, process.waitFor());
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(1000 + 3 * 1500), store.getRating("Beni"));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package boardgame.model;
+
+import boardgame.rating.Leaderboard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testChangesSurviveReopening() throws IOException {
+        var file = dir.resolve("players.log");
+        try (var store = new PlayerStore(file)) {
+            assertTrue(store.addIfAbsent("Beni", 1000));
+            assertFalse(store.addIfAbsent("beni", 1000));
+            assertTrue(store.addIfAbsent("Béla", 1000));
+            assertTrue(store.addPoints("Beni", 50));
+            assertTrue(store.addPoints("Béla", -50));
+            assertFalse(store.addPoints("Nobody", 50));
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(2, store.size());
+            assertEquals(OptionalInt.of(1050), store.getRating("BENI"));
+            assertEquals(OptionalInt.of(950), store.getRating("Béla"));
+            assertEquals("Beni", store.getAll().get(0).getName());
+        }
+    }
+
+    @Test
+    void testTornRecordIsCutOff() throws IOException {
+        var file = dir.resolve("players.log");
+        try (var store = new PlayerStore(file)) {
+            store.addIfAbsent("Beni", 1000);
+            store.addPoints("Beni", 50);
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(1000), store.getRating("Beni"));
+            store.addPoints("Beni", -50);
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(950), store.getRating("Beni"));
+        }
+    }
+
+    @Test
+    void testCompactionKeepsRatings() throws IOException {
+        var file = dir.resolve("players.log");
+        try (var store = new PlayerStore(file)) {
+            for (var i = 0; i < 10; i++) {
+                store.addIfAbsent("Player " + i, 1000);
+            }
+            for (var game = 0; game < 3000; game++) {
+                store.addPoints("Player " + game % 10, 50);
+                store.addPoints("Player " + (game + 1) % 10, -50);
+            }
+            store.compact();
+            store.addPoints("Player 0", 50);
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(1050), store.getRating("Player 0"));
+            assertEquals(OptionalInt.of(1000), store.getRating("Player 5"));
+        }
+        assertTrue(Files.size(file) < 1000);
+    }
+
+    @Test
+    void testJsonRoundTrip() throws IOException {
+        var json = dir.resolve("players.json");
+        Files.writeString(json, """
+                [ {
+                  "nev" : "Beni",
+                  "elo_pont" : 1350
+                }, {
+                  "nev" : "Gitta",
+                  "elo_pont" : 900
+                } ]""");
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            assertEquals(2, store.importPlayers(json));
+            store.addPoints("Gitta", 50);
+            store.exportPlayers(json);
+        }
+        try (var store = new PlayerStore(dir.resolve("other.log"))) {
+            store.importPlayers(json);
+            assertEquals(OptionalInt.of(1350), store.getRating("Beni"));
+            assertEquals(OptionalInt.of(950), store.getRating("Gitta"));
+        }
+    }
+
+    @Test
+    void testListenerKeepsLeaderboardUpToDate() throws IOException {
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            var leaderboard = new Leaderboard();
+            store.addListener(leaderboard::update);
+            store.addIfAbsent("Beni", 1000);
+            store.addIfAbsent("Béla", 1000);
+            store.addPoints("Béla", 50);
+
+            assertEquals(OptionalInt.of(1), leaderboard.rank("Béla"));
+            assertEquals(new Leaderboard.Standing(2, "Beni", 1000), leaderboard.page(1, 1).get(0));
+        }
+    }
+}
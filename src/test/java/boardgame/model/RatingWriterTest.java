@@ -0,0 +1,144 @@
+package boardgame.model;
+
+import boardgame.archive.GameArchive;
+import boardgame.archive.GameRecord;
+import boardgame.rating.EloRating;
+import boardgame.rating.GameResultLog;
+import boardgame.rating.RatingRecompute;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testChangesAreCoalescedInOrder() throws IOException {
+        var json = dir.resolve("players.json");
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            try (var writer = new RatingWriter(store, json, Duration.ofHours(1), true)) {
+                writer.addPoints("Beni", 50);
+                writer.addIfAbsent("Beni", 1000);
+                writer.addIfAbsent("Béla", 1000);
+                for (var game = 0; game < 100; game++) {
+                    writer.addPoints("Beni", 50);
+                    writer.addPoints("Béla", -50);
+                }
+                writer.addIfAbsent("beni", 500);
+
+                assertEquals(0, store.size());
+                writer.flush();
+
+                assertEquals(OptionalInt.of(6000), store.getRating("Beni"));
+                assertEquals(OptionalInt.of(-4000), store.getRating("Béla"));
+                assertTrue(Files.notExists(json));
+                writer.exportPlayers();
+                assertTrue(Files.readString(json).contains("\"elo_pont\" : 6000"));
+            }
+        }
+    }
+
+    @Test
+    void testChangesAreWrittenWithinTheInterval() throws IOException, InterruptedException {
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            try (var writer = new RatingWriter(store, null, Duration.ofMillis(10), false)) {
+                writer.addIfAbsent("Beni", 1000);
+                for (var i = 0; i < 500 && store.size() == 0; i++) {
+                    Thread.sleep(10);
+                }
+                assertEquals(OptionalInt.of(1000), store.getRating("Beni"));
+            }
+        }
+    }
+
+    @Test
+    void testCloseWritesQueuedChanges() throws IOException {
+        var file = dir.resolve("players.log");
+        try (var store = new PlayerStore(file)) {
+            var writer = new RatingWriter(store, null, Duration.ofHours(1), true);
+            writer.addIfAbsent("Beni", 1000);
+            writer.close();
+        }
+        try (var store = new PlayerStore(file)) {
+            assertEquals(OptionalInt.of(1000), store.getRating("Beni"));
+        }
+    }
+
+    @Test
+    void testGamesAreRatedAndLogged() throws IOException {
+        var results = new GameResultLog(dir.resolve("results.log"));
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            try (var writer = new RatingWriter(store, results, new EloRating(), null, Duration.ofHours(1), true)) {
+                writer.addIfAbsent("Beni", 1000);
+                writer.addIfAbsent("Béla", 1000);
+                writer.recordGame("Beni", "Béla");
+                writer.recordGame("Beni", "Béla");
+                writer.recordGame("Beni", "Nobody");
+                writer.flush();
+
+                assertEquals(OptionalInt.of(1050 + 36), store.getRating("Beni"));
+                assertEquals(OptionalInt.of(950 - 36), store.getRating("Béla"));
+            }
+        }
+        assertEquals(Map.of("Beni", 1086, "Béla", 914), RatingRecompute.sequential(results, new EloRating()));
+    }
+
+    @Test
+    void testGamesAreArchivedInTheBackground() throws IOException {
+        var file = dir.resolve("games.dat");
+        var game = GameRecord.of(1, "Beni", "Béla", new BitboardState());
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            try (var writer = new RatingWriter(store, null, file, new EloRating(), null, Duration.ofHours(1),
+                    false)) {
+                writer.archiveGame(game);
+                writer.archiveGame(new GameRecord(0, "x".repeat(GameArchive.MAX_NAME_LENGTH + 1), "Béla", null,
+                        new byte[0]));
+                writer.archiveGame(game);
+                assertTrue(Files.notExists(file));
+
+                writer.flush();
+            }
+        }
+        try (var archive = new GameArchive(file)) {
+            assertEquals(2, archive.size());
+            assertEquals(game, archive.get(0));
+        }
+    }
+
+    @Test
+    void testFailedBatchIsWrittenOnce() throws IOException {
+        var file = dir.resolve("results.log");
+        Files.createDirectory(file);
+        var results = new GameResultLog(file);
+        var json = dir.resolve("players.json");
+        try (var store = new PlayerStore(dir.resolve("players.log"))) {
+            try (var writer = new RatingWriter(store, results, new EloRating(), json, Duration.ofHours(1), true)) {
+                writer.addIfAbsent("Beni", 1000);
+                writer.addIfAbsent("Béla", 1000);
+                writer.recordGame("Beni", "Béla");
+
+                assertThrows(IOException.class, writer::flush);
+                assertEquals(OptionalInt.of(1050), store.getRating("Beni"));
+
+                Files.delete(file);
+                writer.recordGame("Béla", "Beni");
+                writer.flush();
+
+                assertEquals(OptionalInt.of(1050 - 64), store.getRating("Beni"));
+                assertEquals(OptionalInt.of(950 + 64), store.getRating("Béla"));
+            }
+            assertTrue(Files.readString(json).contains("\"elo_pont\" : 1014"));
+        }
+        assertEquals(Map.of("Beni", 986, "Béla", 1014), RatingRecompute.sequential(results, new EloRating()));
+    }
+}
@@ -0,0 +1,33 @@
+package boardgame.rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EloRatingTest {
+
+    @Test
+    void testEqualRatingsKeepFlatPoints() {
+        assertEquals(50, new EloRating().points(1000, 1000));
+        assertEquals(16, new EloRating(32).points(1500, 1500));
+    }
+
+    @Test
+    void testUpsetGivesMorePoints() {
+        var elo = new EloRating();
+
+        assertEquals(91, elo.points(1000, 1400));
+        assertEquals(9, elo.points(1400, 1000));
+    }
+
+    @Test
+    void testExpectedScores() {
+        assertEquals(0.5, EloRating.expectedScore(1200, 1200), 1e-9);
+        assertEquals(1, EloRating.expectedScore(1000, 1400) + EloRating.expectedScore(1400, 1000), 1e-9);
+    }
+
+    @Test
+    void testInvalidKFactor() {
+        assertThrows(IllegalArgumentException.class, () -> new EloRating(0));
+    }
+}
@@ -0,0 +1,88 @@
+package boardgame.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    @Test
+    void testOrderAndRanks() {
+        var leaderboard = new Leaderboard();
+        leaderboard.update("Beni", 1350);
+        leaderboard.update("Gitta", 900);
+        leaderboard.update("Béla", 1050);
+        leaderboard.update("Péter", 1050);
+        leaderboard.update("gitta", 1400);
+
+        assertEquals(List.of(
+                new Leaderboard.Standing(1, "gitta", 1400),
+                new Leaderboard.Standing(2, "Beni", 1350),
+                new Leaderboard.Standing(3, "Béla", 1050),
+                new Leaderboard.Standing(4, "Péter", 1050)), leaderboard.page(0, 10));
+        assertEquals(OptionalInt.of(3), leaderboard.rank("BÉLA"));
+        assertEquals(OptionalInt.empty(), leaderboard.rank("Nobody"));
+        assertTrue(leaderboard.remove("Beni"));
+        assertEquals(List.of(new Leaderboard.Standing(2, "Béla", 1050)), leaderboard.page(1, 1));
+    }
+
+    @Test
+    void testMatchesSortedList() {
+        var leaderboard = new Leaderboard();
+        var ratings = new HashMap<String, Integer>();
+        var random = new Random(42);
+        for (var i = 0; i < 20000; i++) {
+            var name = "Player " + random.nextInt(2000);
+            if (random.nextInt(10) == 0) {
+                assertEquals(ratings.remove(name) != null, leaderboard.remove(name));
+            } else {
+                var rating = 800 + random.nextInt(400);
+                ratings.put(name, rating);
+                leaderboard.update(name, rating);
+            }
+        }
+        var expected = new ArrayList<>(ratings.entrySet());
+        expected.sort(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue)
+                .reversed().thenComparing(Map.Entry::getKey));
+
+        assertEquals(expected.size(), leaderboard.size());
+        var page = leaderboard.page(100, 50);
+        for (var i = 0; i < page.size(); i++) {
+            assertEquals(expected.get(100 + i).getKey(), page.get(i).name());
+            assertEquals(101 + i, page.get(i).rank());
+        }
+        for (var i = 0; i < expected.size(); i += 97) {
+            assertEquals(OptionalInt.of(i + 1), leaderboard.rank(expected.get(i).getKey()));
+        }
+        assertEquals(expected.size() - 10, leaderboard.page(10, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void testSearch() {
+        var leaderboard = new Leaderboard();
+        leaderboard.update("Beni", 1350);
+        leaderboard.update("Béla", 1050);
+        leaderboard.update("bea", 1200);
+        leaderboard.update("Péter", 1100);
+        leaderboard.update("Be", 900);
+
+        assertEquals(3, leaderboard.countMatches("BE"));
+        assertEquals(List.of(
+                new Leaderboard.Standing(5, "Be", 900),
+                new Leaderboard.Standing(2, "bea", 1200),
+                new Leaderboard.Standing(1, "Beni", 1350)), leaderboard.search("be", 0, 3));
+        assertEquals(List.of(new Leaderboard.Standing(1, "Beni", 1350)), leaderboard.search("be", 2, 3));
+        assertEquals(List.of(new Leaderboard.Standing(4, "Béla", 1050)), leaderboard.search("bé", 0, 3));
+        assertEquals(List.of(), leaderboard.search("be", 10, 3));
+        assertEquals(0, leaderboard.countMatches("x"));
+        assertEquals(5, leaderboard.countMatches(""));
+    }
+}
@@ -0,0 +1,165 @@
+package boardgame.rating;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingRecomputeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSequential() throws IOException {
+        var log = new GameResultLog(dir.resolve("results.log"));
+        log.append(List.of(new GameResult(1, "Beni", "Béla"), new GameResult(2, "Béla", "Gitta")), false);
+
+        var ratings = RatingRecompute.sequential(log, new EloRating());
+
+        assertEquals(Map.of("Beni", 1050, "Béla", 950 + 57, "Gitta", 943), ratings);
+        assertEquals(List.of("Beni", "Béla", "Gitta"), List.copyOf(ratings.keySet()));
+    }
+
+    @Test
+    void testNamesIgnoreCase() throws IOException {
+        var log = new GameResultLog(dir.resolve("results.log"));
+        log.append(List.of(new GameResult(1, "Beni", "Béla"), new GameResult(2, "BÉLA", "beni"),
+                new GameResult(3, "beni", "BENI")), false);
+        var elo = new EloRating();
+        var points = elo.points(950, 1050);
+        var expected = Map.of("Beni", 1050 - points, "Béla", 950 + points);
+
+        assertEquals(expected, RatingRecompute.sequential(log, elo));
+        assertEquals(expected, RatingRecompute.parallel(log, elo));
+    }
+
+    @Test
+    void testParallelMatchesSequential() throws IOException {
+        var log = new GameResultLog(dir.resolve("results.log"));
+        var random = new Random(42);
+        for (var batch = 0; batch < 10; batch++) {
+            var results = new ArrayList<GameResult>();
+            for (var i = 0; i < 5000; i++) {
+                var winner = "Player " + random.nextInt(300);
+                var loser = "Player " + random.nextInt(300);
+                results.add(new GameResult(i, winner, loser));
+            }
+            log.append(results, false);
+        }
+        var elo = new EloRating(40);
+
+        var sequential = RatingRecompute.sequential(log, elo);
+        var parallel = RatingRecompute.parallel(log, elo);
+
+        assertEquals(sequential, parallel);
+        assertEquals(List.copyOf(sequential.keySet()), List.copyOf(parallel.keySet()));
+        assertEquals(300 * EloRating.INITIAL_RATING, parallel.values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(sequential, RatingRecompute.parallel(log, elo, 1));
+        assertEquals(List.copyOf(sequential.keySet()),
+                List.copyOf(RatingRecompute.parallel(log, elo, 7).keySet()));
+    }
+
+    @Test
+    void testParallelStopsAtACorruptResult() throws IOException {
+        var file = dir.resolve("results.log");
+        var log = new GameResultLog(file);
+        var results = new ArrayList<GameResult>();
+        for (var i = 0; i < 50; i++) {
+            results.add(new GameResult(i, "Player " + i % 7, "Player " + i % 5));
+        }
+        log.append(results, false);
+        // every record of this log is 4 + 28 + 4 bytes long, the 21st winner gets another name
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), 4 + 20 * 36 + 4 + 8 + 2);
+        }
+        var elo = new EloRating();
+
+        var sequential = RatingRecompute.sequential(log, elo);
+
+        assertEquals(20, log.forEach(result -> {
+        }));
+        for (var chunkSize : new int[] {1, 6, 20, 64}) {
+            assertEquals(sequential, RatingRecompute.parallel(log, elo, chunkSize));
+        }
+    }
+
+    @Test
+    void testTornResultIsSkipped() throws IOException {
+        var file = dir.resolve("results.log");
+        var log = new GameResultLog(file);
+        log.append(List.of(new GameResult(1, "Beni", "Béla"), new GameResult(2, "Béla", "Beni")), true);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        assertEquals(1, log.forEach(result -> assertEquals("Beni", result.winner())));
+    }
+
+    @Test
+    void testTornResultIsCutOffBeforeAppend() throws IOException {
+        var file = dir.resolve("results.log");
+        new GameResultLog(file).append(List.of(new GameResult(1, "Beni", "Béla"), new GameResult(2, "Béla", "Beni")),
+                true);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        var log = new GameResultLog(file);
+        log.append(List.of(new GameResult(3, "Gitta", "Beni")), true);
+
+        var winners = new ArrayList<String>();
+        assertEquals(2, log.forEach(result -> winners.add(result.winner())));
+        assertEquals(List.of("Beni", "Gitta"), winners);
+    }
+
+    @Test
+    void testLogsOfTheSameFileShareIt() throws IOException, InterruptedException {
+        var file = dir.resolve("results.log");
+        var threads = new ArrayList<Thread>();
+        var failures = new ArrayList<Throwable>();
+        for (var t = 0; t < 4; t++) {
+            var log = new GameResultLog(dir.resolve(".").resolve("results.log"));
+            threads.add(new Thread(() -> {
+                try {
+                    for (var i = 0; i < 100; i++) {
+                        log.append(List.of(new GameResult(i, "Beni", "Béla")), false);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals(400, new GameResultLog(file).forEach(result -> assertEquals("Beni", result.winner())));
+    }
+
+    @Test
+    void testOtherFileIsNotOverwritten() throws IOException {
+        var file = dir.resolve("results.log");
+        Files.writeString(file, "Beni Béla\n");
+        var log = new GameResultLog(file);
+
+        assertThrows(IOException.class, () -> log.append(List.of(new GameResult(1, "Beni", "Béla")), true));
+        assertThrows(IOException.class, () -> log.forEach(result -> fail()));
+        assertEquals("Beni Béla\n", Files.readString(file));
+    }
+}
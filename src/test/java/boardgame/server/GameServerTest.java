@@ -0,0 +1,58 @@
+package boardgame.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    @Test
+    void testTcpSession() throws IOException {
+        try (var server = new GameServer(GameServer.parseAddress("0"), model -> { })) {
+            server.start();
+            var address = (InetSocketAddress) server.getAddress();
+            try (var socket = new Socket(address.getAddress(), address.getPort());
+                 var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 var out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                out.println("NEW red blue");
+                assertEquals("OK 2222203030000000303011111 PLAYER_1", in.readLine());
+                out.println("MOVE 4 0 3 0");
+                assertEquals("OK IN_PROGRESS", in.readLine());
+                out.println("QUIT");
+                assertEquals("OK BYE", in.readLine());
+                assertNull(in.readLine());
+            }
+        }
+    }
+
+    @Test
+    void testLoadGeneratorOnUnixSocket(@TempDir Path dir) throws IOException, InterruptedException {
+        var finished = new AtomicInteger();
+        var file = dir.resolve("server.sock");
+        try (var server = new GameServer(GameServer.parseAddress(file.toString()), model -> finished.incrementAndGet())) {
+            server.start();
+            var generator = new LoadGenerator(server.getAddress(), 20);
+            generator.run(TimeUnit.MILLISECONDS.toNanos(500), new SplittableRandom(3));
+
+            assertEquals(0, generator.getFailures());
+            assertTrue(generator.getMoves() > 0);
+            assertEquals(generator.getGames(), finished.get());
+            assertTrue(generator.getLatency(0.5) <= generator.getLatency(0.99));
+        }
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,118 @@
+package boardgame.server;
+
+import boardgame.model.BitboardState;
+import boardgame.model.BoardGameModel;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Turn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+
+    private final List<BoardGameModel> recorded = new ArrayList<>();
+    private final GameSession session = new GameSession(recorded::add);
+
+    private static String move(int from, int to) {
+        return "MOVE " + BitboardState.row(from) + " " + BitboardState.col(from) + " "
+                + BitboardState.row(to) + " " + BitboardState.col(to);
+    }
+
+    @Test
+    void testNewGame() {
+        assertEquals("ERR No game", session.handle("BOARD"));
+        assertEquals("OK 2222203030000000303011111 PLAYER_1", session.handle("NEW red blue"));
+        assertEquals("OK 2222203030000000303011111 PLAYER_1", session.handle("BOARD"));
+        assertTrue(session.handle("NEW red").startsWith("ERR"));
+        assertTrue(session.handle("HELLO").startsWith("ERR"));
+    }
+
+    @Test
+    void testIllegalMoves() {
+        session.handle("NEW red blue");
+
+        assertEquals("ERR Illegal move", session.handle("MOVE 0 0 1 0"));
+        assertEquals("ERR Illegal move", session.handle("MOVE 4 0 5 0"));
+        assertTrue(session.handle("MOVE 4 0 3 x").startsWith("ERR"));
+        assertEquals("OK IN_PROGRESS", session.handle("MOVE 4 0 3 0"));
+        assertEquals("ERR Illegal move", session.handle("MOVE 4 1 3 2"));
+        assertEquals("ERR Illegal move", session.handle("MOVE 4 1 3 1"));
+        assertEquals("OK IN_PROGRESS", session.handle("MOVE 4 2 3 2"));
+        assertEquals("OK 2222203030000001313001011 PLAYER_2", session.handle("BOARD"));
+    }
+
+    /**
+     * Plays a random game to the end on a session and on a state.
+     *
+     * @return the answer of the last move
+     */
+    private static String playToEnd(GameSession session, BitboardState state) {
+        var random = new SplittableRandom(2);
+        var turns = new int[MoveGenerator.MAX_TURNS];
+        var answer = "";
+        while (!state.isGameOver()) {
+            var count = MoveGenerator.generate(state, turns);
+            if (count == 0) {
+                var single = LoadGenerator.anyMove(state);
+                state.makeMove(single >>> 5, single & 31);
+                return session.handle(move(single >>> 5, single & 31));
+            }
+            var turn = turns[random.nextInt(count)];
+            state.makeMove(Turn.firstFrom(turn), Turn.firstTo(turn));
+            answer = session.handle(move(Turn.firstFrom(turn), Turn.firstTo(turn)));
+            if (!state.isGameOver()) {
+                assertEquals("OK " + state.getStatus(), answer);
+                state.makeMove(Turn.secondFrom(turn), Turn.secondTo(turn));
+                answer = session.handle(move(Turn.secondFrom(turn), Turn.secondTo(turn)));
+                if (!state.isGameOver()) {
+                    assertEquals("OK " + state.getStatus(), answer);
+                }
+            }
+        }
+        return answer;
+    }
+
+    @Test
+    void testFinishedGameIsRecordedOnce() {
+        var state = new BitboardState();
+        session.handle("NEW red blue");
+
+        var answer = playToEnd(session, state);
+
+        assertTrue(state.isGameOver());
+        assertEquals("OK " + state.getStatus(), answer);
+        assertEquals(1, recorded.size());
+        assertEquals("red", recorded.get(0).getPlayer1Name());
+        assertEquals(state.getStatus(), recorded.get(0).getStatus());
+        assertEquals("ERR The game is over", session.handle("MOVE 0 0 1 0"));
+        assertEquals(1, recorded.size());
+    }
+
+    @Test
+    void testFailedRecordIsAnswered() {
+        var failing = new GameSession(model -> {
+            throw new IllegalStateException("The disk is full");
+        });
+        var state = new BitboardState();
+        failing.handle("NEW red blue");
+
+        var answer = playToEnd(failing, state);
+
+        assertTrue(state.isGameOver());
+        assertEquals("ERR Not recorded: " + state.getStatus(), answer);
+        assertEquals("ERR The game is over", failing.handle("MOVE 0 0 1 0"));
+        assertTrue(failing.handle("NEW red blue").startsWith("OK"));
+    }
+
+    @Test
+    void testQuit() {
+        assertFalse(session.isClosed());
+        assertEquals("OK BYE", session.handle("QUIT"));
+        assertTrue(session.isClosed());
+    }
+}
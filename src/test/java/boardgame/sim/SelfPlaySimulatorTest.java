@@ -0,0 +1,36 @@
+package boardgame.sim;
+
+import game.State;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlaySimulatorTest {
+
+    @Test
+    void testCountsAddUp() throws InterruptedException {
+        var stats = new SelfPlaySimulator(Policy.RANDOM, Policy.GREEDY, 100).run(200, 3, 42);
+
+        assertEquals(200, stats.getGames());
+        var total = 0L;
+        for (var outcome : Outcome.values()) {
+            total += stats.getCount(outcome);
+        }
+        assertEquals(200, total);
+        assertEquals(stats.getCount(Outcome.TURN_LIMIT), stats.getCount(null, Outcome.TURN_LIMIT));
+        assertTrue(stats.getMoves() >= stats.getTurns());
+    }
+
+    @Test
+    void testSameSeedPlaysSameGames() throws InterruptedException {
+        var simulator = new SelfPlaySimulator(Policy.GREEDY, Policy.GREEDY, 100);
+        var first = simulator.run(100, 2, 7);
+        var second = simulator.run(100, 2, 7);
+
+        assertEquals(first.getMoves(), second.getMoves());
+        for (var outcome : Outcome.values()) {
+            assertEquals(first.getCount(State.Player.PLAYER_1, outcome), second.getCount(State.Player.PLAYER_1, outcome));
+        }
+    }
+}